@@ -0,0 +1,235 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Looks up country and capital names by a normalised key so answers can be
+ * checked with one hash lookup.
+ *
+ * Keys are built once when the World is loaded. A key is the name with
+ * accents removed, letters in lower case, apostrophes and periods dropped,
+ * and any other run of punctuation or whitespace collapsed to one space.
+ * So "Côte d’Ivoire", "cote d'ivoire" and "COTE DIVOIRE" share one key,
+ * as do "Washington, D.C." and "washington dc".
+ *
+ * The ...Within methods also accept a guess a few typing mistakes away
+ * from the expected name, measured in Damerau–Levenshtein edits between
+ * the keys. A guess that is exactly some other country or capital is
+ * never accepted that way, so "Iran" is not taken for "Iraq".
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class AnswerIndex
+{
+
+    private static final int ASCII_LIMIT = 0x80;
+    private static final char SPACE = ' ';
+    private static final int[] NO_IDS = new int[0];
+
+    private final Map<String, int[]> countryKeys;
+    private final Map<String, int[]> capitalKeys;
+    private final String[] countryKeyById;
+    private final String[] capitalKeyById;
+
+    /**
+     * Builds the index over every country and capital in the table.
+     *
+     * @param table the countries to index
+     */
+    AnswerIndex(final CountryTable table)
+    {
+        countryKeys    = new HashMap<>();
+        capitalKeys    = new HashMap<>();
+        countryKeyById = new String[table.size()];
+        capitalKeyById = new String[table.size()];
+
+        for (int id = 0; id < table.size(); id++)
+        {
+            countryKeyById[id] = normalize(table.name(id));
+            capitalKeyById[id] = normalize(table.capital(id));
+
+            add(countryKeys, countryKeyById[id], id);
+            add(capitalKeys, capitalKeyById[id], id);
+        }
+    }
+
+    /**
+     * Checks whether a guess names the given country.
+     *
+     * @param guess     the player's guess
+     * @param countryId the id of the expected country
+     *
+     * @return true if the guess matches the country's name
+     */
+    public boolean isCountry(final String guess,
+                             final int countryId)
+    {
+        return contains(countryKeys.getOrDefault(normalize(guess), NO_IDS), countryId);
+    }
+
+    /**
+     * Checks whether a guess names the capital of the given country.
+     *
+     * @param guess     the player's guess
+     * @param countryId the id of the country whose capital is expected
+     *
+     * @return true if the guess matches the country's capital
+     */
+    public boolean isCapital(final String guess,
+                             final int countryId)
+    {
+        return contains(capitalKeys.getOrDefault(normalize(guess), NO_IDS), countryId);
+    }
+
+    /**
+     * Checks whether a guess names the given country, allowing up to
+     * maxDistance typing mistakes.
+     *
+     * @param guess       the player's guess
+     * @param countryId   the id of the expected country
+     * @param maxDistance the most edits the guess may be away from the name
+     *
+     * @return true if the guess matches the country's name closely enough
+     */
+    public boolean isCountryWithin(final String guess,
+                                   final int countryId,
+                                   final int maxDistance)
+    {
+        return matches(countryKeys, countryKeyById[countryId], guess, countryId, maxDistance);
+    }
+
+    /**
+     * Checks whether a guess names the capital of the given country,
+     * allowing up to maxDistance typing mistakes.
+     *
+     * @param guess       the player's guess
+     * @param countryId   the id of the country whose capital is expected
+     * @param maxDistance the most edits the guess may be away from the name
+     *
+     * @return true if the guess matches the capital closely enough
+     */
+    public boolean isCapitalWithin(final String guess,
+                                   final int countryId,
+                                   final int maxDistance)
+    {
+        return matches(capitalKeys, capitalKeyById[countryId], guess, countryId, maxDistance);
+    }
+
+    /**
+     * Converts text to the key used by the index.
+     *
+     * @param text the text to normalise
+     *
+     * @return the normalised key
+     */
+    public static String normalize(final String text)
+    {
+        String source;
+        source = text;
+
+        for (int i = 0; i < source.length(); i++)
+        {
+            if (source.charAt(i) >= ASCII_LIMIT)
+            {
+                // split accented letters into a base letter and a combining mark
+                source = Normalizer.normalize(source, Normalizer.Form.NFD);
+                break;
+            }
+        }
+
+        final StringBuilder key;
+        key = new StringBuilder(source.length());
+
+        boolean pendingSpace;
+        pendingSpace = false;
+
+        for (int i = 0; i < source.length(); i++)
+        {
+            final char c;
+            c = source.charAt(i);
+
+            if (Character.isLetterOrDigit(c))
+            {
+                if (pendingSpace && key.length() > 0)
+                {
+                    key.append(SPACE);
+                }
+                pendingSpace = false;
+                key.append(Character.toLowerCase(c));
+            }
+            else if (!isDropped(c))
+            {
+                // apostrophes, periods and accents vanish without splitting the word
+                pendingSpace = true;
+            }
+        }
+
+        return key.toString();
+    }
+
+    private boolean matches(final Map<String, int[]> keys,
+                            final String expected,
+                            final String guess,
+                            final int countryId,
+                            final int maxDistance)
+    {
+        final String key;
+        key = normalize(guess);
+
+        if (contains(keys.getOrDefault(key, NO_IDS), countryId))
+        {
+            return true;
+        }
+
+        if (maxDistance == 0 || countryKeys.containsKey(key) || capitalKeys.containsKey(key))
+        {
+            return false;
+        }
+
+        return EditDistance.damerauLevenshtein(key, expected, maxDistance) <= maxDistance;
+    }
+
+    private static boolean isDropped(final char c)
+    {
+        return c == '\'' || c == '\u2019' || c == '\u2018' || c == '`' || c == '.'
+               || Character.getType(c) == Character.NON_SPACING_MARK;
+    }
+
+    private static void add(final Map<String, int[]> keys,
+                            final String key,
+                            final int id)
+    {
+        final int[] existing;
+        existing = keys.get(key);
+
+        if (existing == null)
+        {
+            keys.put(key, new int[]{id});
+        }
+        else
+        {
+            final int[] grown;
+            grown = Arrays.copyOf(existing, existing.length + 1);
+            grown[existing.length] = id;
+            keys.put(key, grown);
+        }
+    }
+
+    private static boolean contains(final int[] ids,
+                                    final int id)
+    {
+        for (final int candidate : ids)
+        {
+            if (candidate == id)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,32 @@
+package ca.bcit.comp2522.wordGame;
+
+/**
+ * The outcome of submitting one answer to a GameSession.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public enum AnswerResult
+{
+    /** Correct on the first attempt; worth 2 points. */
+    CORRECT_FIRST_ATTEMPT,
+
+    /** Correct on the second attempt; worth 1 point. */
+    CORRECT_SECOND_ATTEMPT,
+
+    /** Wrong on the first attempt; the same question may be answered again. */
+    TRY_AGAIN,
+
+    /** Wrong on both attempts; worth 0 points. */
+    INCORRECT;
+
+    /**
+     * Returns whether this result moves the session to the next question.
+     *
+     * @return true unless the player gets another attempt
+     */
+    public boolean isFinal()
+    {
+        return this != TRY_AGAIN;
+    }
+}
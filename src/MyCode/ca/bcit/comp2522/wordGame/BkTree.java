@@ -0,0 +1,234 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Finds the names closest to a misspelt guess without comparing the guess
+ * with every name.
+ *
+ * This is a Burkhard-Keller tree over the AnswerIndex keys of the names.
+ * Every child hangs under its parent at the edit distance between the
+ * two keys, so a search for keys within r of a guess that is d away from
+ * a node only has to visit children whose edge lies between d - r and
+ * d + r. The tree is organised by Levenshtein distance, which obeys the
+ * triangle inequality that this pruning depends on. A swap of two
+ * letters costs 2 in that distance but 1 in Damerau–Levenshtein, so the
+ * search radius is doubled and the results are then filtered by their
+ * Damerau–Levenshtein distance.
+ *
+ * Nodes are stored in parallel int arrays, with each node's children kept
+ * as a linked list of siblings, so the tree holds no per-node objects.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class BkTree
+{
+
+    private static final int NONE = -1;
+    private static final int UNBOUNDED = Integer.MAX_VALUE / 2;
+
+    private final String[] keys;
+    private final int[] edge;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final IntFunction<String> names;
+
+    /**
+     * Builds the tree over the names with ids 0 to size - 1. A node's
+     * index in the arrays is the id of the name it holds.
+     *
+     * @param size  the number of names
+     * @param names returns the display name for an id
+     */
+    BkTree(final int size,
+           final IntFunction<String> names)
+    {
+        keys        = new String[size];
+        edge        = new int[size];
+        firstChild  = new int[size];
+        nextSibling = new int[size];
+        this.names  = names;
+
+        Arrays.fill(firstChild, NONE);
+        Arrays.fill(nextSibling, NONE);
+
+        for (int id = 0; id < size; id++)
+        {
+            keys[id] = AnswerIndex.normalize(names.apply(id));
+
+            if (id > 0)
+            {
+                insert(id);
+            }
+        }
+    }
+
+    /**
+     * Returns up to limit names within maxDistance Damerau–Levenshtein
+     * edits of the guess, nearest first. Names that are spelt the same
+     * are returned once.
+     *
+     * @param guess       the player's guess
+     * @param maxDistance the most edits a suggestion may be away
+     * @param limit       the most suggestions to return
+     *
+     * @return the closest names, nearest first
+     */
+    public List<String> suggest(final String guess,
+                                final int maxDistance,
+                                final int limit)
+    {
+        final int[] ids;
+        ids = search(guess, maxDistance);
+
+        final List<String> suggestions;
+        suggestions = new ArrayList<>();
+
+        for (int i = 0; i < ids.length && suggestions.size() < limit; i++)
+        {
+            final String name;
+            name = names.apply(ids[i]);
+
+            if (!suggestions.contains(name))
+            {
+                suggestions.add(name);
+            }
+        }
+
+        return suggestions;
+    }
+
+    /**
+     * Returns the ids of every name within maxDistance Damerau–Levenshtein
+     * edits of the guess, ordered by distance and then by key.
+     *
+     * @param guess       the player's guess
+     * @param maxDistance the most edits a match may be away
+     *
+     * @return the matching ids, nearest first
+     */
+    public int[] search(final String guess,
+                        final int maxDistance)
+    {
+        if (maxDistance < 0)
+        {
+            throw new IllegalArgumentException("maxDistance must not be negative");
+        }
+
+        if (keys.length == 0)
+        {
+            return new int[0];
+        }
+
+        final String key;
+        final int radius;
+
+        key    = AnswerIndex.normalize(guess);
+        radius = 2 * maxDistance;
+
+        final List<int[]> matches;
+        final int[] stack;
+
+        matches = new ArrayList<>();
+        stack   = new int[keys.length];
+
+        int top;
+        top          = 0;
+        stack[top++] = 0;
+
+        while (top > 0)
+        {
+            final int node;
+            node = stack[--top];
+
+            int farthestChild;
+            farthestChild = 0;
+
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child])
+            {
+                farthestChild = Math.max(farthestChild, edge[child]);
+            }
+
+            // past this bound no child is in range, so the exact distance is not needed
+            final int distance;
+            distance = EditDistance.levenshtein(key, keys[node], farthestChild + radius);
+
+            if (distance <= radius)
+            {
+                final int close;
+                close = EditDistance.damerauLevenshtein(key, keys[node], maxDistance);
+
+                if (close <= maxDistance)
+                {
+                    matches.add(new int[]{close, node});
+                }
+            }
+
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child])
+            {
+                if (Math.abs(edge[child] - distance) <= radius)
+                {
+                    stack[top++] = child;
+                }
+            }
+        }
+
+        matches.sort((a, b) ->
+        {
+            if (a[0] != b[0])
+            {
+                return Integer.compare(a[0], b[0]);
+            }
+            return keys[a[1]].compareTo(keys[b[1]]);
+        });
+
+        final int[] ids;
+        ids = new int[matches.size()];
+
+        for (int i = 0; i < ids.length; i++)
+        {
+            ids[i] = matches.get(i)[1];
+        }
+
+        return ids;
+    }
+
+    /*
+     * Walks down from the root to the first node with no child at the new
+     * key's distance and hangs the key there.
+     */
+    private void insert(final int id)
+    {
+        int node;
+        node = 0;
+
+        while (true)
+        {
+            final int distance;
+            distance = EditDistance.levenshtein(keys[id], keys[node], UNBOUNDED);
+
+            int child;
+            child = firstChild[node];
+
+            while (child != NONE && edge[child] != distance)
+            {
+                child = nextSibling[child];
+            }
+
+            if (child == NONE)
+            {
+                edge[id]         = distance;
+                nextSibling[id]  = firstChild[node];
+                firstChild[node] = id;
+                return;
+            }
+
+            node = child;
+        }
+    }
+
+}
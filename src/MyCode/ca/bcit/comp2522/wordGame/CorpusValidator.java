@@ -0,0 +1,384 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Checks a directory of country data files and reports every problem
+ * instead of stopping at the first one.
+ *
+ * Every letter file is checked on its own fork-join task, so a large
+ * corpus is validated in parallel. Within a file each entry must be a
+ * "CountryName:CapitalCity" header followed by three non-blank facts, with
+ * blank lines between entries. When an entry is broken the problem is
+ * recorded with its line number and checking picks up again at the next
+ * blank line, so one bad entry never hides the ones after it. Once all
+ * files are checked, countries named in more than one file are reported
+ * too.
+ *
+ * Usage: CorpusValidator [directory]
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class CorpusValidator
+{
+
+    private static final Path DEFAULT_DIRECTORY = Paths.get("src/myResources/countries");
+    private static final char SEPARATOR = ':';
+    private static final int NOT_FOUND = -1;
+
+    private CorpusValidator()
+    {
+    }
+
+    /**
+     * Checks every letter file in the directory on the common fork-join
+     * pool.
+     *
+     * @param directory the directory containing the country data files
+     *
+     * @return the report of problems and valid entries
+     *
+     * @throws IOException if a file cannot be read
+     */
+    public static ValidationReport validate(final Path directory)
+        throws IOException
+    {
+        return validate(directory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Checks every letter file in the directory on the given pool.
+     * Missing letter files are not a problem.
+     *
+     * @param directory the directory containing the country data files
+     * @param pool      the fork-join pool that checks the files
+     *
+     * @return the report of problems and valid entries
+     *
+     * @throws IOException if a file cannot be read
+     */
+    public static ValidationReport validate(final Path directory,
+                                            final ForkJoinPool pool)
+        throws IOException
+    {
+        final List<FileCheck> checks;
+        checks = new ArrayList<>();
+
+        for (char letter = World.FIRST_LETTER; letter <= World.LAST_LETTER; letter++)
+        {
+            final FileCheck check;
+            check = new FileCheck(World.letterFile(directory, letter));
+
+            checks.add(check);
+            pool.execute(check);
+        }
+
+        final List<ValidationReport.Problem> problems;
+        final List<List<Country>> letters;
+        final Map<String, String> firstSeen;
+
+        problems  = new ArrayList<>();
+        letters   = new ArrayList<>();
+        firstSeen = new HashMap<>();
+
+        try
+        {
+            for (final FileCheck check : checks)
+            {
+                final FileResult result;
+                result = check.join();
+
+                problems.addAll(result.problems);
+
+                for (int i = 0; i < result.countries.size(); i++)
+                {
+                    final String name;
+                    final int line;
+
+                    name = result.countries.get(i).getName();
+                    line = result.headerLines.get(i);
+
+                    final String earlier;
+                    earlier = firstSeen.putIfAbsent(name, result.file + SEPARATOR + line);
+
+                    if (earlier != null)
+                    {
+                        problems.add(new ValidationReport.Problem(
+                            result.file, line, "Duplicate country \"" + name + "\", first defined at " + earlier));
+                    }
+                }
+
+                letters.add(result.countries);
+            }
+        }
+        catch (final UncheckedIOException ex)
+        {
+            throw ex.getCause();
+        }
+
+        problems.sort((a, b) ->
+        {
+            final int byFile;
+            byFile = a.getFile().compareTo(b.getFile());
+
+            if (byFile != 0)
+            {
+                return byFile;
+            }
+            return Integer.compare(a.getLine(), b.getLine());
+        });
+
+        return new ValidationReport(problems, letters);
+    }
+
+    /*
+     * Checks one file. Every valid entry is kept together with the line of
+     * its header, so duplicates can point back to it.
+     */
+    private static FileResult check(final Path filePath)
+        throws IOException
+    {
+        final FileResult result;
+        final String file;
+
+        file   = filePath.getFileName().toString();
+        result = new FileResult(file);
+
+        if (!Files.exists(filePath))
+        {
+            return result;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(filePath))
+        {
+            final LineCounter lines;
+            lines = new LineCounter(reader);
+
+            String line;
+
+            while ((line = lines.next()) != null)
+            {
+                final String header;
+                header = stripTrailingSeparators(line.trim());
+
+                if (header.isEmpty())
+                {
+                    continue;
+                }
+
+                final int headerLine;
+                final int colon;
+
+                headerLine = lines.number();
+                colon      = header.indexOf(SEPARATOR);
+
+                if (colon == NOT_FOUND || header.indexOf(SEPARATOR, colon + 1) != NOT_FOUND)
+                {
+                    result.problems.add(new ValidationReport.Problem(
+                        file, headerLine, World.BAD_HEADER));
+                    lines.skipEntry();
+                    continue;
+                }
+
+                final String[] facts;
+                facts = new String[CountryTable.FACTS_PER_COUNTRY];
+
+                int read;
+                read = 0;
+
+                while (read < facts.length)
+                {
+                    final String fact;
+                    fact = lines.next();
+
+                    if (fact == null || fact.isBlank())
+                    {
+                        break;
+                    }
+
+                    facts[read++] = fact;
+                }
+
+                if (read < facts.length)
+                {
+                    result.problems.add(new ValidationReport.Problem(
+                        file, headerLine, World.shortEntry(read)));
+                    continue;
+                }
+
+                final String name;
+                final String capital;
+
+                name    = header.substring(0, colon).trim();
+                capital = header.substring(colon + 1).trim();
+
+                final List<String> reasons;
+                reasons = CountryValidator.problems(name, capital, facts[0], facts[1], facts[2]);
+
+                for (final String reason : reasons)
+                {
+                    result.problems.add(new ValidationReport.Problem(file, headerLine, reason));
+                }
+
+                if (reasons.isEmpty())
+                {
+                    result.countries.add(new Country(name, capital, facts[0], facts[1], facts[2]));
+                    result.headerLines.add(headerLine);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private static String stripTrailingSeparators(final String header)
+    {
+        int end;
+        end = header.length();
+
+        while (end > 0 && header.charAt(end - 1) == SEPARATOR)
+        {
+            end--;
+        }
+
+        return header.substring(0, end);
+    }
+
+    /**
+     * Validates the country data and prints the report.
+     *
+     * @param args optional directory; src/myResources/countries by default
+     *
+     * @throws IOException if a file cannot be read
+     */
+    public static void main(final String[] args)
+        throws IOException
+    {
+        final Path directory;
+
+        if (args.length > 0)
+        {
+            directory = Paths.get(args[0]);
+        }
+        else
+        {
+            directory = DEFAULT_DIRECTORY;
+        }
+
+        System.out.print(validate(directory));
+    }
+
+    /*
+     * The valid entries of one file, each with the position of its header,
+     * and the problems found in it.
+     */
+    private static final class FileResult
+    {
+
+        private final String file;
+        private final List<Country> countries;
+        private final List<Integer> headerLines;
+        private final List<ValidationReport.Problem> problems;
+
+        private FileResult(final String file)
+        {
+            this.file   = file;
+            countries   = new ArrayList<>();
+            headerLines = new ArrayList<>();
+            problems    = new ArrayList<>();
+        }
+    }
+
+    /*
+     * Reads lines while keeping track of the current line number.
+     */
+    private static final class LineCounter
+    {
+
+        private final BufferedReader reader;
+        private int number;
+
+        private LineCounter(final BufferedReader reader)
+        {
+            this.reader = reader;
+            number      = 0;
+        }
+
+        private String next()
+            throws IOException
+        {
+            final String line;
+            line = reader.readLine();
+
+            if (line != null)
+            {
+                number++;
+            }
+            return line;
+        }
+
+        private int number()
+        {
+            return number;
+        }
+
+        /*
+         * Skips the rest of a broken entry, up to the next blank line.
+         */
+        private void skipEntry()
+            throws IOException
+        {
+            String line;
+
+            do
+            {
+                line = next();
+            }
+            while (line != null && !line.isBlank());
+        }
+    }
+
+    /*
+     * Checks one letter file on a fork-join worker.
+     */
+    private static final class FileCheck
+        extends RecursiveTask<FileResult>
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        // tasks are never serialized; Path is not Serializable
+        private final transient Path filePath;
+
+        private FileCheck(final Path filePath)
+        {
+            this.filePath = filePath;
+        }
+
+        @Override
+        protected FileResult compute()
+        {
+            try
+            {
+                return check(filePath);
+            }
+            catch (final IOException ex)
+            {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+}
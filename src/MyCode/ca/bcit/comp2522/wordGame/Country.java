@@ -74,4 +74,16 @@ public class Country
         return factsCopy;
     }
 
+    /**
+     * Returns one fact about the country without copying the facts array.
+     *
+     * @param factIndex which fact to return, from 0 to 2
+     *
+     * @return the requested fact
+     */
+    public final String getFact(final int factIndex)
+    {
+        return facts[factIndex];
+    }
+
 }
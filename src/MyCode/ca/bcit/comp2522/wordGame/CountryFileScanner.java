@@ -0,0 +1,286 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses a single country data file by memory-mapping it and scanning
+ * the raw bytes directly.
+ *
+ * The scanner accepts exactly the same input as World's text reader:
+ * blank lines are skipped, a header line must be "CountryName:CapitalCity"
+ * and the three lines after it are the facts. An entry with a bad header,
+ * or with fewer than three facts before a blank line or the end of the
+ * file, is skipped with a warning up to the next blank line, as World's
+ * reader does. Headers are split by hand
+ * instead of with a regular expression, and no intermediate String
+ * arrays are created.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+final class CountryFileScanner
+{
+
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte SEPARATOR = ':';
+    private static final int WHITESPACE_LIMIT = ' ';
+    private static final int UNSIGNED_MASK = 0xFF;
+    private static final int INITIAL_SCRATCH_SIZE = 256;
+    private static final int NOT_FOUND = -1;
+
+    private final Path filePath;
+    private final MappedByteBuffer buffer;
+    private final int limit;
+
+    private byte[] scratch;
+    private int position;
+    private int lineStart;
+    private int lineEnd;
+    private int lineNumber;
+
+    private CountryFileScanner(final Path filePath,
+                               final MappedByteBuffer buffer)
+    {
+        this.filePath = filePath;
+        this.buffer   = buffer;
+        limit         = buffer.limit();
+        scratch       = new byte[INITIAL_SCRATCH_SIZE];
+        position      = 0;
+        lineNumber    = 0;
+    }
+
+    /**
+     * Memory-maps the given file and returns every Country it contains,
+     * in the order they appear in the file.
+     *
+     * @param filePath the path to the country data file
+     *
+     * @return the countries read from the file
+     *
+     * @throws IOException if the file cannot be mapped
+     */
+    static List<Country> scan(final Path filePath)
+        throws IOException
+    {
+        final MappedByteBuffer mapped;
+
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ))
+        {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        final CountryFileScanner scanner;
+        scanner = new CountryFileScanner(filePath, mapped);
+
+        return scanner.readCountries();
+    }
+
+    /*
+     * Mirrors World.readFile line for line so both loaders produce the
+     * same map for the same input.
+     */
+    private List<Country> readCountries()
+    {
+        final List<Country> result;
+        result = new ArrayList<>();
+
+        while (nextLine())
+        {
+            int start;
+            int end;
+
+            start = trimStart(lineStart, lineEnd);
+            end   = trimEnd(start, lineEnd);
+
+            if (start == end)
+            {
+                continue;
+            }
+
+            // String.split drops trailing empty parts, so "A:B:" is still a header
+            while (end > start && buffer.get(end - 1) == SEPARATOR)
+            {
+                end--;
+            }
+
+            final int colon;
+            colon = indexOf(SEPARATOR, start, end);
+
+            final int headerLine;
+            headerLine = lineNumber;
+
+            if (colon == NOT_FOUND || indexOf(SEPARATOR, colon + 1, end) != NOT_FOUND)
+            {
+                World.warnSkipped(filePath, headerLine, World.BAD_HEADER);
+                skipEntry();
+                continue;
+            }
+
+            final String countryName;
+            final String capitalName;
+
+            countryName = decodeTrimmed(start, colon);
+            capitalName = decodeTrimmed(colon + 1, end);
+
+            final String[] facts;
+            facts = new String[CountryTable.FACTS_PER_COUNTRY];
+
+            int read;
+            read = 0;
+
+            while (read < facts.length && nextLine() && !isBlankLine())
+            {
+                facts[read++] = decode(lineStart, lineEnd);
+            }
+
+            if (read < facts.length)
+            {
+                World.warnSkipped(filePath, headerLine, World.shortEntry(read));
+                continue;
+            }
+
+            result.add(new Country(countryName, capitalName, facts[0], facts[1], facts[2]));
+        }
+
+        return result;
+    }
+
+    /*
+     * Skips the rest of a broken entry, up to and including the next blank
+     * line.
+     */
+    private void skipEntry()
+    {
+        while (nextLine() && !isBlankLine())
+        {
+            // keep skipping
+        }
+    }
+
+    private boolean isBlankLine()
+    {
+        return trimStart(lineStart, lineEnd) == lineEnd;
+    }
+
+    /*
+     * Advances to the next line using the same terminators as
+     * BufferedReader.readLine: "\n", "\r" or "\r\n".
+     */
+    private boolean nextLine()
+    {
+        if (position >= limit)
+        {
+            return false;
+        }
+
+        lineStart = position;
+        lineNumber++;
+
+        int index;
+        index = position;
+
+        while (index < limit)
+        {
+            final byte current;
+            current = buffer.get(index);
+
+            if (current == LINE_FEED || current == CARRIAGE_RETURN)
+            {
+                break;
+            }
+            index++;
+        }
+
+        lineEnd = index;
+
+        if (index < limit && buffer.get(index) == CARRIAGE_RETURN)
+        {
+            index++;
+
+            if (index < limit && buffer.get(index) == LINE_FEED)
+            {
+                index++;
+            }
+        }
+        else if (index < limit)
+        {
+            index++;
+        }
+
+        position = index;
+        return true;
+    }
+
+    private int trimStart(final int from,
+                          final int to)
+    {
+        int index;
+        index = from;
+
+        while (index < to && (buffer.get(index) & UNSIGNED_MASK) <= WHITESPACE_LIMIT)
+        {
+            index++;
+        }
+        return index;
+    }
+
+    private int trimEnd(final int from,
+                        final int to)
+    {
+        int index;
+        index = to;
+
+        while (index > from && (buffer.get(index - 1) & UNSIGNED_MASK) <= WHITESPACE_LIMIT)
+        {
+            index--;
+        }
+        return index;
+    }
+
+    private int indexOf(final byte target,
+                        final int from,
+                        final int to)
+    {
+        for (int i = from; i < to; i++)
+        {
+            if (buffer.get(i) == target)
+            {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private String decodeTrimmed(final int from,
+                                 final int to)
+    {
+        final int start;
+        start = trimStart(from, to);
+
+        return decode(start, trimEnd(start, to));
+    }
+
+    private String decode(final int from,
+                          final int to)
+    {
+        final int length;
+        length = to - from;
+
+        if (scratch.length < length)
+        {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+
+        buffer.get(from, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,31 @@
+package ca.bcit.comp2522.wordGame;
+
+/**
+ * Chooses which country the next question is about.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public interface CountrySampler
+{
+
+    /**
+     * Returns the id of the next country to ask about.
+     *
+     * @return a country id in the World's CountryTable
+     */
+    int nextCountryId();
+
+    /**
+     * Tells the sampler how the player did on a country, so adaptive
+     * samplers can change how often it is picked. Does nothing by default.
+     *
+     * @param countryId the country the question was about
+     * @param missed    true if the player got the question wrong
+     */
+    default void recordResult(final int countryId,
+                              final boolean missed)
+    {
+    }
+
+}
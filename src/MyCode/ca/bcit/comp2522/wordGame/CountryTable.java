@@ -0,0 +1,111 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.util.List;
+
+/**
+ * Column-oriented, read-only view of every country in a World.
+ *
+ * Each country is identified by an int id from 0 to size() - 1. Names,
+ * capitals and facts are kept in parallel arrays indexed by that id, so
+ * reading any field is a plain array access with no allocation, and the
+ * indexes built over a World can refer to countries by id.
+ *
+ * The arrays refer to the same strings as the World's Country objects,
+ * so the table costs a few references per country on top of them; it
+ * does not replace them or save memory.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class CountryTable
+{
+
+    public static final int FACTS_PER_COUNTRY = 3;
+
+    private final String[] names;
+    private final String[] capitals;
+    private final String[] facts;
+
+    /**
+     * Builds the table from a list of countries. A country's id is its
+     * position in the list.
+     *
+     * @param countryList the countries to store
+     */
+    CountryTable(final List<Country> countryList)
+    {
+        final int count;
+        count = countryList.size();
+
+        names    = new String[count];
+        capitals = new String[count];
+        facts    = new String[count * FACTS_PER_COUNTRY];
+
+        for (int id = 0; id < count; id++)
+        {
+            final Country country;
+            country = countryList.get(id);
+
+            names[id]    = country.getName();
+            capitals[id] = country.getCapitalCityName();
+
+            for (int i = 0; i < FACTS_PER_COUNTRY; i++)
+            {
+                facts[id * FACTS_PER_COUNTRY + i] = country.getFact(i);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of countries in the table.
+     *
+     * @return the number of country ids
+     */
+    public int size()
+    {
+        return names.length;
+    }
+
+    /**
+     * Returns the name of a country.
+     *
+     * @param countryId the country's id
+     *
+     * @return the country's name
+     */
+    public String name(final int countryId)
+    {
+        return names[countryId];
+    }
+
+    /**
+     * Returns the capital city of a country.
+     *
+     * @param countryId the country's id
+     *
+     * @return the country's capital city name
+     */
+    public String capital(final int countryId)
+    {
+        return capitals[countryId];
+    }
+
+    /**
+     * Returns one of a country's facts.
+     *
+     * @param countryId the country's id
+     * @param factIndex which fact to return, from 0 to 2
+     *
+     * @return the requested fact
+     */
+    public String fact(final int countryId,
+                       final int factIndex)
+    {
+        if (factIndex < 0 || factIndex >= FACTS_PER_COUNTRY)
+        {
+            throw new IndexOutOfBoundsException("factIndex must be 0 to 2: " + factIndex);
+        }
+        return facts[countryId * FACTS_PER_COUNTRY + factIndex];
+    }
+
+}
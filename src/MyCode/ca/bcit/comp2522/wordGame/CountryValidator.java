@@ -1,9 +1,14 @@
 package ca.bcit.comp2522.wordGame;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Provides input validation for creating Country objects.
  * Ensures that the country name, capital city name, and all three
  * fact strings are non-null and not blank before a Country is constructed.
+ * problems() reports the same checks as a list instead of throwing, for
+ * callers that want to collect every problem in a data file.
  *
  * @author Arshia Adamian
  * @version 1.0
@@ -56,4 +61,54 @@ public class CountryValidator
         }
 
     }
+
+    /**
+     * Checks the same fields as validate() but returns every problem
+     * found instead of throwing on the first one.
+     *
+     * @param name            name of the country.
+     * @param capitalCityName capital city of the country.
+     * @param fact1           fact number one about the country.
+     * @param fact2           fact number two about the country.
+     * @param fact3           fact number three about the country.
+     *
+     * @return the problems, using the same messages as validate(); empty if
+     *         the values are valid.
+     */
+    public static List<String> problems(final String name,
+                                        final String capitalCityName,
+                                        final String fact1,
+                                        final String fact2,
+                                        final String fact3)
+    {
+        final List<String> problems;
+        problems = new ArrayList<>();
+
+        if (name == null || name.isBlank())
+        {
+            problems.add("Name can not be empty");
+        }
+
+        if (capitalCityName == null || capitalCityName.isBlank())
+        {
+            problems.add("capitalCityName can not be empty");
+        }
+
+        if (fact1 == null || fact1.isBlank())
+        {
+            problems.add("fact1 can not be empty");
+        }
+
+        if (fact2 == null || fact2.isBlank())
+        {
+            problems.add("fact2 can not be empty");
+        }
+
+        if (fact3 == null || fact3.isBlank())
+        {
+            problems.add("fact3 can not be empty");
+        }
+
+        return problems;
+    }
 }
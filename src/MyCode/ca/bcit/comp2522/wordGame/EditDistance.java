@@ -0,0 +1,163 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.util.Arrays;
+
+/**
+ * Computes edit distances between short strings such as normalised
+ * country and capital names.
+ *
+ * Both distances are bounded: the caller says the largest distance it
+ * cares about, and only the diagonal band of the usual dynamic-programming
+ * table that could stay within it is filled in. As soon as every cell in
+ * a row is over the bound the work stops. Comparing a guess with a name
+ * therefore costs a few dozen cell updates rather than the full table.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+final class EditDistance
+{
+
+    private EditDistance()
+    {
+    }
+
+    /**
+     * Returns the Damerau–Levenshtein distance (insertions, deletions,
+     * substitutions and swaps of two adjacent characters, each costing 1)
+     * between two strings, as long as it is at most max. Each character
+     * may take part in only one swap.
+     *
+     * @param first  the first string
+     * @param second the second string
+     * @param max    the largest distance of interest
+     *
+     * @return the distance, or max + 1 if it is greater than max
+     */
+    static int damerauLevenshtein(final CharSequence first,
+                                  final CharSequence second,
+                                  final int max)
+    {
+        return bounded(first, second, max, true);
+    }
+
+    /**
+     * Returns the Levenshtein distance (insertions, deletions and
+     * substitutions, each costing 1) between two strings, as long as it is
+     * at most max. Unlike damerauLevenshtein, this distance satisfies the
+     * triangle inequality, so it can be used to organise a BkTree.
+     *
+     * @param first  the first string
+     * @param second the second string
+     * @param max    the largest distance of interest
+     *
+     * @return the distance, or max + 1 if it is greater than max
+     */
+    static int levenshtein(final CharSequence first,
+                           final CharSequence second,
+                           final int max)
+    {
+        return bounded(first, second, max, false);
+    }
+
+    private static int bounded(final CharSequence first,
+                               final CharSequence second,
+                               final int max,
+                               final boolean transpositions)
+    {
+        if (max < 0)
+        {
+            throw new IllegalArgumentException("max must not be negative");
+        }
+
+        final int rows;
+        final int columns;
+        final int over;
+
+        rows    = first.length();
+        columns = second.length();
+        over    = max + 1;
+
+        if (Math.abs(rows - columns) > max)
+        {
+            return over;
+        }
+
+        // previousPrevious is only read when swaps are allowed
+        int[] previousPrevious;
+        int[] previous;
+        int[] current;
+
+        previousPrevious = new int[columns + 1];
+        previous         = new int[columns + 1];
+        current          = new int[columns + 1];
+
+        for (int j = 0; j <= columns; j++)
+        {
+            previous[j] = Math.min(j, over);
+        }
+
+        for (int i = 1; i <= rows; i++)
+        {
+            final int from;
+            final int to;
+
+            from = Math.max(1, i - max);
+            to   = Math.min(columns, i + max);
+
+            // cells left of the band are out of reach
+            Arrays.fill(current, 0, from, over);
+
+            if (from == 1)
+            {
+                current[0] = Math.min(i, over);
+            }
+
+            final char c;
+            c = first.charAt(i - 1);
+
+            int rowMinimum;
+            rowMinimum = current[from - 1];
+
+            for (int j = from; j <= to; j++)
+            {
+                final char d;
+                d = second.charAt(j - 1);
+
+                int cell;
+                cell = previous[j - 1] + (c == d ? 0 : 1);
+                cell = Math.min(cell, previous[j] + 1);
+                cell = Math.min(cell, current[j - 1] + 1);
+
+                if (transpositions && i > 1 && j > 1
+                    && c == second.charAt(j - 2) && first.charAt(i - 2) == d)
+                {
+                    cell = Math.min(cell, previousPrevious[j - 2] + 1);
+                }
+
+                current[j] = Math.min(cell, over);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+
+            if (to < columns)
+            {
+                // cells right of the band are out of reach too
+                Arrays.fill(current, to + 1, columns + 1, over);
+            }
+
+            if (rowMinimum > max)
+            {
+                return over;
+            }
+
+            final int[] recycled;
+            recycled         = previousPrevious;
+            previousPrevious = previous;
+            previous         = current;
+            current          = recycled;
+        }
+
+        return previous[columns];
+    }
+
+}
@@ -0,0 +1,453 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An inverted index from the words in country facts to the countries
+ * whose facts use them.
+ *
+ * Facts are split into words with AnswerIndex.normalize, so case,
+ * accents and punctuation do not matter, and common English words that
+ * say nothing about a country ("the", "of", "country", ...) are skipped.
+ * For every remaining word the index keeps the ids of the countries that
+ * use it, in ascending order. Each list is stored as the gaps between
+ * neighbouring ids, written as variable-length integers (seven bits per
+ * byte), and all lists share one byte array. Ids are usually close
+ * together, so most gaps take a single byte.
+ *
+ * A search for several words intersects their lists, starting with the
+ * shortest, so it only touches the countries that could match.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class FactIndex
+{
+
+    private static final String WORD_SEPARATOR = " ";
+    private static final int MIN_WORD_LENGTH = 2;
+    private static final int PAYLOAD_BITS = 7;
+    private static final int PAYLOAD_MASK = 0x7F;
+    private static final int MORE_BYTES = 0x80;
+    private static final int[] NO_IDS = new int[0];
+    private static final int INITIAL_POSTINGS = 4;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "about", "after", "all", "also", "an", "and", "are", "as", "at",
+        "be", "became", "become", "been", "by", "country", "countries", "during",
+        "each", "famous", "for", "from", "has", "have", "home", "in", "into", "is",
+        "it", "its", "known", "more",
+        "most", "of", "on", "one", "only", "or", "over", "such", "than", "that",
+        "the", "their", "there", "this", "to", "was", "were", "which", "while",
+        "with", "world", "worlds");
+
+    private final CountryTable table;
+    private final Map<String, Integer> terms;
+    private final int[] postingStarts;
+    private final int[] postingCounts;
+    private final byte[] postings;
+
+    /**
+     * Builds the index over every fact in the table.
+     *
+     * @param table the countries whose facts are indexed
+     */
+    FactIndex(final CountryTable table)
+    {
+        this.table = table;
+
+        final Map<String, int[]> lists;
+        lists = new HashMap<>();
+
+        for (int id = 0; id < table.size(); id++)
+        {
+            for (int i = 0; i < CountryTable.FACTS_PER_COUNTRY; i++)
+            {
+                for (final String word : words(table.fact(id, i)))
+                {
+                    addPosting(lists, word, id);
+                }
+            }
+        }
+
+        final ByteArrayOutputStream encoded;
+        encoded = new ByteArrayOutputStream();
+
+        terms         = new HashMap<>(lists.size() * 2);
+        postingStarts = new int[lists.size()];
+        postingCounts = new int[lists.size()];
+
+        int termId;
+        termId = 0;
+
+        for (final Map.Entry<String, int[]> entry : lists.entrySet())
+        {
+            final int[] list;
+            final int count;
+
+            list  = entry.getValue();
+            count = list[0];
+
+            terms.put(entry.getKey(), termId);
+            postingStarts[termId] = encoded.size();
+            postingCounts[termId] = count;
+
+            int previous;
+            previous = 0;
+
+            for (int i = 1; i <= count; i++)
+            {
+                writeVarInt(encoded, list[i] - previous);
+                previous = list[i];
+            }
+
+            termId++;
+        }
+
+        postings = encoded.toByteArray();
+    }
+
+    /**
+     * Returns the ids of the countries whose facts, taken together, use
+     * every word in the query. Stop words in the query are ignored.
+     *
+     * @param query the words to look for
+     *
+     * @return the matching country ids in ascending order; empty if the
+     *         query has no searchable words
+     */
+    public int[] search(final String query)
+    {
+        final Set<String> queryWords;
+        queryWords = words(query);
+
+        if (queryWords.isEmpty())
+        {
+            return NO_IDS;
+        }
+
+        final int[] termIds;
+        termIds = new int[queryWords.size()];
+
+        int n;
+        n = 0;
+
+        for (final String word : queryWords)
+        {
+            final Integer termId;
+            termId = terms.get(word);
+
+            if (termId == null)
+            {
+                return NO_IDS;
+            }
+
+            termIds[n++] = termId;
+        }
+
+        return intersect(termIds);
+    }
+
+    /**
+     * Returns how many countries use a word in their facts.
+     *
+     * @param word the word to look up
+     *
+     * @return the number of countries, or 0 for unknown and stop words
+     */
+    public int countriesUsing(final String word)
+    {
+        final Integer termId;
+        termId = terms.get(AnswerIndex.normalize(word));
+
+        if (termId == null)
+        {
+            return 0;
+        }
+        return postingCounts[termId];
+    }
+
+    /**
+     * Checks whether a fact would also fit other countries: true if some
+     * other country's facts use every searchable word of this fact. Such
+     * a fact makes a poor "which country matches this fact" question.
+     *
+     * @param countryId the country the fact belongs to
+     * @param factIndex which of the country's facts to check
+     *
+     * @return true if more than one country matches the fact's words
+     */
+    public boolean isAmbiguous(final int countryId,
+                               final int factIndex)
+    {
+        return search(table.fact(countryId, factIndex)).length > 1;
+    }
+
+    /**
+     * Picks a few words from a country's facts that no other country's
+     * facts share all of. Rare words are tried first, and words from the
+     * country's own name are never used, so they do not give the answer
+     * away.
+     *
+     * @param countryId   the country to describe
+     * @param maxKeywords the most words to use
+     *
+     * @return the words, rarest first, or an empty array if no set of at
+     *         most maxKeywords words singles the country out
+     */
+    public String[] identifyingKeywords(final int countryId,
+                                        final int maxKeywords)
+    {
+        final Set<String> candidates;
+        candidates = new LinkedHashSet<>();
+
+        for (int i = 0; i < CountryTable.FACTS_PER_COUNTRY; i++)
+        {
+            candidates.addAll(words(table.fact(countryId, i)));
+        }
+
+        candidates.removeAll(words(table.name(countryId)));
+
+        final String[] byRarity;
+        byRarity = candidates.toArray(new String[0]);
+
+        Arrays.sort(byRarity, (a, b) ->
+        {
+            final int difference;
+            difference = Integer.compare(postingCounts[terms.get(a)], postingCounts[terms.get(b)]);
+
+            if (difference != 0)
+            {
+                return difference;
+            }
+            return a.compareTo(b);
+        });
+
+        final int used;
+        used = Math.min(maxKeywords, byRarity.length);
+
+        final int[] termIds;
+        termIds = new int[used];
+
+        for (int n = 0; n < used; n++)
+        {
+            termIds[n] = terms.get(byRarity[n]);
+
+            final int[] matches;
+            matches = intersect(Arrays.copyOf(termIds, n + 1));
+
+            if (matches.length == 1 && matches[0] == countryId)
+            {
+                return Arrays.copyOf(byRarity, n + 1);
+            }
+        }
+
+        return new String[0];
+    }
+
+    /**
+     * Returns the number of distinct words in the index.
+     *
+     * @return the number of indexed words
+     */
+    public int termCount()
+    {
+        return postingCounts.length;
+    }
+
+    /**
+     * Splits text into the words the index stores: normalised, at least
+     * two characters long, not stop words, each listed once.
+     *
+     * @param text the text to split
+     *
+     * @return the searchable words in the order they first appear
+     */
+    static Set<String> words(final String text)
+    {
+        final Set<String> words;
+        words = new LinkedHashSet<>();
+
+        final String key;
+        key = AnswerIndex.normalize(text);
+
+        if (key.isEmpty())
+        {
+            return words;
+        }
+
+        for (final String word : key.split(WORD_SEPARATOR))
+        {
+            if (word.length() >= MIN_WORD_LENGTH && !STOP_WORDS.contains(word))
+            {
+                words.add(word);
+            }
+        }
+
+        return words;
+    }
+
+    /*
+     * Decodes the shortest list, then keeps only the ids every other list
+     * also holds, merging each list in a single pass.
+     */
+    private int[] intersect(final int[] termIds)
+    {
+        int shortest;
+        shortest = 0;
+
+        for (int i = 1; i < termIds.length; i++)
+        {
+            if (postingCounts[termIds[i]] < postingCounts[termIds[shortest]])
+            {
+                shortest = i;
+            }
+        }
+
+        int[] result;
+        int size;
+
+        result = decode(termIds[shortest]);
+        size   = result.length;
+
+        for (int i = 0; i < termIds.length && size > 0; i++)
+        {
+            if (i != shortest)
+            {
+                size = retainAll(result, size, termIds[i]);
+            }
+        }
+
+        return Arrays.copyOf(result, size);
+    }
+
+    private int[] decode(final int termId)
+    {
+        final int[] ids;
+        ids = new int[postingCounts[termId]];
+
+        int position;
+        int previous;
+
+        position = postingStarts[termId];
+        previous = 0;
+
+        for (int i = 0; i < ids.length; i++)
+        {
+            int gap;
+            int shift;
+
+            gap   = 0;
+            shift = 0;
+
+            byte b;
+
+            do
+            {
+                b      = postings[position++];
+                gap   |= (b & PAYLOAD_MASK) << shift;
+                shift += PAYLOAD_BITS;
+            }
+            while ((b & MORE_BYTES) != 0);
+
+            previous += gap;
+            ids[i]    = previous;
+        }
+
+        return ids;
+    }
+
+    /*
+     * Keeps the first size ids that also appear in the term's list and
+     * returns how many are left. Both are ascending, so one pass is enough.
+     */
+    private int retainAll(final int[] ids,
+                          final int size,
+                          final int termId)
+    {
+        final int[] other;
+        other = decode(termId);
+
+        int kept;
+        int j;
+
+        kept = 0;
+        j    = 0;
+
+        for (int i = 0; i < size; i++)
+        {
+            while (j < other.length && other[j] < ids[i])
+            {
+                j++;
+            }
+
+            if (j == other.length)
+            {
+                break;
+            }
+
+            if (other[j] == ids[i])
+            {
+                ids[kept++] = ids[i];
+            }
+        }
+
+        return kept;
+    }
+
+    /*
+     * Appends id to the word's list unless it is already the last entry.
+     * Slot 0 of each array holds the number of ids in it.
+     */
+    private static void addPosting(final Map<String, int[]> lists,
+                                   final String word,
+                                   final int id)
+    {
+        int[] list;
+        list = lists.get(word);
+
+        if (list == null)
+        {
+            list = new int[INITIAL_POSTINGS];
+            lists.put(word, list);
+        }
+
+        final int count;
+        count = list[0];
+
+        if (count > 0 && list[count] == id)
+        {
+            return;
+        }
+
+        if (count + 1 == list.length)
+        {
+            list = Arrays.copyOf(list, list.length * 2);
+            lists.put(word, list);
+        }
+
+        list[count + 1] = id;
+        list[0]         = count + 1;
+    }
+
+    private static void writeVarInt(final ByteArrayOutputStream out,
+                                    final int value)
+    {
+        int remaining;
+        remaining = value;
+
+        while ((remaining & ~PAYLOAD_MASK) != 0)
+        {
+            out.write((remaining & PAYLOAD_MASK) | MORE_BYTES);
+            remaining >>>= PAYLOAD_BITS;
+        }
+
+        out.write(remaining);
+    }
+
+}
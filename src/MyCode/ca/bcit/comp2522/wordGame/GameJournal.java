@@ -0,0 +1,281 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A write-ahead log of finished games, so a session that is killed
+ * before the player quits does not lose its games.
+ *
+ * Every game is appended as soon as it ends, as one fixed-width record:
+ * the ScoreLog record layout followed by a CRC32 of it. Appending is a
+ * single write of that record. compact() hands every logged game to the
+ * main score store and then empties the log; it runs when the session
+ * ends and whenever compactEvery games have piled up.
+ *
+ * open() is the recovery pass. It reads the records left by a session
+ * that did not end cleanly, stops at the first record that is cut short
+ * or whose checksum does not match, and truncates the log there, so a
+ * torn write is discarded instead of hiding the records after it. The
+ * surviving games are returned by recovered() and are compacted with the
+ * next call to compact().
+ *
+ * If the process dies after the store was written but before the log was
+ * emptied, the next start writes those games again; a game is never lost,
+ * but it can be stored twice.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class GameJournal
+    implements Closeable
+{
+
+    /**
+     * The main score store that compact() moves games into.
+     */
+    public interface Store
+    {
+
+        /**
+         * Stores games taken from the journal.
+         *
+         * @param games the games, in the order they were played
+         *
+         * @throws IOException if the games cannot be stored; they then
+         *                     stay in the journal
+         */
+        void write(List<Score> games)
+            throws IOException;
+    }
+
+    static final int ENTRY_BYTES = ScoreLog.RECORD_BYTES + Integer.BYTES;
+
+    private static final String JOURNAL_SUFFIX = ".wal";
+
+    private final FileChannel channel;
+    private final ByteBuffer entry;
+    private final CRC32 crc;
+    private final Store store;
+    private final int compactEvery;
+    private final ScoreJournal.SyncPolicy syncPolicy;
+    private final List<Score> pending;
+    private final int recovered;
+
+    private long end;
+
+    private GameJournal(final FileChannel channel,
+                        final Store store,
+                        final int compactEvery,
+                        final ScoreJournal.SyncPolicy syncPolicy)
+        throws IOException
+    {
+        this.channel      = channel;
+        this.store        = store;
+        this.compactEvery = compactEvery;
+        this.syncPolicy   = syncPolicy;
+        entry             = ByteBuffer.allocate(ENTRY_BYTES);
+        crc               = new CRC32();
+        pending           = new ArrayList<>();
+
+        recover();
+        recovered = pending.size();
+    }
+
+    /**
+     * Opens the journal, creating it if needed, and recovers the games a
+     * previous session left in it.
+     *
+     * @param journalFile  the journal file
+     * @param store        the main score store games are compacted into
+     * @param compactEvery how many logged games trigger a compaction
+     * @param syncPolicy   whether every append is forced to disk
+     *
+     * @return the opened journal
+     *
+     * @throws IOException if the journal cannot be opened or recovered
+     */
+    public static GameJournal open(final Path journalFile,
+                                   final Store store,
+                                   final int compactEvery,
+                                   final ScoreJournal.SyncPolicy syncPolicy)
+        throws IOException
+    {
+        if (compactEvery <= 0)
+        {
+            throw new IllegalArgumentException("compactEvery must be positive");
+        }
+
+        final FileChannel channel;
+        channel = FileChannel.open(journalFile,
+                                   StandardOpenOption.CREATE,
+                                   StandardOpenOption.READ,
+                                   StandardOpenOption.WRITE);
+
+        try
+        {
+            return new GameJournal(channel, store, compactEvery, syncPolicy);
+        }
+        catch (final IOException | RuntimeException ex)
+        {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the path of the journal that belongs to a score file.
+     *
+     * @param scoreFile the score file
+     *
+     * @return the path of its journal
+     */
+    public static Path journalFile(final Path scoreFile)
+    {
+        return scoreFile.resolveSibling(scoreFile.getFileName() + JOURNAL_SUFFIX);
+    }
+
+    /**
+     * Returns how many games the recovery pass found from a session that
+     * did not end cleanly.
+     *
+     * @return the number of recovered games
+     */
+    public int recovered()
+    {
+        return recovered;
+    }
+
+    /**
+     * Logs a finished game. Compacts the journal once compactEvery games
+     * are waiting.
+     *
+     * @param game the game's score
+     *
+     * @throws IOException if the game cannot be logged or compacted
+     */
+    public synchronized void append(final Score game)
+        throws IOException
+    {
+        entry.clear();
+        ScoreLog.encode(game, entry);
+
+        crc.reset();
+        crc.update(entry.array(), 0, ScoreLog.RECORD_BYTES);
+        entry.putInt((int) crc.getValue());
+        entry.flip();
+
+        while (entry.hasRemaining())
+        {
+            end += channel.write(entry, end);
+        }
+
+        if (syncPolicy == ScoreJournal.SyncPolicy.ON_COMMIT)
+        {
+            channel.force(false);
+        }
+
+        pending.add(game);
+
+        if (pending.size() >= compactEvery)
+        {
+            compact();
+        }
+    }
+
+    /**
+     * Moves every logged game into the main score store and empties the
+     * journal. Does nothing if no games are waiting.
+     *
+     * @throws IOException if the store or the journal cannot be written
+     */
+    public synchronized void compact()
+        throws IOException
+    {
+        if (pending.isEmpty())
+        {
+            return;
+        }
+
+        store.write(List.copyOf(pending));
+
+        channel.truncate(0);
+        channel.force(false);
+        end = 0;
+        pending.clear();
+    }
+
+    /**
+     * Compacts the journal and closes it.
+     *
+     * @throws IOException if the compaction fails or the journal cannot be closed
+     */
+    @Override
+    public synchronized void close()
+        throws IOException
+    {
+        try
+        {
+            compact();
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+
+    /*
+     * Reads the valid records at the start of the journal into pending and
+     * cuts the journal off after the last of them.
+     */
+    private void recover()
+        throws IOException
+    {
+        final long size;
+        size = channel.size();
+
+        long position;
+        position = 0;
+
+        while (position + ENTRY_BYTES <= size)
+        {
+            entry.clear();
+
+            while (entry.hasRemaining())
+            {
+                if (channel.read(entry, position + entry.position()) < 0)
+                {
+                    break;
+                }
+            }
+
+            crc.reset();
+            crc.update(entry.array(), 0, ScoreLog.RECORD_BYTES);
+
+            if (entry.getInt(ScoreLog.RECORD_BYTES) != (int) crc.getValue())
+            {
+                break;
+            }
+
+            entry.flip();
+            pending.add(ScoreLog.decode(entry));
+            position += ENTRY_BYTES;
+        }
+
+        if (position < size)
+        {
+            channel.truncate(position);
+            channel.force(false);
+        }
+
+        end = position;
+    }
+
+}
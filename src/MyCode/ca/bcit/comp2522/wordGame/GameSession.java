@@ -0,0 +1,208 @@
+package ca.bcit.comp2522.wordGame;
+
+/**
+ * Runs the question and answer flow of one Word Game without doing any
+ * input or output.
+ *
+ * A game is a fixed number of questions. The player gets up to two
+ * attempts per question. Callers show currentQuestion() however they
+ * like, pass each guess to submit(), and read the tallies once
+ * isFinished() returns true. This lets the console game and the network
+ * server share the same rules.
+ *
+ * By default a guess must match the answer exactly, apart from case,
+ * accents and punctuation. A session created with a tolerance also
+ * accepts guesses up to that many typing mistakes away.
+ *
+ * A GameSession is used by one player at a time and is not thread-safe.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class GameSession
+{
+
+    public static final int QUESTIONS_PER_GAME = 10;
+    public static final int FIRST_ATTEMPT = 1;
+    public static final int SECOND_ATTEMPT = 2;
+    public static final int EXACT = 0;
+
+    private final QuestionSource questions;
+    private final int tolerance;
+
+    private Question currentQuestion;
+    private int questionsAsked;
+    private int attempt;
+    private int correctFirst;
+    private int correctSecond;
+    private int incorrectBoth;
+
+    /**
+     * Creates a session that only accepts exact answers and draws its
+     * first question.
+     *
+     * @param questions the source that supplies the questions
+     */
+    public GameSession(final QuestionSource questions)
+    {
+        this(questions, EXACT);
+    }
+
+    /**
+     * Creates a session and draws its first question.
+     *
+     * @param questions the source that supplies the questions
+     * @param tolerance how many typing mistakes a correct guess may contain
+     */
+    public GameSession(final QuestionSource questions,
+                       final int tolerance)
+    {
+        if (tolerance < 0)
+        {
+            throw new IllegalArgumentException("tolerance must not be negative");
+        }
+
+        this.questions = questions;
+        this.tolerance = tolerance;
+
+        currentQuestion = questions.next();
+        questionsAsked  = 1;
+        attempt         = FIRST_ATTEMPT;
+        correctFirst    = 0;
+        correctSecond   = 0;
+        incorrectBoth   = 0;
+    }
+
+    /**
+     * Returns the question waiting for an answer, or null once the game
+     * is finished.
+     *
+     * @return the current question
+     */
+    public Question currentQuestion()
+    {
+        return currentQuestion;
+    }
+
+    /**
+     * Returns which attempt the next guess counts as.
+     *
+     * @return 1 for the first attempt, 2 for the second
+     */
+    public int currentAttempt()
+    {
+        return attempt;
+    }
+
+    /**
+     * Submits a guess for the current question.
+     * When the result is final the session moves on to the next question,
+     * or finishes after the last one.
+     *
+     * @param guess the player's trimmed guess
+     *
+     * @return the outcome of the guess
+     *
+     * @throws IllegalStateException if the game is already finished
+     */
+    public AnswerResult submit(final String guess)
+    {
+        if (currentQuestion == null)
+        {
+            throw new IllegalStateException("The game is already finished");
+        }
+
+        final AnswerResult result;
+
+        if (currentQuestion.isCorrect(guess, tolerance))
+        {
+            if (attempt == FIRST_ATTEMPT)
+            {
+                correctFirst++;
+                result = AnswerResult.CORRECT_FIRST_ATTEMPT;
+            }
+            else
+            {
+                correctSecond++;
+                result = AnswerResult.CORRECT_SECOND_ATTEMPT;
+            }
+        }
+        else if (attempt < SECOND_ATTEMPT)
+        {
+            result = AnswerResult.TRY_AGAIN;
+        }
+        else
+        {
+            incorrectBoth++;
+            result = AnswerResult.INCORRECT;
+        }
+
+        if (result.isFinal())
+        {
+            questions.recordResult(currentQuestion, result);
+            advance();
+        }
+        else
+        {
+            attempt++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns whether every question in the game has been answered.
+     *
+     * @return true if the game is over
+     */
+    public boolean isFinished()
+    {
+        return currentQuestion == null;
+    }
+
+    /**
+     * Returns how many questions were answered correctly on the first attempt.
+     *
+     * @return number of first-attempt correct answers
+     */
+    public int getCorrectFirst()
+    {
+        return correctFirst;
+    }
+
+    /**
+     * Returns how many questions were answered correctly on the second attempt.
+     *
+     * @return number of second-attempt correct answers
+     */
+    public int getCorrectSecond()
+    {
+        return correctSecond;
+    }
+
+    /**
+     * Returns how many questions were missed on both attempts.
+     *
+     * @return number of incorrect answers
+     */
+    public int getIncorrectBoth()
+    {
+        return incorrectBoth;
+    }
+
+    private void advance()
+    {
+        attempt = FIRST_ATTEMPT;
+
+        if (questionsAsked < QUESTIONS_PER_GAME)
+        {
+            currentQuestion = questions.next();
+            questionsAsked++;
+        }
+        else
+        {
+            currentQuestion = null;
+        }
+    }
+
+}
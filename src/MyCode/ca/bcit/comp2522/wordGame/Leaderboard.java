@@ -0,0 +1,511 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Ranks every recorded Score so "what place is this" questions do not
+ * need to read the whole score file.
+ *
+ * Scores are small whole numbers, so the board counts how many entries
+ * have each score and keeps those counts in a Fenwick (binary indexed)
+ * tree. The number of entries above a score, the score at a given place
+ * and percentiles are then all answered in O(log m), where m is the
+ * highest score, and adding an entry costs the same. The tree doubles in
+ * size when a higher score arrives, up to MAX_TRACKED_SCORE; entries
+ * scoring that or more share its place, so ranks and percentiles do not
+ * tell them apart and scoreAtRank() reports them as MAX_TRACKED_SCORE.
+ * The best entries themselves are kept in order, with their exact
+ * scores, up to a fixed number, for showing the top of the board.
+ *
+ * The board can be saved next to its score file as "&lt;file&gt;.board",
+ * together with how many bytes of the score file it covers. open() reads
+ * that file and then only the entries appended to the score file since,
+ * so the history is not parsed again on every start.
+ *
+ * All methods are synchronized, so many sessions can add and query at
+ * once.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class Leaderboard
+{
+
+    /**
+     * The highest score the tree tells apart from the ones above it.
+     */
+    public static final int MAX_TRACKED_SCORE = (1 << 16) - 1;
+
+    private static final int MAGIC = 0x57474C42; // "WGLB"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = Integer.BYTES    // magic
+                                            + Integer.BYTES  // version
+                                            + Long.BYTES     // score file bytes covered
+                                            + Long.BYTES     // checksum of the body
+                                            + Integer.BYTES  // tree capacity
+                                            + Integer.BYTES; // kept entries
+    private static final int INITIAL_CAPACITY = 64;
+    private static final String BOARD_SUFFIX = ".board";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final double PERCENT = 100.0;
+
+    private final int keep;
+    private final Score[] best;
+
+    private long[] tree;
+    private long[] counts;
+    private long total;
+    private int bestCount;
+
+    /**
+     * Creates an empty leaderboard.
+     *
+     * @param keep how many of the best entries to keep for topK()
+     */
+    public Leaderboard(final int keep)
+    {
+        if (keep < 0)
+        {
+            throw new IllegalArgumentException("keep must not be negative");
+        }
+
+        this.keep = keep;
+        best      = new Score[keep];
+        tree      = new long[INITIAL_CAPACITY + 1];
+        counts    = new long[INITIAL_CAPACITY];
+        total     = 0;
+        bestCount = 0;
+    }
+
+    /**
+     * Opens the leaderboard of a score file. The saved board is read if
+     * there is one, and the entries appended to the score file after it
+     * was saved are added. If the saved board is missing, damaged, or
+     * kept a different number of entries, the whole score file is read.
+     * The file is read through ScoreCodec, so a malformed entry, such as
+     * one torn by a crash, is skipped.
+     *
+     * @param scoreFile the score file in the Score.toString() format
+     * @param keep      how many of the best entries to keep for topK()
+     *
+     * @return the leaderboard of every entry in the score file
+     *
+     * @throws IOException if the score file cannot be read
+     */
+    public static Leaderboard open(final Path scoreFile,
+                                   final int keep)
+        throws IOException
+    {
+        Leaderboard board;
+        long covered;
+
+        board   = new Leaderboard(keep);
+        covered = 0;
+
+        final Path boardFile;
+        boardFile = boardFile(scoreFile);
+
+        if (Files.exists(boardFile) && Files.exists(scoreFile))
+        {
+            try
+            {
+                final ByteBuffer saved;
+                saved = ByteBuffer.wrap(Files.readAllBytes(boardFile));
+
+                final long savedCovered;
+                savedCovered = board.read(saved);
+
+                if (savedCovered <= Files.size(scoreFile))
+                {
+                    covered = savedCovered;
+                }
+                else
+                {
+                    // the score file was replaced by a shorter one
+                    board = new Leaderboard(keep);
+                }
+            }
+            catch (final IOException | RuntimeException ex)
+            {
+                board = new Leaderboard(keep);
+            }
+        }
+
+        if (Files.exists(scoreFile))
+        {
+            try (Stream<Score> appended = ScoreCodec.stream(scoreFile, covered))
+            {
+                final Iterator<Score> scores;
+                scores = appended.iterator();
+
+                while (scores.hasNext())
+                {
+                    board.add(scores.next());
+                }
+            }
+        }
+
+        return board;
+    }
+
+    /**
+     * Returns the path of the saved board that belongs to a score file.
+     *
+     * @param scoreFile the score file
+     *
+     * @return the path of its saved board
+     */
+    static Path boardFile(final Path scoreFile)
+    {
+        return scoreFile.resolveSibling(scoreFile.getFileName() + BOARD_SUFFIX);
+    }
+
+    /**
+     * Adds an entry to the board.
+     *
+     * @param score the entry to add
+     */
+    public synchronized void add(final Score score)
+    {
+        final int points;
+        points = place(score.getScore());
+
+        while (points >= counts.length)
+        {
+            grow();
+        }
+
+        counts[points]++;
+        total++;
+
+        for (int i = points + 1; i < tree.length; i += i & -i)
+        {
+            tree[i]++;
+        }
+
+        keepIfBest(score);
+    }
+
+    /**
+     * Returns how many entries are on the board.
+     *
+     * @return the number of entries
+     */
+    public synchronized long size()
+    {
+        return total;
+    }
+
+    /**
+     * Returns the place a score would take: one more than the number of
+     * entries with a higher score, so equal scores share a place.
+     *
+     * @param score the score to rank
+     *
+     * @return the 1-based place of the score
+     */
+    public synchronized long rankOf(final int score)
+    {
+        return total - countAtOrBelow(score) + 1;
+    }
+
+    /**
+     * Returns the percentage of entries that scored at or below a score.
+     *
+     * @param score the score to look up
+     *
+     * @return a value from 0 to 100, or 0 if the board is empty
+     */
+    public synchronized double percentile(final int score)
+    {
+        if (total == 0)
+        {
+            return 0.0;
+        }
+        return PERCENT * countAtOrBelow(score) / total;
+    }
+
+    /**
+     * Returns the score of the entry at a place on the board. This walks
+     * down the tree instead of scanning the scores.
+     *
+     * @param rank the 1-based place, from 1 (best) to size()
+     *
+     * @return the score at that place
+     */
+    public synchronized int scoreAtRank(final long rank)
+    {
+        if (rank < 1 || rank > total)
+        {
+            throw new IndexOutOfBoundsException("No entry at rank " + rank);
+        }
+
+        // the entry at this place is the n-th lowest
+        long remaining;
+        int position;
+
+        remaining = total - rank + 1;
+        position  = 0;
+
+        for (int step = Integer.highestOneBit(counts.length); step > 0; step >>= 1)
+        {
+            final int next;
+            next = position + step;
+
+            if (next < tree.length && tree[next] < remaining)
+            {
+                position   = next;
+                remaining -= tree[next];
+            }
+        }
+
+        return position;
+    }
+
+    /**
+     * Returns the best entries, highest score first. Entries with equal
+     * scores are in the order they were added.
+     *
+     * @param k how many entries to return
+     *
+     * @return up to k entries, and never more than the board keeps
+     */
+    public synchronized List<Score> topK(final int k)
+    {
+        final int n;
+        n = Math.max(0, Math.min(k, bestCount));
+
+        return new ArrayList<>(Arrays.asList(best).subList(0, n));
+    }
+
+    /**
+     * Saves the board next to the score file. Every entry in the score
+     * file must already be on the board; the board records the current
+     * size of the score file, and open() only reads past it. The board is
+     * written next to its final location and then moved into place, so
+     * open() never sees a half-written board.
+     *
+     * @param scoreFile the score file the board belongs to
+     *
+     * @throws IOException if the board cannot be written
+     */
+    public synchronized void checkpoint(final Path scoreFile)
+        throws IOException
+    {
+        final long covered;
+
+        if (Files.exists(scoreFile))
+        {
+            covered = Files.size(scoreFile);
+        }
+        else
+        {
+            covered = 0;
+        }
+
+        final ByteBuffer body;
+        body = ByteBuffer.allocate(counts.length * Long.BYTES + bestCount * ScoreLog.RECORD_BYTES);
+
+        for (final long count : counts)
+        {
+            body.putLong(count);
+        }
+
+        for (int i = 0; i < bestCount; i++)
+        {
+            ScoreLog.encode(best[i], body);
+        }
+
+        body.flip();
+
+        final ByteBuffer header;
+        header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putLong(covered);
+        header.putLong(checksum(body.duplicate()));
+        header.putInt(counts.length);
+        header.putInt(bestCount);
+        header.flip();
+
+        final byte[] bytes;
+        bytes = new byte[HEADER_BYTES + body.remaining()];
+        header.get(bytes, 0, HEADER_BYTES);
+        body.get(bytes, HEADER_BYTES, bytes.length - HEADER_BYTES);
+
+        final Path boardFile;
+        final Path tempFile;
+
+        boardFile = boardFile(scoreFile);
+        tempFile  = boardFile.resolveSibling(boardFile.getFileName() + TEMP_SUFFIX);
+
+        Files.write(tempFile, bytes);
+        Files.move(tempFile, boardFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /*
+     * Number of entries scoring at or below score: a prefix sum of the tree.
+     */
+    private long countAtOrBelow(final int score)
+    {
+        if (score < 0)
+        {
+            return 0;
+        }
+
+        long sum;
+        sum = 0;
+
+        for (int i = Math.min(score, counts.length - 1) + 1; i > 0; i -= i & -i)
+        {
+            sum += tree[i];
+        }
+
+        return sum;
+    }
+
+    /*
+     * Returns the place in the counts of a score. Scores past the tracked
+     * range share the last place; a negative one can only come from a
+     * total too large for an int.
+     */
+    private static int place(final int score)
+    {
+        if (score < 0 || score > MAX_TRACKED_SCORE)
+        {
+            return MAX_TRACKED_SCORE;
+        }
+        return score;
+    }
+
+    /*
+     * Doubles the range of scores and rebuilds the tree from the counts.
+     */
+    private void grow()
+    {
+        counts = Arrays.copyOf(counts, counts.length * 2);
+        tree   = buildTree(counts);
+    }
+
+    private static long[] buildTree(final long[] counts)
+    {
+        final long[] built;
+        built = new long[counts.length + 1];
+
+        for (int i = 1; i < built.length; i++)
+        {
+            built[i] += counts[i - 1];
+
+            final int parent;
+            parent = i + (i & -i);
+
+            if (parent < built.length)
+            {
+                built[parent] += built[i];
+            }
+        }
+
+        return built;
+    }
+
+    /*
+     * Inserts the entry into the sorted best entries if it beats the last
+     * one. Equal scores go after the entries already there.
+     */
+    private void keepIfBest(final Score score)
+    {
+        if (keep == 0 || (bestCount == keep && score.getScore() <= best[keep - 1].getScore()))
+        {
+            return;
+        }
+
+        int slot;
+        slot = Math.min(bestCount, keep - 1);
+
+        while (slot > 0 && best[slot - 1].getScore() < score.getScore())
+        {
+            best[slot] = best[slot - 1];
+            slot--;
+        }
+
+        best[slot] = score;
+        bestCount  = Math.min(bestCount + 1, keep);
+    }
+
+    /*
+     * Loads a saved board into this empty one and returns how many bytes
+     * of the score file it covers.
+     */
+    private long read(final ByteBuffer saved)
+        throws IOException
+    {
+        if (saved.remaining() < HEADER_BYTES
+            || saved.getInt() != MAGIC
+            || saved.getInt() != VERSION)
+        {
+            throw new IOException("Not a leaderboard");
+        }
+
+        final long covered;
+        final long expectedChecksum;
+        final int capacity;
+        final int savedBest;
+
+        covered          = saved.getLong();
+        expectedChecksum = saved.getLong();
+        capacity         = saved.getInt();
+        savedBest        = saved.getInt();
+
+        if (Integer.bitCount(capacity) != 1 || capacity > MAX_TRACKED_SCORE + 1 || savedBest > keep
+            || saved.remaining() != capacity * Long.BYTES + savedBest * ScoreLog.RECORD_BYTES
+            || checksum(saved.duplicate()) != expectedChecksum)
+        {
+            throw new IOException("Damaged leaderboard");
+        }
+
+        counts = new long[capacity];
+
+        for (int i = 0; i < capacity; i++)
+        {
+            counts[i] = saved.getLong();
+            total    += counts[i];
+        }
+
+        tree = buildTree(counts);
+
+        for (int i = 0; i < savedBest; i++)
+        {
+            best[i] = ScoreLog.decode(saved);
+        }
+
+        bestCount = savedBest;
+
+        // a board saved with fewer kept entries could not fill this one
+        if (savedBest < Math.min(keep, total))
+        {
+            throw new IOException("Leaderboard kept fewer entries");
+        }
+
+        return covered;
+    }
+
+    private static long checksum(final ByteBuffer buffer)
+    {
+        final CRC32 crc;
+        crc = new CRC32();
+        crc.update(buffer);
+
+        return crc.getValue();
+    }
+
+}
@@ -0,0 +1,214 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+
+/**
+ * Converts score files written by older versions of the Word Game into a
+ * ScoreRepository.
+ *
+ * Older versions wrote one block of session totals per line group:
+ *
+ *   - 3 word games played
+ *   - 12 correct answers on the first attempt
+ *   - 9 correct answers on the second attempt
+ *   - 9 incorrect answers on two attempts each
+ *
+ * Each block becomes one Score. The blocks do not record when they were
+ * played, so every converted Score is dated with the time the legacy
+ * file was last modified. The file is read one line at a time, so files
+ * of any size are converted in constant memory. Lines that are not part
+ * of a block are skipped. A block cut short, by the end of the file or by
+ * a line that is not the next one it needs, is dropped, and that line is
+ * checked as the start of the next block, so a broken block never takes
+ * a whole one with it.
+ *
+ * Usage: LegacyScoreConverter legacyFile targetFile [TEXT|BINARY|MAPPED]
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class LegacyScoreConverter
+{
+
+    private static final String BULLET = "-";
+    private static final String GAMES_SINGULAR = "word game played";
+    private static final String GAMES_PLURAL = "word games played";
+    private static final String FIRST = "correct answers on the first attempt";
+    private static final String SECOND = "correct answers on the second attempt";
+    private static final String INCORRECT = "incorrect answers on two attempts each";
+    private static final String[] BLOCK_LABELS = {FIRST, SECOND, INCORRECT};
+    private static final int FIRST_INDEX = 0;
+    private static final int SECOND_INDEX = 1;
+    private static final int INCORRECT_INDEX = 2;
+    private static final int MIN_ARGS = 2;
+    private static final int BACKEND_ARG = 2;
+    private static final String USAGE = "Usage: LegacyScoreConverter legacyFile targetFile [TEXT|BINARY|MAPPED]";
+
+    private LegacyScoreConverter()
+    {
+    }
+
+    /**
+     * Reads every totals block in a legacy file and appends it to the
+     * repository as a Score.
+     *
+     * @param legacyFile the file in the old totals format
+     * @param target     the repository to append to
+     *
+     * @return how many scores were converted
+     *
+     * @throws IOException if the file cannot be read or the repository written
+     */
+    public static int convert(final Path legacyFile,
+                              final ScoreRepository target)
+        throws IOException
+    {
+        final LocalDateTime playedAt;
+        playedAt = LocalDateTime.ofInstant(Files.getLastModifiedTime(legacyFile).toInstant(),
+                                           ZoneId.systemDefault());
+
+        int converted;
+        converted = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(legacyFile))
+        {
+            String line;
+            line = reader.readLine();
+
+            while (line != null)
+            {
+                final int games;
+                games = Math.max(countBefore(line, GAMES_PLURAL), countBefore(line, GAMES_SINGULAR));
+
+                line = reader.readLine();
+
+                if (games < 0)
+                {
+                    continue;
+                }
+
+                final int[] counts;
+                counts = new int[BLOCK_LABELS.length];
+
+                int read;
+                read = 0;
+
+                // each line is checked before it is taken, so a line that does not fit starts over
+                while (read < counts.length && line != null)
+                {
+                    final int count;
+                    count = countBefore(line, BLOCK_LABELS[read]);
+
+                    if (count < 0)
+                    {
+                        break;
+                    }
+
+                    counts[read++] = count;
+                    line           = reader.readLine();
+                }
+
+                if (read < counts.length)
+                {
+                    continue;
+                }
+
+                target.append(new Score(playedAt,
+                                        games,
+                                        counts[FIRST_INDEX],
+                                        counts[SECOND_INDEX],
+                                        counts[INCORRECT_INDEX]));
+                converted++;
+            }
+        }
+
+        return converted;
+    }
+
+    /*
+     * Parses "- N label" and returns N, or -1 if the line is missing or
+     * has a different label.
+     */
+    private static int countBefore(final String line,
+                                   final String label)
+    {
+        if (line == null)
+        {
+            return -1;
+        }
+
+        final String trimmed;
+        trimmed = line.trim();
+
+        if (!trimmed.startsWith(BULLET) || !trimmed.endsWith(label))
+        {
+            return -1;
+        }
+
+        final String[] words;
+        words = trimmed.substring(BULLET.length()).trim().split("\\s+", 2);
+
+        try
+        {
+            return Integer.parseInt(words[0]);
+        }
+        catch (final NumberFormatException ex)
+        {
+            return -1;
+        }
+    }
+
+    /**
+     * Converts a legacy score file.
+     *
+     * @param args the legacy file, the target file, and optionally the
+     *             target's backend (TEXT by default)
+     *
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(final String[] args)
+        throws IOException
+    {
+        if (args.length < MIN_ARGS)
+        {
+            System.out.println(USAGE);
+            return;
+        }
+
+        final ScoreRepository.Backend backend;
+
+        if (args.length > BACKEND_ARG)
+        {
+            try
+            {
+                backend = ScoreRepository.Backend.valueOf(args[BACKEND_ARG].toUpperCase(Locale.ROOT));
+            }
+            catch (final IllegalArgumentException ex)
+            {
+                System.out.println("Error: unknown backend \"" + args[BACKEND_ARG] + "\".");
+                System.out.println(USAGE);
+                return;
+            }
+        }
+        else
+        {
+            backend = ScoreRepository.Backend.TEXT;
+        }
+
+        try (ScoreRepository target = ScoreRepository.open(backend, Paths.get(args[1])))
+        {
+            final int converted;
+            converted = convert(Paths.get(args[0]), target);
+
+            System.out.println("Converted " + converted + " score entries.");
+        }
+    }
+
+}
@@ -0,0 +1,274 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+/**
+ * Simulates many players against a WordGameServer and reports how the
+ * server holds up.
+ *
+ * Each bot runs on its own virtual thread, connects, and plays one full
+ * game by guessing random country or capital names. The time between
+ * sending a guess and reading the server's reply is recorded for every
+ * answer. At the end the generator prints sessions per second and the
+ * median and 99th percentile answer latency.
+ *
+ * Every bot's guesses come from a generator split from one seeded
+ * SplittableRandom, so a run with the same seed sends the same guesses.
+ * The in-process server is seeded the same way, which makes the whole
+ * run replayable.
+ *
+ * Usage: LoadGenerator [bots] [port] [seed]
+ * Without a port, or with port 0, a server is started in this JVM on a
+ * free port.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class LoadGenerator
+{
+
+    private static final int DEFAULT_BOTS = 1000;
+    private static final int IN_PROCESS = 0;
+    private static final long DEFAULT_SEED = 2522L;
+    private static final int MAX_ANSWERS_PER_GAME = GameSession.QUESTIONS_PER_GAME
+                                                    * GameSession.SECOND_ATTEMPT;
+    private static final double MEDIAN = 0.50;
+    private static final double P99 = 0.99;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    private final CountryTable table;
+    private final int port;
+    private final long seed;
+
+    /**
+     * Creates a load generator that targets a server on the loopback address.
+     *
+     * @param world the World the bots pick their guesses from
+     * @param port  the server's port
+     * @param seed  the seed every bot's guesses are split from
+     */
+    public LoadGenerator(final World world,
+                         final int port,
+                         final long seed)
+    {
+        this.table = world.getCountryTable();
+        this.port  = port;
+        this.seed  = seed;
+    }
+
+    /**
+     * Runs the given number of bots concurrently and prints a report.
+     *
+     * @param bots the number of concurrent sessions to simulate
+     */
+    public void run(final int bots)
+    {
+        final long[][] latencies;
+        final AtomicInteger completed;
+
+        latencies = new long[bots][];
+        completed = new AtomicInteger();
+
+        final SplittableRandom botSeeds;
+        botSeeds = new SplittableRandom(seed);
+
+        final long start;
+        start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            for (int i = 0; i < bots; i++)
+            {
+                final int bot;
+                final RandomGenerator random;
+
+                bot = i;
+                // split here, not on the bot's thread, so bot i always gets the same stream
+                random = botSeeds.split();
+
+                executor.submit(() ->
+                {
+                    latencies[bot] = playOneGame(random);
+                    completed.incrementAndGet();
+                    return null;
+                });
+            }
+        }
+
+        final long elapsed;
+        elapsed = System.nanoTime() - start;
+
+        final long[] all;
+        all = Arrays.stream(latencies)
+                    .filter(sample -> sample != null)
+                    .flatMapToLong(Arrays::stream)
+                    .sorted()
+                    .toArray();
+
+        System.out.println("Sessions completed: " + completed.get() + " of " + bots);
+        System.out.printf("Sessions/sec: %.1f%n", completed.get() / (elapsed / NANOS_PER_SECOND));
+        System.out.println("Answers timed: " + all.length);
+
+        if (all.length > 0)
+        {
+            System.out.printf("p50 answer latency: %.1f us%n", percentile(all, MEDIAN) / NANOS_PER_MICRO);
+            System.out.printf("p99 answer latency: %.1f us%n", percentile(all, P99) / NANOS_PER_MICRO);
+        }
+    }
+
+    /*
+     * Plays one game over a fresh connection and returns the latency of
+     * every answer in nanoseconds.
+     */
+    private long[] playOneGame(final RandomGenerator random)
+    {
+        final long[] samples;
+        samples = new long[MAX_ANSWERS_PER_GAME];
+
+        int count;
+        count = 0;
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(
+                 new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(
+                 new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)))
+        {
+            socket.setTcpNoDelay(true);
+
+            String line;
+            line = in.readLine();
+
+            while (line != null && !line.startsWith(WordGameServer.SUMMARY))
+            {
+                final long sent;
+
+                out.write(randomGuess(random));
+                out.write('\n');
+                out.flush();
+                sent = System.nanoTime();
+
+                final String reply;
+                reply = in.readLine();
+
+                if (reply == null)
+                {
+                    break;
+                }
+
+                samples[count++] = System.nanoTime() - sent;
+
+                if (reply.startsWith(WordGameServer.TRY_AGAIN))
+                {
+                    line = reply;
+                }
+                else
+                {
+                    line = in.readLine();
+                }
+            }
+        }
+        catch (final IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+
+        return Arrays.copyOf(samples, count);
+    }
+
+    private String randomGuess(final RandomGenerator random)
+    {
+        final int id;
+        id = random.nextInt(table.size());
+
+        if (random.nextBoolean())
+        {
+            return table.name(id);
+        }
+        return table.capital(id);
+    }
+
+    private static long percentile(final long[] sorted,
+                                   final double fraction)
+    {
+        final int index;
+        index = (int) Math.ceil(fraction * sorted.length) - 1;
+
+        return sorted[Math.max(0, index)];
+    }
+
+    /**
+     * Runs the load generator from the command line.
+     *
+     * @param args optional bot count, server port and seed
+     *
+     * @throws IOException if the World cannot be loaded or the server cannot start
+     */
+    public static void main(final String[] args)
+        throws IOException
+    {
+        final int bots;
+
+        if (args.length > 0)
+        {
+            bots = Integer.parseInt(args[0]);
+        }
+        else
+        {
+            bots = DEFAULT_BOTS;
+        }
+
+        final int port;
+
+        if (args.length > 1)
+        {
+            port = Integer.parseInt(args[1]);
+        }
+        else
+        {
+            port = IN_PROCESS;
+        }
+
+        final long seed;
+
+        if (args.length > 2)
+        {
+            seed = Long.parseLong(args[2]);
+        }
+        else
+        {
+            seed = DEFAULT_SEED;
+        }
+
+        final World world;
+        world = WorldRegistry.get();
+
+        if (port != IN_PROCESS)
+        {
+            new LoadGenerator(world, port, seed).run(bots);
+            return;
+        }
+
+        try (WordGameServer server = new WordGameServer(world, 0, null, seed))
+        {
+            server.start();
+            new LoadGenerator(world, server.getPort(), seed).run(bots);
+        }
+    }
+
+}
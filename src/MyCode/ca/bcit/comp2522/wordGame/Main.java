@@ -6,6 +6,8 @@ import java.util.Scanner;
 /**
  * Console entry point and menu loop for the games collection.
  * Only the Word game is implemented; other options print a placeholder.
+ * The Word game forgives one typing mistake per answer; run with
+ * -Dwordgame.tolerance=0 to accept exact answers only.
  *
  * @author Arshia Adamian
  * @version 1.0
@@ -0,0 +1,224 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A ScoreRepository that writes fixed-width records straight into a
+ * memory-mapped file, so appending and reading never make a system call.
+ *
+ * The file starts with a small header holding the record count, followed
+ * by records in the ScoreLog layout. The mapping covers more records than
+ * are stored; when it is full the file is mapped again at twice the size.
+ * Only the first count records are ever read, so the unused space at the
+ * end of the file does no harm. Pages are written back by the operating
+ * system, and close() forces them to disk.
+ *
+ * A single mapping is limited to 2 GB, which holds about 89 million
+ * records.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class MappedScoreRepository
+    implements ScoreRepository
+{
+
+    private static final int MAGIC = 0x5747534D; // "WGSM"
+    private static final int VERSION = 2;
+    private static final int COUNT_OFFSET = 2 * Integer.BYTES;
+    private static final int HEADER_BYTES = Integer.BYTES    // magic
+                                            + Integer.BYTES  // version
+                                            + Integer.BYTES; // record count
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_BYTES) / ScoreLog.RECORD_BYTES;
+
+    private final Path file;
+    private final FileChannel channel;
+
+    private MappedByteBuffer mapping;
+    private int capacity;
+    private int count;
+
+    private MappedScoreRepository(final Path file,
+                                  final FileChannel channel)
+    {
+        this.file    = file;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a mapped score file, creating it if it does not exist yet.
+     *
+     * @param file the score file
+     *
+     * @return the opened repository
+     *
+     * @throws IOException if the file cannot be mapped or is not a mapped score file
+     */
+    public static MappedScoreRepository open(final Path file)
+        throws IOException
+    {
+        final FileChannel channel;
+        channel = FileChannel.open(file,
+                                   StandardOpenOption.CREATE,
+                                   StandardOpenOption.READ,
+                                   StandardOpenOption.WRITE);
+
+        final MappedScoreRepository repository;
+        repository = new MappedScoreRepository(file, channel);
+
+        try
+        {
+            repository.load();
+        }
+        catch (final IOException | RuntimeException ex)
+        {
+            channel.close();
+            throw ex;
+        }
+
+        return repository;
+    }
+
+    /**
+     * Writes a score into the mapping after the last record.
+     *
+     * @param score the score to store
+     *
+     * @throws IOException if the file cannot be grown
+     */
+    @Override
+    public synchronized void append(final Score score)
+        throws IOException
+    {
+        if (count == capacity)
+        {
+            if (capacity == MAX_CAPACITY)
+            {
+                throw new IOException("Mapped score file is full: " + file);
+            }
+            map((int) Math.min(Math.max(INITIAL_CAPACITY, (long) capacity * 2), MAX_CAPACITY));
+        }
+
+        mapping.position((int) position(count));
+        ScoreLog.encode(score, mapping);
+
+        count++;
+        mapping.putInt(COUNT_OFFSET, count);
+    }
+
+    /**
+     * Returns how many scores are stored.
+     *
+     * @return the number of records
+     */
+    @Override
+    public synchronized int count()
+    {
+        return count;
+    }
+
+    /**
+     * Reads one score by its position.
+     *
+     * @param index the record index, from 0 to count() - 1
+     *
+     * @return the score at that position
+     */
+    public synchronized Score get(final int index)
+    {
+        if (index < 0 || index >= count)
+        {
+            throw new IndexOutOfBoundsException("No score at index " + index);
+        }
+        return ScoreLog.decode(mapping.duplicate().position((int) position(index)));
+    }
+
+    /**
+     * Streams every stored score, oldest first, straight from the mapping.
+     * Scores appended after the stream was created are not included.
+     *
+     * @return a lazily read stream of the scores
+     */
+    @Override
+    public synchronized Stream<Score> stream()
+    {
+        final ByteBuffer records;
+        records = mapping.duplicate().position(HEADER_BYTES);
+
+        return IntStream.range(0, count).mapToObj(i -> ScoreLog.decode(records));
+    }
+
+    /**
+     * Forces the mapped pages to disk and closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public synchronized void close()
+        throws IOException
+    {
+        mapping.force();
+        channel.close();
+    }
+
+    private void load()
+        throws IOException
+    {
+        if (channel.size() == 0)
+        {
+            map(INITIAL_CAPACITY);
+            mapping.putInt(0, MAGIC);
+            mapping.putInt(Integer.BYTES, VERSION);
+            mapping.putInt(COUNT_OFFSET, 0);
+            count = 0;
+            return;
+        }
+
+        final long records;
+        records = (channel.size() - HEADER_BYTES) / ScoreLog.RECORD_BYTES;
+
+        if (records < 0 || records > MAX_CAPACITY)
+        {
+            throw new IOException("Not a mapped score file: " + file);
+        }
+
+        map((int) records);
+
+        if (mapping.getInt(0) != MAGIC || mapping.getInt(Integer.BYTES) != VERSION)
+        {
+            throw new IOException("Not a mapped score file: " + file);
+        }
+
+        count = mapping.getInt(COUNT_OFFSET);
+
+        if (count < 0 || count > capacity)
+        {
+            throw new IOException("Damaged mapped score file: " + file);
+        }
+    }
+
+    /*
+     * Maps the header and room for the given number of records, growing
+     * the file if it is shorter.
+     */
+    private void map(final int records)
+        throws IOException
+    {
+        mapping  = channel.map(FileChannel.MapMode.READ_WRITE, 0, position(records));
+        capacity = records;
+    }
+
+    private static long position(final int index)
+    {
+        return HEADER_BYTES + (long) index * ScoreLog.RECORD_BYTES;
+    }
+
+}
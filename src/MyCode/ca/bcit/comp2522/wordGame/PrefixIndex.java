@@ -0,0 +1,241 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Completes partly typed names for a typeahead client.
+ *
+ * Every name is reduced to its AnswerIndex key, and the keys are kept in
+ * sorted order. A prefix is normalised the same way, so "cote d" finds
+ * "Côte d’Ivoire". Looking up a prefix is a binary search for the first
+ * key that could start with it, followed by a walk over the matching keys
+ * in order, so the cost depends on the number of completions asked for
+ * and not on the size of the corpus.
+ *
+ * To stay small for large corpora the keys are not kept as separate
+ * String objects: all of their characters are packed into one char array,
+ * with an int array marking where each key starts.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class PrefixIndex
+{
+
+    private final char[] keyChars;
+    private final int[] keyStarts;
+    private final int[] ids;
+    private final IntFunction<String> names;
+
+    /**
+     * Builds the index over the names with ids 0 to size - 1.
+     *
+     * @param size  the number of names
+     * @param names returns the display name for an id
+     */
+    PrefixIndex(final int size,
+                final IntFunction<String> names)
+    {
+        final String[] keys;
+        final Integer[] order;
+
+        keys  = new String[size];
+        order = new Integer[size];
+
+        int totalChars;
+        totalChars = 0;
+
+        for (int id = 0; id < size; id++)
+        {
+            keys[id]    = AnswerIndex.normalize(names.apply(id));
+            order[id]   = id;
+            totalChars += keys[id].length();
+        }
+
+        // ties keep id order, so equal keys always complete the same way
+        Arrays.sort(order, Comparator.comparing((Integer id) -> keys[id]));
+
+        keyChars  = new char[totalChars];
+        keyStarts = new int[size + 1];
+        ids       = new int[size];
+
+        int position;
+        position = 0;
+
+        for (int i = 0; i < size; i++)
+        {
+            final String key;
+            key = keys[order[i]];
+
+            key.getChars(0, key.length(), keyChars, position);
+            keyStarts[i] = position;
+            ids[i]       = order[i];
+            position    += key.length();
+        }
+
+        keyStarts[size] = position;
+        this.names      = names;
+    }
+
+    /**
+     * Returns up to limit names that start with the prefix, in
+     * alphabetical order of their normalised form. Names that are spelt
+     * the same are returned once.
+     *
+     * @param prefix what the player has typed so far
+     * @param limit  the most completions to return
+     *
+     * @return the matching display names
+     */
+    public List<String> complete(final String prefix,
+                                 final int limit)
+    {
+        final int[] matches;
+        matches = completeIds(prefix, limit);
+
+        final List<String> completions;
+        completions = new ArrayList<>(matches.length);
+
+        for (final int id : matches)
+        {
+            final String name;
+            name = names.apply(id);
+
+            if (!completions.contains(name))
+            {
+                completions.add(name);
+            }
+        }
+
+        return completions;
+    }
+
+    /**
+     * Returns the ids of up to limit names that start with the prefix, in
+     * alphabetical order of their normalised form.
+     *
+     * @param prefix what the player has typed so far
+     * @param limit  the most ids to return
+     *
+     * @return the matching ids
+     */
+    public int[] completeIds(final String prefix,
+                             final int limit)
+    {
+        if (limit < 0)
+        {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+
+        final String key;
+        key = AnswerIndex.normalize(prefix);
+
+        final int[] matches;
+        matches = new int[Math.min(limit, ids.length)];
+
+        int found;
+        int entry;
+
+        found = 0;
+        entry = lowerBound(key);
+
+        while (found < matches.length && entry < ids.length && startsWith(entry, key))
+        {
+            matches[found++] = ids[entry++];
+        }
+
+        return Arrays.copyOf(matches, found);
+    }
+
+    /**
+     * Returns the number of names in the index.
+     *
+     * @return the number of names
+     */
+    public int size()
+    {
+        return ids.length;
+    }
+
+    /*
+     * Finds the first entry whose key is not less than the given key.
+     */
+    private int lowerBound(final String key)
+    {
+        int low;
+        int high;
+
+        low  = 0;
+        high = ids.length;
+
+        while (low < high)
+        {
+            final int middle;
+            middle = (low + high) >>> 1;
+
+            if (compare(middle, key) < 0)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private int compare(final int entry,
+                        final String key)
+    {
+        final int start;
+        final int length;
+
+        start  = keyStarts[entry];
+        length = keyStarts[entry + 1] - start;
+
+        final int shared;
+        shared = Math.min(length, key.length());
+
+        for (int i = 0; i < shared; i++)
+        {
+            final int difference;
+            difference = keyChars[start + i] - key.charAt(i);
+
+            if (difference != 0)
+            {
+                return difference;
+            }
+        }
+
+        return length - key.length();
+    }
+
+    private boolean startsWith(final int entry,
+                               final String key)
+    {
+        final int start;
+        start = keyStarts[entry];
+
+        if (keyStarts[entry + 1] - start < key.length())
+        {
+            return false;
+        }
+
+        for (int i = 0; i < key.length(); i++)
+        {
+            if (keyChars[start + i] != key.charAt(i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+}
@@ -0,0 +1,155 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A single Word Game question: the prompt shown to the player and the
+ * answer that is accepted for it.
+ *
+ * Guesses are checked against the World's AnswerIndex, so differences in
+ * case, accents, apostrophes and punctuation do not matter.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class Question
+{
+
+    private final String prompt;
+    private final String answer;
+    private final int countryId;
+    private final boolean capitalAnswer;
+    private final AnswerIndex index;
+    private final byte[] promptLine;
+    private final byte[] answerBytes;
+
+    /**
+     * Creates a question with the given prompt and expected answer.
+     *
+     * @param prompt        the text shown to the player
+     * @param answer        the correct answer, as displayed
+     * @param countryId     the id of the country the question is about
+     * @param capitalAnswer true if the answer is the capital, false if it
+     *                      is the country's name
+     * @param index         the index used to check guesses
+     */
+    Question(final String prompt,
+             final String answer,
+             final int countryId,
+             final boolean capitalAnswer,
+             final AnswerIndex index)
+    {
+        this.prompt        = prompt;
+        this.answer        = answer;
+        this.countryId     = countryId;
+        this.capitalAnswer = capitalAnswer;
+        this.index         = index;
+
+        promptLine  = prompt.replace('\n', ' ').getBytes(StandardCharsets.UTF_8);
+        answerBytes = answer.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the text shown to the player.
+     *
+     * @return the question prompt
+     */
+    public String getPrompt()
+    {
+        return prompt;
+    }
+
+    /**
+     * Returns the correct answer for this question.
+     *
+     * @return the expected answer
+     */
+    public String getAnswer()
+    {
+        return answer;
+    }
+
+    /**
+     * Returns the prompt on a single line, encoded as UTF-8, for line-based
+     * clients. The bytes are rendered once when the question is built;
+     * callers must not modify the array.
+     *
+     * @return the encoded single-line prompt
+     */
+    byte[] getPromptLineBytes()
+    {
+        return promptLine;
+    }
+
+    /**
+     * Returns the answer encoded as UTF-8. Callers must not modify the array.
+     *
+     * @return the encoded answer
+     */
+    byte[] getAnswerBytes()
+    {
+        return answerBytes;
+    }
+
+    /**
+     * Returns the id of the country the question is about.
+     *
+     * @return the country id in the World's CountryTable
+     */
+    public int getCountryId()
+    {
+        return countryId;
+    }
+
+    /**
+     * Returns whether the answer is a capital city rather than a country.
+     *
+     * @return true if the expected answer is a capital
+     */
+    public boolean isCapitalAnswer()
+    {
+        return capitalAnswer;
+    }
+
+    /**
+     * Checks a guess against the answer with a single index lookup.
+     *
+     * @param guess the player's trimmed guess
+     *
+     * @return true if the guess matches the answer
+     */
+    public boolean isCorrect(final String guess)
+    {
+        if (capitalAnswer)
+        {
+            return index.isCapital(guess, countryId);
+        }
+        return index.isCountry(guess, countryId);
+    }
+
+    /**
+     * Checks a guess against the answer, accepting a guess up to
+     * maxDistance typing mistakes away from it. With a maxDistance of 0
+     * this is the same as isCorrect(guess).
+     *
+     * @param guess       the player's trimmed guess
+     * @param maxDistance the most edits the guess may be away from the answer
+     *
+     * @return true if the guess matches the answer closely enough
+     */
+    public boolean isCorrect(final String guess,
+                             final int maxDistance)
+    {
+        if (maxDistance == 0)
+        {
+            return isCorrect(guess);
+        }
+
+        if (capitalAnswer)
+        {
+            return index.isCapitalWithin(guess, countryId, maxDistance);
+        }
+        return index.isCountryWithin(guess, countryId, maxDistance);
+    }
+
+}
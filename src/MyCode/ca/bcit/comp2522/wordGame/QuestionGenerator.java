@@ -0,0 +1,185 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Builds random Word Game questions from a CountryTable.
+ * The question type is chosen at random from:
+ * 1) capital to country, 2) country to capital, or 3) fact to country.
+ *
+ * Countries are picked by id through a CountrySampler and their fields
+ * are read straight from the table, so no Country objects or fact arrays
+ * are copied. By default a ShuffledSampler is used, so no country repeats
+ * until every country has been asked.
+ *
+ * nextKeywordQuestion() builds a fourth kind of question, not part of the
+ * regular mix: a few words from a country's facts that, taken together,
+ * fit no other country.
+ *
+ * A QuestionGenerator is not thread-safe; each session uses its own,
+ * with its own RandomGenerator. Giving a session a seeded generator (for
+ * example a SplittableRandom split from a root seed) makes its questions
+ * reproducible, and sessions never contend on a shared seed.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class QuestionGenerator
+    implements QuestionSource
+{
+
+    private static final int QUESTION_TYPES = 3;
+    private static final int RANDOM_OFFSET = 1;
+
+    private static final int TYPE_CAPITAL_TO_COUNTRY = 1; // (a)
+    private static final int TYPE_COUNTRY_TO_CAPITAL = 2; // (b)
+
+    private static final int MAX_KEYWORDS = 3;
+    private static final String KEYWORD_SEPARATOR = ", ";
+
+    private final World world;
+    private final CountryTable table;
+    private final AnswerIndex index;
+    private final RandomGenerator random;
+    private final CountrySampler sampler;
+
+    /**
+     * Creates a generator that asks about every country in a World once
+     * before repeating any of them.
+     *
+     * @param world  the World to ask about
+     * @param random the source of randomness
+     */
+    public QuestionGenerator(final World world,
+                             final RandomGenerator random)
+    {
+        this(world, random, new ShuffledSampler(countryCount(world), random));
+    }
+
+    /**
+     * Creates a generator that picks countries with the given sampler.
+     *
+     * @param world   the World to ask about
+     * @param random  the source of randomness for question types and facts
+     * @param sampler chooses the country for each question
+     */
+    public QuestionGenerator(final World world,
+                             final RandomGenerator random,
+                             final CountrySampler sampler)
+    {
+        countryCount(world);
+
+        this.world   = world;
+        this.table   = world.getCountryTable();
+        this.index   = world.getAnswerIndex();
+        this.random  = random;
+        this.sampler = sampler;
+    }
+
+    /**
+     * Builds the next random question.
+     *
+     * @return a new Question
+     */
+    @Override
+    public Question next()
+    {
+        final int id;
+        id = randomCountryId();
+
+        // Pick type in {1,2,3}
+        final int qType;
+        qType = random.nextInt(QUESTION_TYPES) + RANDOM_OFFSET;
+
+        if (qType == TYPE_CAPITAL_TO_COUNTRY)
+        {
+            // (a) show capital, ask for country
+            return new Question("Which country has the capital \"" + table.capital(id) + "\"?",
+                                table.name(id), id, false, index);
+        }
+        else if (qType == TYPE_COUNTRY_TO_CAPITAL)
+        {
+            // (b) show country, ask for capital
+            return new Question("What is the capital city of \"" + table.name(id) + "\"?",
+                                table.capital(id), id, true, index);
+        }
+        else
+        {
+            // (c) show one fact, ask for country
+            final int factIndex;
+            factIndex = random.nextInt(CountryTable.FACTS_PER_COUNTRY); // 0..2
+
+            return new Question("Which country matches this fact?\n" + table.fact(id, factIndex),
+                                table.name(id), id, false, index);
+        }
+    }
+
+    /**
+     * Builds a question that lists a few keywords from one country's facts
+     * and asks which country they describe. Countries whose facts cannot
+     * be told apart from another country's with at most three keywords
+     * are skipped.
+     *
+     * @return a new keyword Question
+     *
+     * @throws IllegalStateException if no country can be singled out by
+     *                               its keywords
+     */
+    public Question nextKeywordQuestion()
+    {
+        // the World builds its FactIndex on the first keyword question
+        final FactIndex facts;
+        facts = world.getFactIndex();
+
+        for (int tried = 0; tried < table.size(); tried++)
+        {
+            final int id;
+            id = randomCountryId();
+
+            final String[] keywords;
+            keywords = facts.identifyingKeywords(id, MAX_KEYWORDS);
+
+            if (keywords.length > 0)
+            {
+                return new Question("Which country matches these keywords?\n"
+                                    + String.join(KEYWORD_SEPARATOR, keywords),
+                                    table.name(id), id, false, index);
+            }
+        }
+
+        throw new IllegalStateException("No country can be identified by its fact keywords");
+    }
+
+    /**
+     * Passes a missed or answered country on to the sampler.
+     *
+     * @param question the question that was answered
+     * @param result   the final outcome
+     */
+    @Override
+    public void recordResult(final Question question,
+                             final AnswerResult result)
+    {
+        sampler.recordResult(question.getCountryId(), result == AnswerResult.INCORRECT);
+    }
+
+    /**
+     * Returns the id of the next country chosen by the sampler.
+     *
+     * @return a country id
+     */
+    int randomCountryId()
+    {
+        return sampler.nextCountryId();
+    }
+
+    private static int countryCount(final World world)
+    {
+        if (world == null || world.getCountryTable().size() == 0)
+        {
+            throw new IllegalArgumentException("world can not be empty");
+        }
+        return world.getCountryTable().size();
+    }
+
+}
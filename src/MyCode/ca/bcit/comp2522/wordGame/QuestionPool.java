@@ -0,0 +1,195 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.random.RandomGenerator;
+
+/**
+ * A ring buffer of ready-made questions shared by many sessions.
+ *
+ * A background producer thread keeps the ring filled with questions whose
+ * prompt and answer bytes are already rendered. Sessions claim the next
+ * filled slot with a single compare-and-set, so serving a question takes
+ * no lock and allocates nothing on the session's thread.
+ *
+ * Each slot carries a sequence number that says whether it is waiting to
+ * be filled or waiting to be claimed, so the producer and the consumers
+ * never touch the same slot at the same time. If sessions drain the ring
+ * faster than it is refilled they wake the producer and wait for it.
+ *
+ * switchWorld() makes the producer ask about a new World from then on.
+ * Questions already in the ring still belong to the old World and are
+ * served first; each one checks answers against its own World.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class QuestionPool
+    implements QuestionSource, Closeable
+{
+
+    private static final long FULL_PAUSE_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final Question[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head;
+    private final RandomGenerator random;
+    private final AtomicReference<World> nextWorld;
+    private final Thread producer;
+
+    private QuestionGenerator generator;
+    private long tail;
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool for the given World and starts its producer thread.
+     *
+     * @param world    the World to ask about
+     * @param capacity the number of slots; rounded up to a power of two
+     * @param random   the randomness used by the producer only
+     */
+    public QuestionPool(final World world,
+                        final int capacity,
+                        final RandomGenerator random)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        final int size;
+
+        if (Integer.bitCount(capacity) == 1)
+        {
+            size = capacity;
+        }
+        else
+        {
+            size = Integer.highestOneBit(capacity) << 1;
+        }
+
+        slots     = new Question[size];
+        sequences = new AtomicLongArray(size);
+        mask      = size - 1;
+        head      = new AtomicLong();
+        nextWorld = new AtomicReference<>();
+        generator = new QuestionGenerator(world, random);
+        tail      = 0;
+
+        this.random = random;
+
+        for (int i = 0; i < size; i++)
+        {
+            sequences.set(i, i);
+        }
+
+        producer = new Thread(this::produce, "question-pool-producer");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    /**
+     * Claims the next ready question. Safe to call from any number of
+     * threads at once.
+     *
+     * @return the next question
+     *
+     * @throws IllegalStateException if the pool has been closed
+     */
+    @Override
+    public Question next()
+    {
+        while (true)
+        {
+            final long position;
+            final int slot;
+            final long difference;
+
+            position   = head.get();
+            slot       = (int) (position & mask);
+            difference = sequences.get(slot) - (position + 1);
+
+            if (difference == 0)
+            {
+                if (head.compareAndSet(position, position + 1))
+                {
+                    final Question question;
+                    question = slots[slot];
+
+                    // hand the slot back to the producer for the next lap
+                    sequences.set(slot, position + slots.length);
+                    return question;
+                }
+            }
+            else if (difference < 0)
+            {
+                if (closed)
+                {
+                    throw new IllegalStateException("The question pool is closed");
+                }
+
+                // the ring is empty: make sure the producer is awake, then let it run
+                LockSupport.unpark(producer);
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Makes the producer generate questions about another World. Safe to
+     * call from any thread; the producer picks it up before its next
+     * question.
+     *
+     * @param world the World to ask about from now on
+     */
+    public void switchWorld(final World world)
+    {
+        nextWorld.set(world);
+        LockSupport.unpark(producer);
+    }
+
+    /**
+     * Stops the producer thread. Questions already in the ring can still
+     * be claimed.
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+        LockSupport.unpark(producer);
+    }
+
+    private void produce()
+    {
+        while (!closed)
+        {
+            final World replacement;
+            replacement = nextWorld.getAndSet(null);
+
+            if (replacement != null)
+            {
+                generator = new QuestionGenerator(replacement, random);
+            }
+
+            final int slot;
+            slot = (int) (tail & mask);
+
+            if (sequences.get(slot) != tail)
+            {
+                // the ring is full until a session claims this slot
+                LockSupport.parkNanos(this, FULL_PAUSE_NANOS);
+                continue;
+            }
+
+            slots[slot] = generator.next();
+            sequences.set(slot, tail + 1);
+            tail++;
+        }
+    }
+
+}
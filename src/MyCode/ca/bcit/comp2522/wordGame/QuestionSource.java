@@ -0,0 +1,31 @@
+package ca.bcit.comp2522.wordGame;
+
+/**
+ * Supplies the questions for a GameSession.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public interface QuestionSource
+{
+
+    /**
+     * Returns the next question to ask.
+     *
+     * @return a Question
+     */
+    Question next();
+
+    /**
+     * Reports the final outcome of a question this source supplied.
+     * Does nothing by default.
+     *
+     * @param question the question that was answered
+     * @param result   the final outcome
+     */
+    default void recordResult(final Question question,
+                              final AnswerResult result)
+    {
+    }
+
+}
@@ -5,10 +5,23 @@ import java.io.BufferedWriter;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Stores and manages the scoring information for a single Word Game session.
@@ -18,6 +31,12 @@ import java.util.List;
  * - how many answers were correct on the first attempt
  * - how many answers were correct on the second attempt
  * - how many answers were incorrect after two attempts
+ * - optionally, the id of the player who played it
+ *
+ * A score with a player id is written with a "Player:" line just before
+ * its "Date and Time:" line. Readers that do not know about player ids
+ * skip that line like any other, and a score without one is written
+ * exactly as before.
  *
  * The Score class is also responsible for writing score entries to a text file
  * and reading them back in the exact format required by the JUnit tests.
@@ -28,10 +47,17 @@ import java.util.List;
 public final class Score
 {
 
+    /**
+     * The longest player id a score can carry.
+     */
+    public static final int MAX_PLAYER_ID_LENGTH = 32;
+
     private static final DateTimeFormatter FORMATTER =
         DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String PLAYER_PREFIX = "Player:";
 
     private final LocalDateTime dateTimePlayed;
+    private final String playerId;
     private final int gamesPlayed;
     private final int correctFirst;
     private final int correctSecond;
@@ -53,10 +79,35 @@ public final class Score
                  final int correctFirst,
                  final int correctSecond,
                  final int incorrect)
+    {
+        this(dateTimePlayed, null, gamesPlayed, correctFirst, correctSecond, incorrect);
+    }
+
+    /**
+     * Creates a Score object played by a known player.
+     *
+     * @param dateTimePlayed the date and time the score was recorded
+     * @param playerId the player's id: up to MAX_PLAYER_ID_LENGTH letters,
+     *                 digits, '.', '_' or '-'; or null for no player
+     * @param gamesPlayed the total number of games played
+     * @param correctFirst number of first-attempt correct answers
+     * @param correctSecond number of second-attempt correct answers
+     * @param incorrect number of incorrect answers
+     *
+     * @throws IllegalArgumentException if invalid.
+     */
+    public Score(final LocalDateTime dateTimePlayed,
+                 final String playerId,
+                 final int gamesPlayed,
+                 final int correctFirst,
+                 final int correctSecond,
+                 final int incorrect)
     {
         validateScore(dateTimePlayed, gamesPlayed, correctFirst, correctSecond, incorrect);
+        validatePlayerId(playerId);
 
         this.dateTimePlayed = dateTimePlayed;
+        this.playerId       = playerId;
         this.gamesPlayed    = gamesPlayed;
         this.correctFirst   = correctFirst;
         this.correctSecond  = correctSecond;
@@ -73,6 +124,16 @@ public final class Score
         return dateTimePlayed;
     }
 
+    /**
+     * Returns the id of the player who played this session.
+     *
+     * @return the player id, or null if the score has no player
+     */
+    public String getPlayerId()
+    {
+        return playerId;
+    }
+
     /**
      * Returns how many games were played during this scoring session.
      *
@@ -136,7 +197,8 @@ public final class Score
 
     /**
      * Returns a string representation of the score in the exact format
-     * expected by the JUnit tests. Includes a trailing newline.
+     * expected by the JUnit tests. Includes a trailing newline. A score
+     * with a player id starts with a "Player:" line.
      *
      * @return formatted multi-line score entry
      */
@@ -146,6 +208,11 @@ public final class Score
         final StringBuilder sb;
         sb = new StringBuilder();
 
+        if (playerId != null)
+        {
+            sb.append(PLAYER_PREFIX).append(' ').append(playerId).append('\n');
+        }
+
         sb.append("Date and Time: ").append(dateTimePlayed.format(FORMATTER)).append('\n');
         sb.append("Games Played: ").append(gamesPlayed).append('\n');
         sb.append("Correct First Attempts: ").append(correctFirst).append('\n');
@@ -194,51 +261,195 @@ public final class Score
 
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath)))
         {
-            String line;
+            Score score;
 
-            while ((line = reader.readLine()) != null)
+            while ((score = readNextScore(reader)) != null)
             {
-                line = line.trim();
+                results.add(score);
+            }
+        }
 
-                if (!line.startsWith("Date and Time:"))
-                {
-                    continue;
-                }
+        return results;
+    }
+
+    /**
+     * Streams the score entries in the specified file without loading them
+     * all into memory. Entries are parsed one at a time as the stream is
+     * consumed, using a single buffered reader, so a file of any size can
+     * be processed in constant memory.
+     *
+     * The returned stream holds the file open and must be closed, for
+     * example with try-with-resources.
+     *
+     * @param filePath path to the score file
+     *
+     * @return a lazily populated stream of the scores in the file
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    public static Stream<Score> streamScoresFromFile(final String filePath) throws IOException
+    {
+        return streamScoresFromFile(filePath, 0);
+    }
+
+    /**
+     * Streams the score entries that start at or after a byte offset in
+     * the specified file. The file is opened at the offset, so the bytes
+     * before it are never read. Used to read only the entries appended
+     * since the file was last read, or a slice found through an index.
+     *
+     * @param filePath path to the score file
+     * @param offset   the number of bytes to skip, at the end of an entry
+     *
+     * @return a lazily populated stream of the scores after the offset
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    static Stream<Score> streamScoresFromFile(final String filePath,
+                                              final long offset) throws IOException
+    {
+        final FileChannel channel;
+        channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+
+        try
+        {
+            channel.position(offset);
+        }
+        catch (final IOException ex)
+        {
+            channel.close();
+            throw ex;
+        }
 
-                final String dtText;
-                dtText = line.substring("Date and Time:".length()).trim();
+        final BufferedReader reader;
+        reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel),
+                                                          Charset.defaultCharset()));
 
-                final LocalDateTime dt;
-                dt = LocalDateTime.parse(dtText, FORMATTER);
+        final Iterator<Score> iterator;
+        iterator = new Iterator<>()
+        {
+            private Score next;
+            private boolean done;
 
-                final String gamesLine = reader.readLine();
-                final String firstLine = reader.readLine();
-                final String secondLine = reader.readLine();
-                final String incLine = reader.readLine();
-                final String scoreLine = reader.readLine(); // not used to build object (we recompute)
+            @Override
+            public boolean hasNext()
+            {
+                if (next == null && !done)
+                {
+                    try
+                    {
+                        next = readNextScore(reader);
+                    }
+                    catch (final IOException ex)
+                    {
+                        throw new UncheckedIOException(ex);
+                    }
+                    done = next == null;
+                }
+                return next != null;
+            }
 
-                if (gamesLine == null || firstLine == null || secondLine == null
-                    || incLine == null || scoreLine == null)
+            @Override
+            public Score next()
+            {
+                if (!hasNext())
                 {
-                    // Incomplete block at EOF; stop.
-                    break;
+                    throw new NoSuchElementException();
                 }
 
-                final int games;
-                final int first;
-                final int second;
-                final int incorrect;
+                final Score current;
+                current = next;
+                next    = null;
+
+                return current;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                                                                        Spliterator.ORDERED
+                                                                        | Spliterator.NONNULL),
+                                    false)
+                            .onClose(() ->
+                            {
+                                try
+                                {
+                                    reader.close();
+                                }
+                                catch (final IOException ex)
+                                {
+                                    throw new UncheckedIOException(ex);
+                                }
+                            });
+    }
+
+    /**
+     * Reads the next score entry from the reader, skipping any lines that
+     * are not the start of an entry.
+     *
+     * @param reader the reader positioned anywhere in a score file
+     *
+     * @return the next Score, or null at the end of the file or if the
+     *         last entry is incomplete
+     *
+     * @throws IOException if reading the file fails
+     */
+    private static Score readNextScore(final BufferedReader reader) throws IOException
+    {
+        String line;
+        String player;
+
+        player = null;
 
-                games     = parseTrailingInt(gamesLine, "Games Played:");
-                first     = parseTrailingInt(firstLine, "Correct First Attempts:");
-                second    = parseTrailingInt(secondLine, "Correct Second Attempts:");
-                incorrect = parseTrailingInt(incLine, "Incorrect Attempts:");
+        while ((line = reader.readLine()) != null)
+        {
+            line = line.trim();
+
+            if (line.startsWith(PLAYER_PREFIX))
+            {
+                player = line.substring(PLAYER_PREFIX.length()).trim();
+                continue;
+            }
 
-                results.add(new Score(dt, games, first, second, incorrect));
+            if (!line.startsWith("Date and Time:"))
+            {
+                // a player line only belongs to the entry right after it
+                player = null;
+                continue;
+            }
+
+            final String dtText;
+            dtText = line.substring("Date and Time:".length()).trim();
+
+            final LocalDateTime dt;
+            dt = LocalDateTime.parse(dtText, FORMATTER);
+
+            final String gamesLine = reader.readLine();
+            final String firstLine = reader.readLine();
+            final String secondLine = reader.readLine();
+            final String incLine = reader.readLine();
+            final String scoreLine = reader.readLine(); // not used to build object (we recompute)
+
+            if (gamesLine == null || firstLine == null || secondLine == null
+                || incLine == null || scoreLine == null)
+            {
+                // Incomplete block at EOF; stop.
+                return null;
             }
+
+            final int games;
+            final int first;
+            final int second;
+            final int incorrect;
+
+            games     = parseTrailingInt(gamesLine, "Games Played:");
+            first     = parseTrailingInt(firstLine, "Correct First Attempts:");
+            second    = parseTrailingInt(secondLine, "Correct Second Attempts:");
+            incorrect = parseTrailingInt(incLine, "Incorrect Attempts:");
+
+            return new Score(dt, player, games, first, second, incorrect);
         }
 
-        return results;
+        return null;
     }
 
     /**
@@ -273,6 +484,57 @@ public final class Score
         return Integer.parseInt(numText);
     }
 
+    /**
+     * Validates a player id. A score may have no player id, so null is
+     * accepted; otherwise the id must be 1 to MAX_PLAYER_ID_LENGTH
+     * characters that isPlayerIdChar() allows.
+     *
+     * @param playerId the player id, or null
+     *
+     * @throws IllegalArgumentException if the id is empty, too long or has
+     *                                  a character that is not allowed
+     */
+    private static void validatePlayerId(final String playerId)
+    {
+        if (playerId == null)
+        {
+            return;
+        }
+
+        if (playerId.isEmpty() || playerId.length() > MAX_PLAYER_ID_LENGTH)
+        {
+            throw new IllegalArgumentException("Player id must be 1 to " + MAX_PLAYER_ID_LENGTH + " characters");
+        }
+
+        for (int i = 0; i < playerId.length(); i++)
+        {
+            final char c;
+            c = playerId.charAt(i);
+
+            if (!isPlayerIdChar(c))
+            {
+                throw new IllegalArgumentException("Invalid character in player id: " + playerId);
+            }
+        }
+    }
+
+    /**
+     * Returns whether a character may appear in a player id.
+     *
+     * @param c the character to check
+     *
+     * @return true for ASCII letters and digits, '.', '_' and '-'
+     */
+    static boolean isPlayerIdChar(final int c)
+    {
+        return (c >= 'a' && c <= 'z')
+               || (c >= 'A' && c <= 'Z')
+               || (c >= '0' && c <= '9')
+               || c == '.'
+               || c == '_'
+               || c == '-';
+    }
+
     /**
      * Validates all fields used to construct a Score object.
      * Ensures that the date and time is not null and that all
@@ -0,0 +1,487 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Running totals over every Score in a score file, kept up to date as
+ * scores are appended so summaries never read the file.
+ *
+ * One set of Totals is kept for the whole history, one for every
+ * day that has scores, and one for each hour of the day, all keyed off
+ * Score.getDateTimePlayed(). Adding a score updates three sets of totals,
+ * and every query returns a copy of one of them, so both take constant
+ * time however long the history is.
+ *
+ * Like the Leaderboard, the totals can be saved next to their score file
+ * as "&lt;file&gt;.stats" together with how many bytes of the score file
+ * they cover, and open() only reads the entries appended after that.
+ *
+ * All methods are synchronized, so scores can be added while other
+ * threads query.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class ScoreAggregates
+{
+
+    /**
+     * Sums over a group of scores.
+     */
+    public static final class Totals
+    {
+
+        private long entries;
+        private long gamesPlayed;
+        private long correctFirst;
+        private long correctSecond;
+        private long incorrect;
+        private long points;
+        private int highScore;
+
+        private Totals()
+        {
+        }
+
+        private Totals(final Totals other)
+        {
+            entries       = other.entries;
+            gamesPlayed   = other.gamesPlayed;
+            correctFirst  = other.correctFirst;
+            correctSecond = other.correctSecond;
+            incorrect     = other.incorrect;
+            points        = other.points;
+            highScore     = other.highScore;
+        }
+
+        /**
+         * Returns how many score entries were added.
+         *
+         * @return the number of entries
+         */
+        public long getEntries()
+        {
+            return entries;
+        }
+
+        /**
+         * Returns the games played over all entries.
+         *
+         * @return the total games played
+         */
+        public long getGamesPlayed()
+        {
+            return gamesPlayed;
+        }
+
+        /**
+         * Returns the points scored over all entries.
+         *
+         * @return the total score
+         */
+        public long getPoints()
+        {
+            return points;
+        }
+
+        /**
+         * Returns the highest score of a single entry.
+         *
+         * @return the high score, or 0 if there are no entries
+         */
+        public int getHighScore()
+        {
+            return highScore;
+        }
+
+        /**
+         * Returns the mean score per entry.
+         *
+         * @return the average score, or 0 if there are no entries
+         */
+        public double averageScore()
+        {
+            if (entries == 0)
+            {
+                return 0.0;
+            }
+            return (double) points / entries;
+        }
+
+        /**
+         * Returns the share of questions answered correctly on the first
+         * attempt.
+         *
+         * @return a value from 0 to 1, or 0 if no questions were answered
+         */
+        public double firstTryAccuracy()
+        {
+            final long answered;
+            answered = correctFirst + correctSecond + incorrect;
+
+            if (answered == 0)
+            {
+                return 0.0;
+            }
+            return (double) correctFirst / answered;
+        }
+
+        private void add(final Score score)
+        {
+            entries++;
+            gamesPlayed   += score.getGamesPlayed();
+            correctFirst  += score.getCorrectFirst();
+            correctSecond += score.getCorrectSecond();
+            incorrect     += score.getIncorrect();
+            points        += score.getScore();
+            highScore      = Math.max(highScore, score.getScore());
+        }
+
+        private void write(final ByteBuffer buffer)
+        {
+            buffer.putLong(entries);
+            buffer.putLong(gamesPlayed);
+            buffer.putLong(correctFirst);
+            buffer.putLong(correctSecond);
+            buffer.putLong(incorrect);
+            buffer.putLong(points);
+            buffer.putInt(highScore);
+        }
+
+        private static Totals read(final ByteBuffer buffer)
+        {
+            final Totals totals;
+            totals = new Totals();
+
+            totals.entries       = buffer.getLong();
+            totals.gamesPlayed   = buffer.getLong();
+            totals.correctFirst  = buffer.getLong();
+            totals.correctSecond = buffer.getLong();
+            totals.incorrect     = buffer.getLong();
+            totals.points        = buffer.getLong();
+            totals.highScore     = buffer.getInt();
+
+            return totals;
+        }
+    }
+
+    private static final int MAGIC = 0x57475354; // "WGST"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES    // magic
+                                            + Integer.BYTES  // version
+                                            + Long.BYTES     // score file bytes covered
+                                            + Long.BYTES     // checksum of the body
+                                            + Integer.BYTES; // days
+    private static final int TOTALS_BYTES = 6 * Long.BYTES + Integer.BYTES;
+    private static final int DAY_BYTES = Long.BYTES + TOTALS_BYTES;
+    private static final int HOURS_PER_DAY = 24;
+    private static final String STATS_SUFFIX = ".stats";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Map<Long, Totals> days;
+    private final Totals[] hours;
+
+    private Totals overall;
+
+    /**
+     * Creates empty aggregates.
+     */
+    public ScoreAggregates()
+    {
+        overall = new Totals();
+        days    = new HashMap<>();
+        hours   = new Totals[HOURS_PER_DAY];
+
+        for (int hour = 0; hour < HOURS_PER_DAY; hour++)
+        {
+            hours[hour] = new Totals();
+        }
+    }
+
+    /**
+     * Opens the aggregates of a score file. The saved totals are read if
+     * there are any, and the entries appended to the score file after
+     * they were saved are added. If the saved totals are missing or
+     * damaged, the whole score file is read. The file is read through
+     * ScoreCodec, so a malformed entry, such as one torn by a crash, is
+     * skipped.
+     *
+     * @param scoreFile the score file in the Score.toString() format
+     *
+     * @return the aggregates of every entry in the score file
+     *
+     * @throws IOException if the score file cannot be read
+     */
+    public static ScoreAggregates open(final Path scoreFile)
+        throws IOException
+    {
+        ScoreAggregates aggregates;
+        long covered;
+
+        aggregates = new ScoreAggregates();
+        covered    = 0;
+
+        final Path statsFile;
+        statsFile = statsFile(scoreFile);
+
+        if (Files.exists(statsFile) && Files.exists(scoreFile))
+        {
+            try
+            {
+                final long savedCovered;
+                savedCovered = aggregates.read(ByteBuffer.wrap(Files.readAllBytes(statsFile)));
+
+                if (savedCovered <= Files.size(scoreFile))
+                {
+                    covered = savedCovered;
+                }
+                else
+                {
+                    // the score file was replaced by a shorter one
+                    aggregates = new ScoreAggregates();
+                }
+            }
+            catch (final IOException | RuntimeException ex)
+            {
+                aggregates = new ScoreAggregates();
+            }
+        }
+
+        if (Files.exists(scoreFile))
+        {
+            try (Stream<Score> appended = ScoreCodec.stream(scoreFile, covered))
+            {
+                final Iterator<Score> scores;
+                scores = appended.iterator();
+
+                while (scores.hasNext())
+                {
+                    aggregates.add(scores.next());
+                }
+            }
+        }
+
+        return aggregates;
+    }
+
+    /**
+     * Returns the path of the saved totals that belong to a score file.
+     *
+     * @param scoreFile the score file
+     *
+     * @return the path of its saved totals
+     */
+    static Path statsFile(final Path scoreFile)
+    {
+        return scoreFile.resolveSibling(scoreFile.getFileName() + STATS_SUFFIX);
+    }
+
+    /**
+     * Adds a score to the overall, daily and hourly totals.
+     *
+     * @param score the score to add
+     */
+    public synchronized void add(final Score score)
+    {
+        final LocalDateTime played;
+        played = score.getDateTimePlayed();
+
+        overall.add(score);
+        hours[played.getHour()].add(score);
+        days.computeIfAbsent(played.toLocalDate().toEpochDay(), day -> new Totals()).add(score);
+    }
+
+    /**
+     * Returns the totals over every score.
+     *
+     * @return a copy of the overall totals
+     */
+    public synchronized Totals overall()
+    {
+        return new Totals(overall);
+    }
+
+    /**
+     * Returns the totals of the scores played on a day.
+     *
+     * @param date the day to look up
+     *
+     * @return a copy of that day's totals; empty if nobody played
+     */
+    public synchronized Totals forDay(final LocalDate date)
+    {
+        final Totals day;
+        day = days.get(date.toEpochDay());
+
+        if (day == null)
+        {
+            return new Totals();
+        }
+        return new Totals(day);
+    }
+
+    /**
+     * Returns the totals of the scores played in an hour of the day, over
+     * every day.
+     *
+     * @param hour the hour, from 0 to 23
+     *
+     * @return a copy of that hour's totals
+     */
+    public synchronized Totals forHour(final int hour)
+    {
+        if (hour < 0 || hour >= HOURS_PER_DAY)
+        {
+            throw new IllegalArgumentException("Not an hour of the day: " + hour);
+        }
+        return new Totals(hours[hour]);
+    }
+
+    /**
+     * Returns the mean number of games played on the days that have
+     * scores.
+     *
+     * @return the average games per day, or 0 if there are no scores
+     */
+    public synchronized double gamesPerDay()
+    {
+        if (days.isEmpty())
+        {
+            return 0.0;
+        }
+        return (double) overall.gamesPlayed / days.size();
+    }
+
+    /**
+     * Saves the totals next to the score file. Every entry in the score
+     * file must already be added; the saved totals record the current
+     * size of the score file, and open() only reads past it. The totals
+     * are written next to their final location and then moved into place.
+     *
+     * @param scoreFile the score file the totals belong to
+     *
+     * @throws IOException if the totals cannot be written
+     */
+    public synchronized void checkpoint(final Path scoreFile)
+        throws IOException
+    {
+        final long covered;
+
+        if (Files.exists(scoreFile))
+        {
+            covered = Files.size(scoreFile);
+        }
+        else
+        {
+            covered = 0;
+        }
+
+        final ByteBuffer saved;
+        saved = ByteBuffer.allocate(HEADER_BYTES
+                                    + (1 + HOURS_PER_DAY) * TOTALS_BYTES
+                                    + days.size() * DAY_BYTES);
+
+        saved.position(HEADER_BYTES);
+        overall.write(saved);
+
+        for (final Totals hour : hours)
+        {
+            hour.write(saved);
+        }
+
+        for (final Map.Entry<Long, Totals> day : days.entrySet())
+        {
+            saved.putLong(day.getKey());
+            day.getValue().write(saved);
+        }
+
+        saved.flip();
+        saved.position(HEADER_BYTES);
+
+        final long bodyChecksum;
+        bodyChecksum = checksum(saved.duplicate());
+
+        saved.position(0);
+        saved.putInt(MAGIC);
+        saved.putInt(VERSION);
+        saved.putLong(covered);
+        saved.putLong(bodyChecksum);
+        saved.putInt(days.size());
+
+        final Path statsFile;
+        final Path tempFile;
+
+        statsFile = statsFile(scoreFile);
+        tempFile  = statsFile.resolveSibling(statsFile.getFileName() + TEMP_SUFFIX);
+
+        Files.write(tempFile, saved.array());
+        Files.move(tempFile, statsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /*
+     * Loads saved totals into these empty ones and returns how many bytes
+     * of the score file they cover.
+     */
+    private long read(final ByteBuffer saved)
+        throws IOException
+    {
+        if (saved.remaining() < HEADER_BYTES
+            || saved.getInt() != MAGIC
+            || saved.getInt() != VERSION)
+        {
+            throw new IOException("Not a score totals file");
+        }
+
+        final long covered;
+        final long expectedChecksum;
+        final int dayCount;
+
+        covered          = saved.getLong();
+        expectedChecksum = saved.getLong();
+        dayCount         = saved.getInt();
+
+        if (saved.remaining() != (1 + HOURS_PER_DAY) * TOTALS_BYTES + (long) dayCount * DAY_BYTES
+            || checksum(saved.duplicate()) != expectedChecksum)
+        {
+            throw new IOException("Damaged score totals file");
+        }
+
+        overall = Totals.read(saved);
+
+        for (int hour = 0; hour < HOURS_PER_DAY; hour++)
+        {
+            hours[hour] = Totals.read(saved);
+        }
+
+        for (int i = 0; i < dayCount; i++)
+        {
+            final long day;
+            day = saved.getLong();
+
+            days.put(day, Totals.read(saved));
+        }
+
+        return covered;
+    }
+
+    private static long checksum(final ByteBuffer buffer)
+    {
+        final CRC32 crc;
+        crc = new CRC32();
+        crc.update(buffer);
+
+        return crc.getValue();
+    }
+
+}
@@ -0,0 +1,885 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Writes and reads Score entries in the Score.toString() text format
+ * directly as ASCII bytes, for moving millions of scores at a time.
+ *
+ * The labels are kept as byte arrays, numbers are written and read one
+ * digit at a time, and the timestamp is the fixed "yyyy-MM-dd HH:mm:ss"
+ * pattern, so neither direction builds a String, a StringBuilder or a
+ * DateTimeFormatter. The only objects created are the Score and its
+ * LocalDateTime when reading, plus the player id of a score that has
+ * one. The bytes written are exactly those of
+ * Score.toString(), so files stay readable by Score.readScoresFromFile.
+ *
+ * decode() rejects a malformed entry. decodeSkippingDamage() and stream()
+ * skip it instead and carry on at the next "Player:" or "Date and Time:"
+ * label, even one in the middle of a line, so one entry torn by a crash
+ * and then followed by the next append does not make the rest of the file
+ * unreadable.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class ScoreCodec
+{
+
+    /**
+     * The most bytes one encoded entry can take.
+     */
+    public static final int MAX_ENTRY_BYTES = 256;
+
+    private static final byte[] PLAYER_LABEL = ascii("Player: ");
+    private static final byte[] DATE_LABEL = ascii("Date and Time: ");
+    private static final byte[] GAMES_LABEL = ascii("Games Played: ");
+    private static final byte[] FIRST_LABEL = ascii("Correct First Attempts: ");
+    private static final byte[] SECOND_LABEL = ascii("Correct Second Attempts: ");
+    private static final byte[] INCORRECT_LABEL = ascii("Incorrect Attempts: ");
+    private static final byte[] SCORE_LABEL = ascii("Score: ");
+    private static final byte[] POINTS_SUFFIX = ascii(" points");
+    private static final byte NEWLINE = '\n';
+    private static final byte RETURN = '\r';
+    private static final byte MINUS = '-';
+    private static final byte ZERO = '0';
+    private static final byte DATE_SEPARATOR = '-';
+    private static final byte DATE_TIME_SEPARATOR = ' ';
+    private static final byte TIME_SEPARATOR = ':';
+    private static final int MAX_YEAR = 9999;
+    private static final int RADIX = 10;
+    private static final int MAX_DIGITS = 10;
+    private static final int BLOCK_BYTES = 1 << 16;
+    private static final int INCOMPLETE = -1;
+    private static final int TIMESTAMP_BYTES = "yyyy-MM-dd HH:mm:ss".length();
+    private static final int YEAR_DIGITS = 4;
+    private static final int MONTH_OFFSET = 5;
+    private static final int DAY_OFFSET = 8;
+    private static final int HOUR_OFFSET = 11;
+    private static final int MINUTE_OFFSET = 14;
+    private static final int SECOND_OFFSET = 17;
+
+    private ScoreCodec()
+    {
+    }
+
+    /**
+     * Writes a score in the Score.toString() format at the buffer's
+     * position.
+     *
+     * @param score  the score to write
+     * @param buffer the buffer to write to; needs MAX_ENTRY_BYTES free
+     *
+     * @throws IllegalArgumentException if the year has more than four digits
+     */
+    public static void encode(final Score score,
+                              final ByteBuffer buffer)
+    {
+        final LocalDateTime played;
+        played = score.getDateTimePlayed();
+
+        if (played.getYear() < 0 || played.getYear() > MAX_YEAR)
+        {
+            throw new IllegalArgumentException("Year out of range: " + played.getYear());
+        }
+
+        if (score.getPlayerId() != null)
+        {
+            buffer.put(PLAYER_LABEL);
+
+            for (int i = 0; i < score.getPlayerId().length(); i++)
+            {
+                buffer.put((byte) score.getPlayerId().charAt(i));
+            }
+            buffer.put(NEWLINE);
+        }
+
+        buffer.put(DATE_LABEL);
+        putDigits(buffer, played.getYear(), YEAR_DIGITS);
+        buffer.put(DATE_SEPARATOR);
+        putDigits(buffer, played.getMonthValue(), 2);
+        buffer.put(DATE_SEPARATOR);
+        putDigits(buffer, played.getDayOfMonth(), 2);
+        buffer.put(DATE_TIME_SEPARATOR);
+        putDigits(buffer, played.getHour(), 2);
+        buffer.put(TIME_SEPARATOR);
+        putDigits(buffer, played.getMinute(), 2);
+        buffer.put(TIME_SEPARATOR);
+        putDigits(buffer, played.getSecond(), 2);
+        buffer.put(NEWLINE);
+
+        putLine(buffer, GAMES_LABEL, score.getGamesPlayed());
+        putLine(buffer, FIRST_LABEL, score.getCorrectFirst());
+        putLine(buffer, SECOND_LABEL, score.getCorrectSecond());
+        putLine(buffer, INCORRECT_LABEL, score.getIncorrect());
+
+        buffer.put(SCORE_LABEL);
+        putInt(buffer, score.getScore());
+        buffer.put(POINTS_SUFFIX);
+        buffer.put(NEWLINE);
+    }
+
+    /**
+     * Reads the next score entry from the buffer. Lines before the entry
+     * that are not its "Date and Time:" line are skipped, as
+     * Score.readScoresFromFile does, except that a "Player:" line right
+     * before it gives the entry's player id. The stored total is not read back;
+     * it is worked out from the counts.
+     *
+     * @param buffer the buffer to read from, positioned at the start of a line
+     *
+     * @return the score, or null if the buffer does not hold a whole
+     *         entry; the position is then left where the entry starts, or
+     *         at the start of the last partial line, so more bytes can be
+     *         added and the call repeated
+     *
+     * @throws IllegalArgumentException if an entry is malformed
+     */
+    public static Score decode(final ByteBuffer buffer)
+    {
+        return decode(buffer, false);
+    }
+
+    /**
+     * Reads the next whole score entry from the buffer like decode(), but
+     * skips a malformed entry instead of throwing. Reading starts again at
+     * the first "Player:" or "Date and Time:" label after the bad entry's
+     * date line, wherever it is on its line.
+     *
+     * @param buffer the buffer to read from, positioned at the start of a line
+     *
+     * @return the score, or null if the buffer does not hold a whole
+     *         entry, left positioned as decode() leaves it; after a bad
+     *         entry whose next label is not in the buffer yet, the position
+     *         is the bad entry's date line
+     */
+    public static Score decodeSkippingDamage(final ByteBuffer buffer)
+    {
+        return decode(buffer, true);
+    }
+
+    /**
+     * Streams the score entries in a text file from a byte offset, reading
+     * the file in blocks through ScoreCodec. Malformed entries are skipped
+     * as decodeSkippingDamage() skips them, and an entry cut short at the
+     * end of the file is left out. The stream holds the file open and must
+     * be closed.
+     *
+     * @param textFile the file in the Score.toString() format
+     * @param offset   where to start reading, at the start of a line
+     *
+     * @return a lazily read stream of the scores after the offset
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    static Stream<Score> stream(final Path textFile,
+                                final long offset)
+        throws IOException
+    {
+        final FileChannel in;
+        in = FileChannel.open(textFile, StandardOpenOption.READ);
+
+        try
+        {
+            in.position(offset);
+        }
+        catch (final IOException ex)
+        {
+            in.close();
+            throw ex;
+        }
+
+        final Iterator<Score> iterator;
+        iterator = new Iterator<>()
+        {
+            private ByteBuffer block = ByteBuffer.allocate(BLOCK_BYTES).limit(0);
+            private boolean atEnd;
+            private Score next;
+
+            @Override
+            public boolean hasNext()
+            {
+                while (next == null)
+                {
+                    next = decodeSkippingDamage(block);
+
+                    if (next == null)
+                    {
+                        if (atEnd)
+                        {
+                            return false;
+                        }
+                        fill();
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public Score next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+
+                final Score current;
+                current = next;
+                next    = null;
+
+                return current;
+            }
+
+            private void fill()
+            {
+                if (block.position() == 0 && block.limit() == block.capacity())
+                {
+                    // one line longer than the whole buffer
+                    final ByteBuffer larger;
+                    larger = ByteBuffer.allocate(block.capacity() * 2);
+                    larger.put(block);
+                    block = larger;
+                }
+                else
+                {
+                    block.compact();
+                }
+
+                try
+                {
+                    atEnd = in.read(block) < 0;
+                }
+                catch (final IOException ex)
+                {
+                    throw new UncheckedIOException(ex);
+                }
+
+                block.flip();
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                                                                        Spliterator.ORDERED
+                                                                        | Spliterator.NONNULL),
+                                    false)
+                            .onClose(() ->
+                            {
+                                try
+                                {
+                                    in.close();
+                                }
+                                catch (final IOException ex)
+                                {
+                                    throw new UncheckedIOException(ex);
+                                }
+                            });
+    }
+
+    /*
+     * Reads the next entry; a malformed one is skipped if skipDamage is
+     * set and rejected otherwise.
+     */
+    private static Score decode(final ByteBuffer buffer,
+                                final boolean skipDamage)
+    {
+        int playerLine;
+        playerLine = INCOMPLETE;
+
+        while (buffer.hasRemaining())
+        {
+            final int lineStart;
+            lineStart = buffer.position();
+
+            if (startsWith(buffer, lineStart, DATE_LABEL))
+            {
+                final Score score;
+
+                try
+                {
+                    score = decodeEntry(buffer, playerLine);
+                }
+                catch (final IllegalArgumentException | DateTimeException | ArithmeticException ex)
+                {
+                    if (!skipDamage)
+                    {
+                        throw ex;
+                    }
+
+                    final int resume;
+                    resume = nextLabel(buffer, lineStart + DATE_LABEL.length);
+
+                    if (resume == INCOMPLETE)
+                    {
+                        // the next entry may be in bytes not read yet
+                        buffer.position(lineStart);
+                        return null;
+                    }
+
+                    playerLine = INCOMPLETE;
+                    buffer.position(resume);
+                    continue;
+                }
+
+                if (score == null)
+                {
+                    buffer.position(playerLine == INCOMPLETE ? lineStart : playerLine);
+                }
+                return score;
+            }
+
+            final int next;
+            next = nextLine(buffer, lineStart);
+
+            if (next == INCOMPLETE)
+            {
+                // a partial line may still turn out to be the start of an entry
+                buffer.position(playerLine == INCOMPLETE ? lineStart : playerLine);
+                return null;
+            }
+
+            if (startsWith(buffer, lineStart, PLAYER_LABEL))
+            {
+                playerLine = lineStart;
+            }
+            else
+            {
+                playerLine = INCOMPLETE;
+            }
+
+            buffer.position(next);
+        }
+
+        if (playerLine != INCOMPLETE)
+        {
+            buffer.position(playerLine);
+        }
+        return null;
+    }
+
+    /**
+     * Writes every score in the repository to a text file in the
+     * Score.toString() format, through one reusable buffer.
+     *
+     * @param source   the scores to export
+     * @param textFile the file to write; replaced if it exists
+     *
+     * @return how many scores were written
+     *
+     * @throws IOException if the scores cannot be read or the file written
+     */
+    public static long export(final ScoreRepository source,
+                              final Path textFile)
+        throws IOException
+    {
+        long written;
+        written = 0;
+
+        try (FileChannel out = FileChannel.open(textFile,
+                                                StandardOpenOption.CREATE,
+                                                StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING);
+             Stream<Score> scores = source.stream())
+        {
+            final ByteBuffer block;
+            block = ByteBuffer.allocate(BLOCK_BYTES);
+
+            final Iterator<Score> iterator;
+            iterator = scores.iterator();
+
+            while (iterator.hasNext())
+            {
+                if (block.remaining() < MAX_ENTRY_BYTES)
+                {
+                    drain(out, block);
+                }
+
+                encode(iterator.next(), block);
+                written++;
+            }
+
+            drain(out, block);
+        }
+
+        return written;
+    }
+
+    /**
+     * Reads every score entry in a text file and appends it to the
+     * repository. The file is read in blocks into one reusable buffer, and
+     * the entries of each block are appended together. Malformed entries
+     * are skipped as decodeSkippingDamage() skips them, and an entry cut
+     * short at the end of the file is dropped.
+     *
+     * @param textFile the file in the Score.toString() format
+     * @param target   the repository to append to
+     *
+     * @return how many scores were read
+     *
+     * @throws IOException if the file cannot be read or the repository written
+     */
+    public static long importText(final Path textFile,
+                                  final ScoreRepository target)
+        throws IOException
+    {
+        long read;
+        read = 0;
+
+        try (FileChannel in = FileChannel.open(textFile, StandardOpenOption.READ))
+        {
+            ByteBuffer block;
+            block = ByteBuffer.allocate(BLOCK_BYTES);
+
+            boolean atEnd;
+            atEnd = false;
+
+            while (!atEnd)
+            {
+                atEnd = in.read(block) < 0;
+                block.flip();
+
+                final List<Score> decoded;
+                decoded = new ArrayList<>();
+
+                Score score;
+
+                while ((score = decodeSkippingDamage(block)) != null)
+                {
+                    decoded.add(score);
+                }
+
+                if (!decoded.isEmpty())
+                {
+                    target.appendAll(decoded);
+                    read += decoded.size();
+                }
+
+                if (!block.hasRemaining() || atEnd)
+                {
+                    block.clear();
+                }
+                else if (block.position() == 0 && block.limit() == block.capacity())
+                {
+                    // one line longer than the whole buffer
+                    final ByteBuffer larger;
+                    larger = ByteBuffer.allocate(block.capacity() * 2);
+                    larger.put(block);
+                    block = larger;
+                }
+                else
+                {
+                    block.compact();
+                }
+            }
+        }
+
+        return read;
+    }
+
+    /*
+     * Reads an entry whose date line starts at the buffer's position, or
+     * returns null if the buffer ends first. playerLine is where the
+     * entry's "Player:" line starts, or INCOMPLETE if it has none.
+     */
+    private static Score decodeEntry(final ByteBuffer buffer,
+                                     final int playerLine)
+    {
+        if (buffer.remaining() < DATE_LABEL.length + TIMESTAMP_BYTES)
+        {
+            return null;
+        }
+
+        final int at;
+        at = buffer.position() + DATE_LABEL.length;
+
+        final int year;
+        final int month;
+        final int day;
+        final int hour;
+        final int minute;
+        final int second;
+
+        year   = digits(buffer, at, YEAR_DIGITS);
+        month  = digits(buffer, at + MONTH_OFFSET, 2);
+        day    = digits(buffer, at + DAY_OFFSET, 2);
+        hour   = digits(buffer, at + HOUR_OFFSET, 2);
+        minute = digits(buffer, at + MINUTE_OFFSET, 2);
+        second = digits(buffer, at + SECOND_OFFSET, 2);
+
+        buffer.position(at + TIMESTAMP_BYTES);
+
+        if (!skipLineEnd(buffer))
+        {
+            return null;
+        }
+
+        final int games;
+        final int first;
+        final int secondAttempt;
+        final int incorrect;
+
+        games = readCount(buffer, GAMES_LABEL);
+
+        if (games == INCOMPLETE)
+        {
+            return null;
+        }
+
+        first = readCount(buffer, FIRST_LABEL);
+
+        if (first == INCOMPLETE)
+        {
+            return null;
+        }
+
+        secondAttempt = readCount(buffer, SECOND_LABEL);
+
+        if (secondAttempt == INCOMPLETE)
+        {
+            return null;
+        }
+
+        incorrect = readCount(buffer, INCORRECT_LABEL);
+
+        if (incorrect == INCOMPLETE)
+        {
+            return null;
+        }
+
+        // the total is worked out again, so the line only has to be complete
+        if (buffer.remaining() < SCORE_LABEL.length)
+        {
+            return null;
+        }
+
+        if (!startsWith(buffer, buffer.position(), SCORE_LABEL))
+        {
+            throw new IllegalArgumentException("Expected the score line at byte " + buffer.position());
+        }
+
+        final int next;
+        next = nextLine(buffer, buffer.position());
+
+        if (next == INCOMPLETE)
+        {
+            return null;
+        }
+
+        buffer.position(next);
+
+        return new Score(LocalDateTime.of(year, month, day, hour, minute, second),
+                         playerId(buffer, playerLine),
+                         games,
+                         first,
+                         secondAttempt,
+                         incorrect);
+    }
+
+    /*
+     * Returns the id on the "Player:" line starting at playerLine, or null
+     * if there is none.
+     */
+    private static String playerId(final ByteBuffer buffer,
+                                   final int playerLine)
+    {
+        if (playerLine == INCOMPLETE)
+        {
+            return null;
+        }
+
+        final int start;
+        int end;
+
+        start = playerLine + PLAYER_LABEL.length;
+        end   = start;
+
+        while (end < buffer.limit() && Score.isPlayerIdChar(buffer.get(end)))
+        {
+            end++;
+        }
+
+        final byte[] id;
+        id = new byte[end - start];
+        buffer.get(start, id);
+
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+
+    /*
+     * Reads "label N" and its line end, leaving the position after it.
+     * Returns INCOMPLETE if the buffer ends first.
+     */
+    private static int readCount(final ByteBuffer buffer,
+                                 final byte[] label)
+    {
+        if (buffer.remaining() < label.length)
+        {
+            return INCOMPLETE;
+        }
+
+        if (!startsWith(buffer, buffer.position(), label))
+        {
+            throw new IllegalArgumentException("Unexpected line at byte " + buffer.position());
+        }
+
+        buffer.position(buffer.position() + label.length);
+
+        int value;
+        int length;
+
+        value  = 0;
+        length = 0;
+
+        while (buffer.hasRemaining() && isDigit(buffer.get(buffer.position())))
+        {
+            if (length == MAX_DIGITS)
+            {
+                throw new IllegalArgumentException("Number too long at byte " + buffer.position());
+            }
+
+            value = Math.addExact(Math.multiplyExact(value, RADIX), buffer.get() - ZERO);
+            length++;
+        }
+
+        if (!buffer.hasRemaining())
+        {
+            return INCOMPLETE;
+        }
+
+        if (length == 0)
+        {
+            throw new IllegalArgumentException("Expected a number at byte " + buffer.position());
+        }
+
+        if (!skipLineEnd(buffer))
+        {
+            return INCOMPLETE;
+        }
+
+        return value;
+    }
+
+    /*
+     * Moves past the newline, and an optional carriage return before it,
+     * that must come next. Returns false if the buffer ends first.
+     */
+    private static boolean skipLineEnd(final ByteBuffer buffer)
+    {
+        int position;
+        position = buffer.position();
+
+        if (position < buffer.limit() && buffer.get(position) == RETURN)
+        {
+            position++;
+        }
+
+        if (position >= buffer.limit())
+        {
+            return false;
+        }
+
+        if (buffer.get(position) != NEWLINE)
+        {
+            throw new IllegalArgumentException("Unexpected text at byte " + position);
+        }
+
+        buffer.position(position + 1);
+        return true;
+    }
+
+    /*
+     * Returns the position after the next newline, or INCOMPLETE.
+     */
+    private static int nextLine(final ByteBuffer buffer,
+                                final int from)
+    {
+        for (int i = from; i < buffer.limit(); i++)
+        {
+            if (buffer.get(i) == NEWLINE)
+            {
+                return i + 1;
+            }
+        }
+        return INCOMPLETE;
+    }
+
+    /*
+     * Returns where the first whole "Player:" or "Date and Time:" label at
+     * or after from starts, or INCOMPLETE if there is none in the buffer.
+     */
+    private static int nextLabel(final ByteBuffer buffer,
+                                 final int from)
+    {
+        for (int i = from; i + PLAYER_LABEL.length <= buffer.limit(); i++)
+        {
+            if (startsWith(buffer, i, PLAYER_LABEL)
+                || i + DATE_LABEL.length <= buffer.limit() && startsWith(buffer, i, DATE_LABEL))
+            {
+                return i;
+            }
+        }
+        return INCOMPLETE;
+    }
+
+    private static boolean startsWith(final ByteBuffer buffer,
+                                      final int at,
+                                      final byte[] prefix)
+    {
+        if (buffer.limit() - at < prefix.length)
+        {
+            // a prefix of the label may still complete into it
+            for (int i = 0; at + i < buffer.limit(); i++)
+            {
+                if (buffer.get(at + i) != prefix[i])
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        for (int i = 0; i < prefix.length; i++)
+        {
+            if (buffer.get(at + i) != prefix[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int digits(final ByteBuffer buffer,
+                              final int at,
+                              final int count)
+    {
+        int value;
+        value = 0;
+
+        for (int i = 0; i < count; i++)
+        {
+            final byte b;
+            b = buffer.get(at + i);
+
+            if (!isDigit(b))
+            {
+                throw new IllegalArgumentException("Expected a digit at byte " + (at + i));
+            }
+            value = value * RADIX + (b - ZERO);
+        }
+
+        return value;
+    }
+
+    private static boolean isDigit(final byte b)
+    {
+        return b >= ZERO && b < ZERO + RADIX;
+    }
+
+    private static void putLine(final ByteBuffer buffer,
+                                final byte[] label,
+                                final int value)
+    {
+        buffer.put(label);
+        putInt(buffer, value);
+        buffer.put(NEWLINE);
+    }
+
+    /*
+     * Writes the value in decimal with exactly count digits, zero padded.
+     */
+    private static void putDigits(final ByteBuffer buffer,
+                                  final int value,
+                                  final int count)
+    {
+        final int start;
+        start = buffer.position();
+
+        int remaining;
+        remaining = value;
+
+        for (int i = count - 1; i >= 0; i--)
+        {
+            buffer.put(start + i, (byte) (ZERO + remaining % RADIX));
+            remaining /= RADIX;
+        }
+
+        buffer.position(start + count);
+    }
+
+    /*
+     * Writes the value in decimal, as Integer.toString would.
+     */
+    private static void putInt(final ByteBuffer buffer,
+                               final int value)
+    {
+        if (value < 0)
+        {
+            buffer.put(MINUS);
+
+            if (value == Integer.MIN_VALUE)
+            {
+                // its magnitude does not fit in an int
+                putDigits(buffer, -(value / RADIX), digitCount(-(value / RADIX)));
+                buffer.put((byte) (ZERO - (value % RADIX)));
+                return;
+            }
+
+            putInt(buffer, -value);
+            return;
+        }
+
+        putDigits(buffer, value, digitCount(value));
+    }
+
+    private static int digitCount(final int value)
+    {
+        int count;
+        int limit;
+
+        count = 1;
+        limit = RADIX;
+
+        while (count < MAX_DIGITS && value >= limit)
+        {
+            count++;
+            limit *= RADIX;
+        }
+
+        return count;
+    }
+
+    private static void drain(final FileChannel out,
+                              final ByteBuffer block)
+        throws IOException
+    {
+        block.flip();
+
+        while (block.hasRemaining())
+        {
+            out.write(block);
+        }
+
+        block.clear();
+    }
+
+    private static byte[] ascii(final String text)
+    {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+}
@@ -0,0 +1,364 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appends scores from many sessions to one score file through a single
+ * writer thread.
+ *
+ * Sessions call record(), which only adds the score to a lock-free queue
+ * and never touches the file. The writer thread commits queued scores in
+ * groups: as soon as batchSize scores are waiting, or maxDelay has passed
+ * since the first one arrived, everything in the queue is written with a
+ * single call. With SyncPolicy.ON_COMMIT every group is also forced to
+ * disk. Entries use the Score.toString() format, so the file can still be
+ * read with Score.readScoresFromFile, and entries never interleave.
+ *
+ * A journal given ScoreAggregates adds each score to them once its group
+ * has been written, so the totals only ever cover scores that are in the
+ * file. The totals are saved next to the file every 64 commits and by
+ * close(), so a server that is killed only has to re-read the scores
+ * written since the last save.
+ *
+ * close() stops the writer after it has written every queued score, then
+ * commits whatever was queued while the writer was stopping. record()
+ * takes no lock: it checks the closed flag, queues the score, and checks
+ * the flag again. A score queued after the journal was closed is taken
+ * back out of the queue and rejected, unless the final commit already
+ * took it, in which case it was written. Either way every score that
+ * record() accepted is written and none is dropped.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class ScoreJournal
+    implements Closeable
+{
+
+    /**
+     * Controls whether committed groups are forced to the storage device.
+     */
+    public enum SyncPolicy
+    {
+        /** Leave flushing to the operating system. */
+        NONE,
+
+        /** Force every committed group to disk before taking the next one. */
+        ON_COMMIT
+    }
+
+    private static final int CHECKPOINT_EVERY = 64;
+
+    private final Path scoreFile;
+    private final FileChannel channel;
+    private final Queue<Score> queue;
+    private final AtomicInteger pending;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final SyncPolicy syncPolicy;
+    private final Thread writer;
+    private final StringBuilder text;
+    private final ScoreAggregates aggregates;
+    private final List<Score> committed;
+
+    private int commitsSinceCheckpoint;
+
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    /**
+     * Opens the score file for appending and starts the writer thread.
+     *
+     * @param scoreFile  the file to append to; created if missing
+     * @param batchSize  how many queued scores trigger an immediate commit
+     * @param maxDelay   the longest a queued score waits before it is committed
+     * @param unit       the unit of maxDelay
+     * @param syncPolicy whether commits are forced to disk
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    public ScoreJournal(final Path scoreFile,
+                        final int batchSize,
+                        final long maxDelay,
+                        final TimeUnit unit,
+                        final SyncPolicy syncPolicy)
+        throws IOException
+    {
+        this(scoreFile, batchSize, maxDelay, unit, syncPolicy, null);
+    }
+
+    /**
+     * Opens the score file for appending and starts the writer thread.
+     * Every written score is also added to the aggregates.
+     *
+     * @param scoreFile  the file to append to; created if missing
+     * @param batchSize  how many queued scores trigger an immediate commit
+     * @param maxDelay   the longest a queued score waits before it is committed
+     * @param unit       the unit of maxDelay
+     * @param syncPolicy whether commits are forced to disk
+     * @param aggregates the totals of the file so far, or null
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    public ScoreJournal(final Path scoreFile,
+                        final int batchSize,
+                        final long maxDelay,
+                        final TimeUnit unit,
+                        final SyncPolicy syncPolicy,
+                        final ScoreAggregates aggregates)
+        throws IOException
+    {
+        if (batchSize <= 0)
+        {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+
+        channel = FileChannel.open(scoreFile,
+                                   StandardOpenOption.CREATE,
+                                   StandardOpenOption.WRITE,
+                                   StandardOpenOption.APPEND);
+
+        queue              = new ConcurrentLinkedQueue<>();
+        pending            = new AtomicInteger();
+        this.batchSize     = batchSize;
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        this.syncPolicy    = syncPolicy;
+        text               = new StringBuilder();
+        this.scoreFile     = scoreFile;
+        this.aggregates    = aggregates;
+        committed          = new ArrayList<>();
+
+        writer = new Thread(this::writeLoop, "score-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a score to be appended. Never blocks on the file.
+     *
+     * @param score the score to record
+     *
+     * @throws IllegalStateException if the journal has been closed
+     */
+    public void record(final Score score)
+    {
+        if (closed)
+        {
+            throw new IllegalStateException("The score journal is closed");
+        }
+
+        queue.offer(score);
+
+        final int waiting;
+        waiting = pending.incrementAndGet();
+
+        // close() ran while this score was queued; the final commit may have missed it
+        if (closed && queue.remove(score))
+        {
+            pending.decrementAndGet();
+            throw new IllegalStateException("The score journal is closed");
+        }
+
+        // wake the writer for the first score of a group, and when the group is full
+        if (waiting == 1 || waiting >= batchSize)
+        {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Writes every queued score, stops the writer and closes the file.
+     * The aggregates, if any, are then saved next to the file. Waits for
+     * the writer to stop even if this thread is interrupted, and keeps
+     * the interrupt for the caller.
+     *
+     * @throws IOException if a commit failed, the file cannot be closed,
+     *                     or the aggregates cannot be saved
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        synchronized (this)
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+        }
+
+        LockSupport.unpark(writer);
+
+        // the final commit below must not run while the writer still commits
+        boolean interrupted;
+        interrupted = false;
+
+        while (writer.isAlive())
+        {
+            try
+            {
+                writer.join();
+            }
+            catch (final InterruptedException ex)
+            {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        try
+        {
+            if (failure == null)
+            {
+                // anything queued while the writer was exiting
+                commit();
+            }
+        }
+        catch (final IOException ex)
+        {
+            failure = ex;
+        }
+        finally
+        {
+            channel.close();
+        }
+
+        if (failure != null)
+        {
+            throw failure;
+        }
+
+        if (aggregates != null)
+        {
+            aggregates.checkpoint(scoreFile);
+        }
+    }
+
+    private void writeLoop()
+    {
+        try
+        {
+            while (true)
+            {
+                if (pending.get() == 0)
+                {
+                    if (closed)
+                    {
+                        return;
+                    }
+                    LockSupport.park(this);
+                    continue;
+                }
+
+                final long deadline;
+                deadline = System.nanoTime() + maxDelayNanos;
+
+                long remaining;
+                remaining = maxDelayNanos;
+
+                while (pending.get() < batchSize && !closed && remaining > 0)
+                {
+                    LockSupport.parkNanos(this, remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+
+                commit();
+            }
+        }
+        catch (final IOException ex)
+        {
+            failure = ex;
+        }
+    }
+
+    /*
+     * Drains the queue and writes everything in it with one write.
+     * Only the writer thread calls this, or close() after the writer ended.
+     */
+    private void commit()
+        throws IOException
+    {
+        text.setLength(0);
+        committed.clear();
+
+        Score score;
+
+        while ((score = queue.poll()) != null)
+        {
+            text.append(score);
+            committed.add(score);
+        }
+
+        if (committed.isEmpty())
+        {
+            return;
+        }
+
+        pending.addAndGet(-committed.size());
+
+        final ByteBuffer buffer;
+        buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+
+        if (syncPolicy == SyncPolicy.ON_COMMIT)
+        {
+            channel.force(false);
+        }
+
+        if (aggregates != null)
+        {
+            for (final Score written : committed)
+            {
+                aggregates.add(written);
+            }
+
+            commitsSinceCheckpoint++;
+
+            if (commitsSinceCheckpoint >= CHECKPOINT_EVERY)
+            {
+                checkpointAggregates();
+            }
+        }
+    }
+
+    /*
+     * Saves the aggregates. They cover exactly the bytes written so far,
+     * because only this journal appends to the file.
+     */
+    private void checkpointAggregates()
+    {
+        commitsSinceCheckpoint = 0;
+
+        try
+        {
+            aggregates.checkpoint(scoreFile);
+        }
+        catch (final IOException ex)
+        {
+            // The saved totals are only a cache; open() re-reads what they miss.
+        }
+    }
+
+}
@@ -0,0 +1,635 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * An append-only binary log of Score records with a small index, so the
+ * common queries do not have to read the whole history.
+ *
+ * The log file starts with a fixed header holding the record count and
+ * the highest score seen so far, followed by one fixed-width record per
+ * Score:
+ *   epoch second (long), games played, correct first,
+ *   correct second, incorrect (ints), player id length (byte, 0 for
+ *   none), player id (ASCII, padded to Score.MAX_PLAYER_ID_LENGTH)
+ *
+ * A sidecar file named "&lt;log&gt;.days" stores, for every day that has
+ * scores, the index of its first record. Scores are expected to be
+ * appended in time order; a score older than the latest day is stored in
+ * the latest day's run.
+ *
+ * The count and high score are answered from the header in O(1), a
+ * record or the latest N records are read by seeking directly to them,
+ * and a day's records, or a time range's, are found by binary search
+ * over the day index.
+ * It is the BINARY backend of ScoreRepository.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class ScoreLog
+    implements ScoreRepository
+{
+
+    static final int RECORD_BYTES = Long.BYTES + 4 * Integer.BYTES + Byte.BYTES + Score.MAX_PLAYER_ID_LENGTH;
+
+    private static final int MAGIC = 0x57475343; // "WGSC"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = Integer.BYTES    // magic
+                                            + Integer.BYTES  // version
+                                            + Integer.BYTES  // record count
+                                            + Integer.BYTES; // high score
+    private static final int DAY_ENTRY_BYTES = 2 * Long.BYTES;
+    private static final int INITIAL_DAY_CAPACITY = 64;
+    private static final String DAY_INDEX_SUFFIX = ".days";
+    private static final int STREAM_CHUNK = 4096;
+
+    private final Path logFile;
+    private final FileChannel log;
+    private final FileChannel dayIndex;
+    private final ByteBuffer record;
+    private final ByteBuffer header;
+
+    private int count;
+    private int highScore;
+    private long[] days;
+    private long[] dayFirstRecord;
+    private int dayCount;
+
+    private ScoreLog(final Path logFile,
+                     final FileChannel log,
+                     final FileChannel dayIndex)
+    {
+        this.logFile  = logFile;
+        this.log      = log;
+        this.dayIndex = dayIndex;
+        record        = ByteBuffer.allocate(RECORD_BYTES);
+        header        = ByteBuffer.allocate(HEADER_BYTES);
+    }
+
+    /**
+     * Opens a score log, creating it if it does not exist yet.
+     *
+     * @param logFile the log file
+     *
+     * @return the opened log
+     *
+     * @throws IOException if the log cannot be opened or is not a score log
+     */
+    public static ScoreLog open(final Path logFile)
+        throws IOException
+    {
+        final FileChannel log;
+        final FileChannel dayIndex;
+
+        log      = FileChannel.open(logFile,
+                                    StandardOpenOption.CREATE,
+                                    StandardOpenOption.READ,
+                                    StandardOpenOption.WRITE);
+        dayIndex = FileChannel.open(dayIndexFile(logFile),
+                                    StandardOpenOption.CREATE,
+                                    StandardOpenOption.READ,
+                                    StandardOpenOption.WRITE);
+
+        final ScoreLog scoreLog;
+        scoreLog = new ScoreLog(logFile, log, dayIndex);
+
+        try
+        {
+            scoreLog.load();
+        }
+        catch (final IOException | RuntimeException ex)
+        {
+            scoreLog.close();
+            throw ex;
+        }
+
+        return scoreLog;
+    }
+
+    /**
+     * Returns the path of the day index that belongs to a log file.
+     *
+     * @param logFile the log file
+     *
+     * @return the path of its day index
+     */
+    static Path dayIndexFile(final Path logFile)
+    {
+        return logFile.resolveSibling(logFile.getFileName() + DAY_INDEX_SUFFIX);
+    }
+
+    /**
+     * Appends a score to the end of the log and updates the header and
+     * day index.
+     *
+     * @param score the score to append
+     *
+     * @throws IOException if the log cannot be written
+     */
+    @Override
+    public synchronized void append(final Score score)
+        throws IOException
+    {
+        record.clear();
+        encode(score, record);
+        record.flip();
+        writeFully(log, record, recordPosition(count));
+
+        final long day;
+        day = score.getDateTimePlayed().toLocalDate().toEpochDay();
+
+        if (dayCount == 0 || day > days[dayCount - 1])
+        {
+            addDay(day, count);
+
+            final ByteBuffer entry;
+            entry = ByteBuffer.allocate(DAY_ENTRY_BYTES);
+            entry.putLong(day);
+            entry.putLong(count);
+            entry.flip();
+            writeFully(dayIndex, entry, (long) (dayCount - 1) * DAY_ENTRY_BYTES);
+        }
+
+        count++;
+        highScore = Math.max(highScore, score.getScore());
+        writeHeader();
+    }
+
+    /**
+     * Returns how many scores are in the log.
+     *
+     * @return the number of records
+     */
+    @Override
+    public synchronized int count()
+    {
+        return count;
+    }
+
+    /**
+     * Returns the highest score in the log, or 0 if it is empty.
+     *
+     * @return the high score
+     */
+    public synchronized int highScore()
+    {
+        return highScore;
+    }
+
+    /**
+     * Reads one score by its position in the log.
+     *
+     * @param index the record index, from 0 to count() - 1
+     *
+     * @return the score at that position
+     *
+     * @throws IOException if the log cannot be read
+     */
+    public synchronized Score get(final int index)
+        throws IOException
+    {
+        if (index < 0 || index >= count)
+        {
+            throw new IndexOutOfBoundsException("No score at index " + index);
+        }
+
+        record.clear();
+        readFully(log, record, recordPosition(index));
+        record.flip();
+
+        return decode(record);
+    }
+
+    /**
+     * Returns the most recent scores, oldest first.
+     *
+     * @param n the maximum number of scores to return
+     *
+     * @return up to n of the latest scores
+     *
+     * @throws IOException if the log cannot be read
+     */
+    public synchronized List<Score> latest(final int n)
+        throws IOException
+    {
+        final int from;
+        from = Math.max(0, count - Math.max(0, n));
+
+        return readRange(from, count);
+    }
+
+    /**
+     * Returns every score recorded on the given day.
+     *
+     * @param date the day to look up
+     *
+     * @return the scores played on that day, in log order
+     *
+     * @throws IOException if the log cannot be read
+     */
+    public synchronized List<Score> forDay(final LocalDate date)
+        throws IOException
+    {
+        final int slot;
+        slot = Arrays.binarySearch(days, 0, dayCount, date.toEpochDay());
+
+        if (slot < 0)
+        {
+            return new ArrayList<>();
+        }
+
+        final int from;
+        final int to;
+
+        from = (int) dayFirstRecord[slot];
+
+        if (slot + 1 < dayCount)
+        {
+            to = (int) dayFirstRecord[slot + 1];
+        }
+        else
+        {
+            to = count;
+        }
+
+        final List<Score> scores;
+        scores = readRange(from, to);
+        scores.removeIf(score -> !score.getDateTimePlayed().toLocalDate().equals(date));
+
+        return scores;
+    }
+
+    /**
+     * Streams every score in the log, oldest first. Records are read in
+     * blocks of a few thousand as the stream is consumed. Scores appended
+     * after the stream was created are not included.
+     *
+     * @return a lazily read stream of the scores
+     */
+    @Override
+    public synchronized Stream<Score> stream()
+    {
+        return streamFrom(0);
+    }
+
+    /**
+     * Streams the scores played in a time range, oldest first. The day
+     * index is binary-searched for the first day of the range, so only
+     * the records from that day on are read, and reading stops at the
+     * first score after the range.
+     *
+     * @param from the earliest time to include
+     * @param to   the time to stop before
+     *
+     * @return a lazily read stream of the scores in the range
+     */
+    @Override
+    public synchronized Stream<Score> between(final LocalDateTime from,
+                                              final LocalDateTime to)
+    {
+        int slot;
+        slot = Arrays.binarySearch(days, 0, dayCount, from.toLocalDate().toEpochDay());
+
+        if (slot < 0)
+        {
+            // the range starts on a day with no scores; begin at the next one
+            slot = -slot - 1;
+        }
+
+        final int start;
+
+        if (slot < dayCount)
+        {
+            start = (int) dayFirstRecord[slot];
+        }
+        else
+        {
+            start = count;
+        }
+
+        return streamFrom(start).filter(score -> !score.getDateTimePlayed().isBefore(from))
+                                .takeWhile(score -> score.getDateTimePlayed().isBefore(to));
+    }
+
+    /**
+     * Writes every score in the log to a text file in the Score.toString()
+     * format, so the result can be read by Score.readScoresFromFile.
+     *
+     * @param textFile the file to write
+     *
+     * @throws IOException if the log cannot be read or the file cannot be written
+     */
+    public synchronized void exportText(final Path textFile)
+        throws IOException
+    {
+        try (BufferedWriter writer = Files.newBufferedWriter(textFile))
+        {
+            for (int i = 0; i < count; i++)
+            {
+                writer.write(get(i).toString());
+            }
+        }
+    }
+
+    /**
+     * Returns the path of the log file.
+     *
+     * @return the log file
+     */
+    public Path getLogFile()
+    {
+        return logFile;
+    }
+
+    /**
+     * Closes the log and its day index.
+     *
+     * @throws IOException if either file cannot be closed
+     */
+    @Override
+    public synchronized void close()
+        throws IOException
+    {
+        try
+        {
+            log.close();
+        }
+        finally
+        {
+            dayIndex.close();
+        }
+    }
+
+    /**
+     * Writes a score into a buffer using the fixed-width record layout.
+     *
+     * @param score  the score to encode
+     * @param buffer the buffer to write to
+     */
+    static void encode(final Score score,
+                       final ByteBuffer buffer)
+    {
+        buffer.putLong(score.getDateTimePlayed().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(score.getGamesPlayed());
+        buffer.putInt(score.getCorrectFirst());
+        buffer.putInt(score.getCorrectSecond());
+        buffer.putInt(score.getIncorrect());
+
+        final String playerId;
+
+        if (score.getPlayerId() == null)
+        {
+            playerId = "";
+        }
+        else
+        {
+            playerId = score.getPlayerId();
+        }
+
+        buffer.put((byte) playerId.length());
+
+        for (int i = 0; i < Score.MAX_PLAYER_ID_LENGTH; i++)
+        {
+            // ids are ASCII; the unused bytes are written as zeros
+            buffer.put(i < playerId.length() ? (byte) playerId.charAt(i) : 0);
+        }
+    }
+
+    /**
+     * Reads a score from a buffer holding one fixed-width record.
+     *
+     * @param buffer the buffer to read from
+     *
+     * @return the decoded score
+     */
+    static Score decode(final ByteBuffer buffer)
+    {
+        final LocalDateTime dateTime;
+        dateTime = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+
+        final int games;
+        final int first;
+        final int second;
+        final int incorrect;
+
+        games     = buffer.getInt();
+        first     = buffer.getInt();
+        second    = buffer.getInt();
+        incorrect = buffer.getInt();
+
+        final int idLength;
+        idLength = buffer.get();
+
+        if (idLength < 0 || idLength > Score.MAX_PLAYER_ID_LENGTH)
+        {
+            throw new IllegalArgumentException("Bad player id length: " + idLength);
+        }
+
+        final String playerId;
+
+        if (idLength == 0)
+        {
+            playerId = null;
+        }
+        else
+        {
+            final byte[] id;
+            id = new byte[idLength];
+            buffer.get(buffer.position(), id);
+            playerId = new String(id, StandardCharsets.US_ASCII);
+        }
+
+        buffer.position(buffer.position() + Score.MAX_PLAYER_ID_LENGTH);
+
+        return new Score(dateTime, playerId, games, first, second, incorrect);
+    }
+
+    /**
+     * Returns the file position of a record.
+     *
+     * @param index the record index
+     *
+     * @return the byte offset of the record
+     */
+    static long recordPosition(final int index)
+    {
+        return HEADER_BYTES + (long) index * RECORD_BYTES;
+    }
+
+    /*
+     * Streams the records from the given index to the current end, read in
+     * blocks as the stream is consumed.
+     */
+    private Stream<Score> streamFrom(final int start)
+    {
+        final int end;
+        end = count;
+
+        return IntStream.iterate(start, from -> from < end, from -> from + STREAM_CHUNK)
+                        .mapToObj(from ->
+                        {
+                            try
+                            {
+                                return readRange(from, Math.min(from + STREAM_CHUNK, end));
+                            }
+                            catch (final IOException ex)
+                            {
+                                throw new UncheckedIOException(ex);
+                            }
+                        })
+                        .flatMap(List::stream);
+    }
+
+    private synchronized List<Score> readRange(final int from,
+                                               final int to)
+        throws IOException
+    {
+        final List<Score> scores;
+        scores = new ArrayList<>(to - from);
+
+        if (from >= to)
+        {
+            return scores;
+        }
+
+        final ByteBuffer block;
+        block = ByteBuffer.allocate((to - from) * RECORD_BYTES);
+        readFully(log, block, recordPosition(from));
+        block.flip();
+
+        while (block.hasRemaining())
+        {
+            scores.add(decode(block));
+        }
+
+        return scores;
+    }
+
+    private void load()
+        throws IOException
+    {
+        days           = new long[INITIAL_DAY_CAPACITY];
+        dayFirstRecord = new long[INITIAL_DAY_CAPACITY];
+        dayCount       = 0;
+
+        if (log.size() == 0)
+        {
+            count     = 0;
+            highScore = 0;
+            writeHeader();
+            dayIndex.truncate(0);
+            return;
+        }
+
+        header.clear();
+        readFully(log, header, 0);
+        header.flip();
+
+        if (header.getInt() != MAGIC || header.getInt() != VERSION)
+        {
+            throw new IOException("Not a score log: " + logFile);
+        }
+
+        count     = header.getInt();
+        highScore = header.getInt();
+
+        final ByteBuffer entries;
+        entries = ByteBuffer.allocate((int) dayIndex.size());
+        readFully(dayIndex, entries, 0);
+        entries.flip();
+
+        while (entries.remaining() >= DAY_ENTRY_BYTES)
+        {
+            final long day;
+            final long first;
+
+            day   = entries.getLong();
+            first = entries.getLong();
+
+            // Entries written after the last header update belong to no record
+            if (first < count)
+            {
+                addDay(day, first);
+            }
+        }
+    }
+
+    private void addDay(final long day,
+                        final long firstRecord)
+    {
+        if (dayCount == days.length)
+        {
+            days           = Arrays.copyOf(days, dayCount * 2);
+            dayFirstRecord = Arrays.copyOf(dayFirstRecord, dayCount * 2);
+        }
+
+        days[dayCount]           = day;
+        dayFirstRecord[dayCount] = firstRecord;
+        dayCount++;
+    }
+
+    private void writeHeader()
+        throws IOException
+    {
+        header.clear();
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(count);
+        header.putInt(highScore);
+        header.flip();
+        writeFully(log, header, 0);
+    }
+
+    private static void writeFully(final FileChannel channel,
+                                   final ByteBuffer buffer,
+                                   final long position)
+        throws IOException
+    {
+        long at;
+        at = position;
+
+        while (buffer.hasRemaining())
+        {
+            at += channel.write(buffer, at);
+        }
+    }
+
+    private static void readFully(final FileChannel channel,
+                                  final ByteBuffer buffer,
+                                  final long position)
+        throws IOException
+    {
+        long at;
+        at = position;
+
+        while (buffer.hasRemaining())
+        {
+            final int read;
+            read = channel.read(buffer, at);
+
+            if (read < 0)
+            {
+                throw new IOException("Unexpected end of file");
+            }
+            at += read;
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A place where Score entries are stored, independent of how they are
+ * written to disk.
+ *
+ * Three backends are available:
+ *   TEXT   the readable Score.toString() format, one block per entry
+ *   BINARY a ScoreLog: fixed-width records with a header and day index
+ *   MAPPED a MappedScoreRepository: fixed-width records written straight
+ *          into a memory-mapped file
+ *
+ * Every backend appends entries in order and streams them back in the
+ * same order, so code that records or reads scores does not depend on
+ * the one a deployment picks. Only TEXT keeps a score's player id; the
+ * fixed-width records of the binary backends have no room for it.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public interface ScoreRepository
+    extends Closeable
+{
+
+    /**
+     * The available storage formats.
+     */
+    enum Backend
+    {
+        /** The Score.toString() text format. */
+        TEXT,
+
+        /** A ScoreLog binary log. */
+        BINARY,
+
+        /** A memory-mapped file of fixed-width records. */
+        MAPPED
+    }
+
+    /**
+     * Opens a repository, creating its file if it does not exist yet.
+     *
+     * @param backend the storage format of the file
+     * @param file    the file holding the scores
+     *
+     * @return the opened repository
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    static ScoreRepository open(final Backend backend,
+                                final Path file)
+        throws IOException
+    {
+        return switch (backend)
+        {
+            case TEXT -> TextScoreRepository.open(file);
+            case BINARY -> ScoreLog.open(file);
+            case MAPPED -> MappedScoreRepository.open(file);
+        };
+    }
+
+    /**
+     * Stores a score after every score already stored.
+     *
+     * @param score the score to store
+     *
+     * @throws IOException if the score cannot be written
+     */
+    void append(Score score)
+        throws IOException;
+
+    /**
+     * Stores several scores in order. Backends that can write them in one
+     * go do so.
+     *
+     * @param scores the scores to store
+     *
+     * @throws IOException if the scores cannot be written
+     */
+    default void appendAll(final List<Score> scores)
+        throws IOException
+    {
+        for (final Score score : scores)
+        {
+            append(score);
+        }
+    }
+
+    /**
+     * Returns how many scores are stored.
+     *
+     * @return the number of scores
+     *
+     * @throws IOException if the scores cannot be read
+     */
+    int count()
+        throws IOException;
+
+    /**
+     * Streams every stored score in the order it was stored. Scores
+     * appended while the stream is open may or may not be included.
+     * The stream must be closed.
+     *
+     * @return a lazily read stream of the scores
+     *
+     * @throws IOException if the scores cannot be read
+     */
+    Stream<Score> stream()
+        throws IOException;
+
+    /**
+     * Streams the stored scores played from one time up to, but not
+     * including, another, in the order they were stored. Scores are
+     * expected to be stored in time order; backends with a time index
+     * start reading near the range and stop at the first score after it.
+     * This default reads every score. The stream must be closed.
+     *
+     * @param from the earliest time to include
+     * @param to   the time to stop before
+     *
+     * @return a lazily read stream of the scores in the range
+     *
+     * @throws IOException if the scores cannot be read
+     */
+    default Stream<Score> between(final LocalDateTime from,
+                                  final LocalDateTime to)
+        throws IOException
+    {
+        return stream().filter(score -> !score.getDateTimePlayed().isBefore(from)
+                                        && score.getDateTimePlayed().isBefore(to));
+    }
+
+}
@@ -0,0 +1,128 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * Computes summary values over a score file by streaming it.
+ *
+ * Every method reads the file once through Score.streamScoresFromFile,
+ * so memory use stays constant no matter how many entries the file
+ * holds. topK only keeps the k best scores seen so far. For summaries
+ * that are asked for often, ScoreAggregates keeps running totals instead
+ * of reading the file each time.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class ScoreStatistics
+{
+
+    private ScoreStatistics()
+    {
+    }
+
+    /**
+     * Returns the highest score in the file, or 0 if it has no entries.
+     *
+     * @param filePath path to the score file
+     *
+     * @return the high score
+     *
+     * @throws IOException if reading the file fails
+     */
+    public static int maxScore(final String filePath) throws IOException
+    {
+        try (Stream<Score> scores = Score.streamScoresFromFile(filePath))
+        {
+            return scores.mapToInt(Score::getScore).max().orElse(0);
+        }
+    }
+
+    /**
+     * Returns the sum of every score in the file.
+     *
+     * @param filePath path to the score file
+     *
+     * @return the total of all scores
+     *
+     * @throws IOException if reading the file fails
+     */
+    public static long totalScore(final String filePath) throws IOException
+    {
+        try (Stream<Score> scores = Score.streamScoresFromFile(filePath))
+        {
+            return scores.mapToLong(Score::getScore).sum();
+        }
+    }
+
+    /**
+     * Returns how many score entries the file holds.
+     *
+     * @param filePath path to the score file
+     *
+     * @return the number of entries
+     *
+     * @throws IOException if reading the file fails
+     */
+    public static long count(final String filePath) throws IOException
+    {
+        try (Stream<Score> scores = Score.streamScoresFromFile(filePath))
+        {
+            return scores.count();
+        }
+    }
+
+    /**
+     * Returns the k highest scores in the file, best first.
+     * Only k entries are held in memory while the file is read.
+     *
+     * @param filePath path to the score file
+     * @param k        how many entries to return
+     *
+     * @return up to k entries ordered from highest to lowest score
+     *
+     * @throws IOException if reading the file fails
+     */
+    public static List<Score> topK(final String filePath,
+                                   final int k) throws IOException
+    {
+        if (k <= 0)
+        {
+            return new ArrayList<>();
+        }
+
+        final Comparator<Score> byScore;
+        byScore = Comparator.comparingInt(Score::getScore);
+
+        final PriorityQueue<Score> best;
+        best = new PriorityQueue<>(k, byScore);
+
+        try (Stream<Score> scores = Score.streamScoresFromFile(filePath))
+        {
+            scores.forEach(score ->
+            {
+                if (best.size() < k)
+                {
+                    best.add(score);
+                }
+                else if (score.getScore() > best.peek().getScore())
+                {
+                    best.poll();
+                    best.add(score);
+                }
+            });
+        }
+
+        final List<Score> result;
+        result = new ArrayList<>(best);
+        result.sort(byScore.reversed());
+
+        return result;
+    }
+
+}
@@ -0,0 +1,431 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * A sparse index over a score file in the Score.toString() format, so the
+ * scores played in a time range can be read without reading the whole
+ * file.
+ *
+ * Every Nth entry is sampled: the index keeps the byte offset where that
+ * entry starts and the latest time played up to and including it. The
+ * sampled times never go down, so a range query binary-searches them for
+ * the last sample played entirely before the range and starts reading the
+ * file there. Scores are expected to be appended in time order, as they
+ * are by the game; reading stops at the first score after the range.
+ * A query therefore reads O(log n + k + N) entries instead of all n.
+ *
+ * The index is brought up to date by reading only the entries appended
+ * since it was last refreshed, so it also follows scores written by
+ * Score.appendScoreToFile. Like the Leaderboard, it can be saved next to
+ * its score file as "&lt;file&gt;.times" together with how many bytes of
+ * the score file it covers.
+ *
+ * Entries are read through ScoreCodec, which skips a malformed entry,
+ * such as one torn by a crash and then followed by the next append, so
+ * one bad entry never stops the score file from being opened or queried.
+ *
+ * All methods are synchronized.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class ScoreTimeIndex
+{
+
+    /**
+     * How many entries apart the samples are unless told otherwise.
+     */
+    public static final int DEFAULT_INTERVAL = 64;
+
+    private static final int MAGIC = 0x57475449; // "WGTI"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = Integer.BYTES    // magic
+                                            + Integer.BYTES  // version
+                                            + Integer.BYTES  // interval
+                                            + Long.BYTES     // score file bytes covered
+                                            + Long.BYTES     // entries covered
+                                            + Long.BYTES     // latest time played
+                                            + Long.BYTES     // checksum of the samples
+                                            + Integer.BYTES; // samples
+    private static final int SAMPLE_BYTES = 2 * Long.BYTES;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int BLOCK_BYTES = 1 << 16;
+    private static final String INDEX_SUFFIX = ".times";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path scoreFile;
+    private final int interval;
+
+    private long[] times;
+    private long[] offsets;
+    private int samples;
+    private long entries;
+    private long covered;
+    private long latest;
+
+    private ScoreTimeIndex(final Path scoreFile,
+                           final int interval)
+    {
+        this.scoreFile = scoreFile;
+        this.interval  = interval;
+        reset();
+    }
+
+    /**
+     * Opens the index of a score file. The saved index is read if there
+     * is one with the same interval, and the entries appended to the
+     * score file after it was saved are added. If the saved index is
+     * missing or damaged, the whole score file is read.
+     *
+     * @param scoreFile the score file in the Score.toString() format
+     * @param interval  how many entries apart the samples are
+     *
+     * @return the index of every entry in the score file
+     *
+     * @throws IOException if the score file cannot be read
+     */
+    public static ScoreTimeIndex open(final Path scoreFile,
+                                      final int interval)
+        throws IOException
+    {
+        if (interval < 1)
+        {
+            throw new IllegalArgumentException("Interval must be positive: " + interval);
+        }
+
+        final ScoreTimeIndex index;
+        index = new ScoreTimeIndex(scoreFile, interval);
+
+        final Path indexFile;
+        indexFile = indexFile(scoreFile);
+
+        if (Files.exists(indexFile))
+        {
+            try
+            {
+                index.read(ByteBuffer.wrap(Files.readAllBytes(indexFile)));
+            }
+            catch (final IOException | RuntimeException ex)
+            {
+                index.reset();
+            }
+        }
+
+        index.refresh();
+        return index;
+    }
+
+    /**
+     * Returns the path of the saved index that belongs to a score file.
+     *
+     * @param scoreFile the score file
+     *
+     * @return the path of its saved index
+     */
+    static Path indexFile(final Path scoreFile)
+    {
+        return scoreFile.resolveSibling(scoreFile.getFileName() + INDEX_SUFFIX);
+    }
+
+    /**
+     * Adds the entries appended to the score file since the last refresh.
+     * An entry cut short at the end of the file is left for the next one,
+     * and a malformed entry is skipped.
+     *
+     * @throws IOException if the score file cannot be read
+     */
+    public synchronized void refresh()
+        throws IOException
+    {
+        if (!Files.exists(scoreFile))
+        {
+            reset();
+            return;
+        }
+
+        if (Files.size(scoreFile) < covered)
+        {
+            // the score file was replaced by a shorter one
+            reset();
+        }
+
+        try (FileChannel in = FileChannel.open(scoreFile, StandardOpenOption.READ))
+        {
+            in.position(covered);
+
+            ByteBuffer block;
+            block = ByteBuffer.allocate(BLOCK_BYTES);
+
+            long blockStart;
+            boolean atEnd;
+
+            blockStart = covered;
+            atEnd      = false;
+
+            while (!atEnd)
+            {
+                atEnd = in.read(block) < 0;
+                block.flip();
+
+                int entryStart;
+                Score score;
+
+                entryStart = block.position();
+
+                while ((score = ScoreCodec.decodeSkippingDamage(block)) != null)
+                {
+                    add(score, blockStart + entryStart);
+                    entryStart = block.position();
+                    covered    = blockStart + entryStart;
+                }
+
+                blockStart += block.position();
+
+                if (block.position() == 0 && block.limit() == block.capacity())
+                {
+                    // one line longer than the whole buffer
+                    final ByteBuffer larger;
+                    larger = ByteBuffer.allocate(block.capacity() * 2);
+                    larger.put(block);
+                    block = larger;
+                }
+                else
+                {
+                    block.compact();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns how many complete entries the index covers.
+     *
+     * @return the number of entries
+     */
+    public synchronized long size()
+    {
+        return entries;
+    }
+
+    /**
+     * Streams the scores played from one time up to, but not including,
+     * another, in file order. Entries appended since the last refresh are
+     * indexed first, and malformed entries are skipped. The stream must be
+     * closed.
+     *
+     * @param from the earliest time to include
+     * @param to   the time to stop before
+     *
+     * @return a lazily read stream of the scores in the range
+     *
+     * @throws IOException if the score file cannot be read
+     */
+    public synchronized Stream<Score> between(final LocalDateTime from,
+                                              final LocalDateTime to)
+        throws IOException
+    {
+        refresh();
+
+        if (!Files.exists(scoreFile) || !from.isBefore(to))
+        {
+            return Stream.empty();
+        }
+
+        final long start;
+        start = startOffset(epochSecond(from));
+
+        return ScoreCodec.stream(scoreFile, start)
+                         .filter(score -> !score.getDateTimePlayed().isBefore(from))
+                         .takeWhile(score -> score.getDateTimePlayed().isBefore(to));
+    }
+
+    /**
+     * Saves the index next to the score file, replacing any saved index,
+     * so the next open() only reads entries appended after this point.
+     *
+     * @throws IOException if the index cannot be written
+     */
+    public synchronized void checkpoint()
+        throws IOException
+    {
+        final ByteBuffer saved;
+        saved = ByteBuffer.allocate(HEADER_BYTES + samples * SAMPLE_BYTES);
+
+        saved.position(HEADER_BYTES);
+
+        for (int i = 0; i < samples; i++)
+        {
+            saved.putLong(times[i]);
+            saved.putLong(offsets[i]);
+        }
+
+        saved.flip();
+        saved.position(HEADER_BYTES);
+
+        final long sampleChecksum;
+        sampleChecksum = checksum(saved.duplicate());
+
+        saved.position(0);
+        saved.putInt(MAGIC);
+        saved.putInt(VERSION);
+        saved.putInt(interval);
+        saved.putLong(covered);
+        saved.putLong(entries);
+        saved.putLong(latest);
+        saved.putLong(sampleChecksum);
+        saved.putInt(samples);
+
+        final Path indexFile;
+        final Path tempFile;
+
+        indexFile = indexFile(scoreFile);
+        tempFile  = indexFile.resolveSibling(indexFile.getFileName() + TEMP_SUFFIX);
+
+        Files.write(tempFile, saved.array());
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /*
+     * Counts an entry that starts at the given offset, sampling it if it
+     * is the Nth since the last sample.
+     */
+    private void add(final Score score,
+                     final long offset)
+    {
+        latest = Math.max(latest, epochSecond(score.getDateTimePlayed()));
+
+        if (entries % interval == 0)
+        {
+            if (samples == times.length)
+            {
+                times   = Arrays.copyOf(times, samples * 2);
+                offsets = Arrays.copyOf(offsets, samples * 2);
+            }
+
+            times[samples]   = latest;
+            offsets[samples] = offset;
+            samples++;
+        }
+
+        entries++;
+    }
+
+    /*
+     * Returns the offset of the last sample whose entries were all played
+     * before the given second, or 0 if there is none.
+     */
+    private long startOffset(final long fromSecond)
+    {
+        int low;
+        int high;
+
+        low  = 0;
+        high = samples;
+
+        // finds how many samples are before fromSecond; their times never go down
+        while (low < high)
+        {
+            final int middle;
+            middle = (low + high) >>> 1;
+
+            if (times[middle] < fromSecond)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+
+        if (low == 0)
+        {
+            return 0;
+        }
+        return offsets[low - 1];
+    }
+
+    /*
+     * Loads a saved index into this empty one.
+     */
+    private void read(final ByteBuffer saved)
+        throws IOException
+    {
+        if (saved.remaining() < HEADER_BYTES
+            || saved.getInt() != MAGIC
+            || saved.getInt() != VERSION
+            || saved.getInt() != interval)
+        {
+            throw new IOException("Not a score time index for this interval");
+        }
+
+        final long savedCovered;
+        final long savedEntries;
+        final long savedLatest;
+        final long expectedChecksum;
+        final int savedSamples;
+
+        savedCovered     = saved.getLong();
+        savedEntries     = saved.getLong();
+        savedLatest      = saved.getLong();
+        expectedChecksum = saved.getLong();
+        savedSamples     = saved.getInt();
+
+        if (saved.remaining() != (long) savedSamples * SAMPLE_BYTES
+            || checksum(saved.duplicate()) != expectedChecksum)
+        {
+            throw new IOException("Damaged score time index");
+        }
+
+        times   = new long[Math.max(INITIAL_CAPACITY, savedSamples)];
+        offsets = new long[times.length];
+
+        for (int i = 0; i < savedSamples; i++)
+        {
+            times[i]   = saved.getLong();
+            offsets[i] = saved.getLong();
+        }
+
+        samples = savedSamples;
+        entries = savedEntries;
+        covered = savedCovered;
+        latest  = savedLatest;
+    }
+
+    private void reset()
+    {
+        times   = new long[INITIAL_CAPACITY];
+        offsets = new long[INITIAL_CAPACITY];
+        samples = 0;
+        entries = 0;
+        covered = 0;
+        latest  = Long.MIN_VALUE;
+    }
+
+    private static long epochSecond(final LocalDateTime dateTime)
+    {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long checksum(final ByteBuffer buffer)
+    {
+        final CRC32 crc;
+        crc = new CRC32();
+        crc.update(buffer);
+
+        return crc.getValue();
+    }
+
+}
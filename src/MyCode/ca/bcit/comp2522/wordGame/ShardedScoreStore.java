@@ -0,0 +1,433 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the scores of many players in a directory of shard files, each
+ * holding the players whose ids hash to it.
+ *
+ * Every shard is a TextScoreRepository with its own lock, so appends for
+ * players on different shards never wait for each other, and looking up
+ * one player's history or best score only reads that player's shard. The
+ * best score of each player on a shard is worked out the first time the
+ * shard is asked for one and kept up to date as scores are appended.
+ *
+ * A shard can be compacted on its own while the others keep taking
+ * scores: its entries are read back through ScoreCodec into a new file
+ * that replaces the old one, dropping anything that is not a whole entry,
+ * such as an entry cut short by a crash. Such an entry is skipped when
+ * the shard is read before then too, even after the next append has run
+ * into its torn line.
+ *
+ * The number of shards is saved in the directory when it is created, and
+ * the directory cannot be opened with a different number, because that
+ * would move players to other shards.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class ShardedScoreStore
+    implements Closeable
+{
+
+    /**
+     * How many shards a new store has unless told otherwise.
+     */
+    public static final int DEFAULT_SHARDS = 16;
+
+    private static final String SHARD_PREFIX = "shard-";
+    private static final String SHARD_SUFFIX = ".txt";
+    private static final String SHARD_COUNT_FILE = "shards";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /*
+     * One shard file and the best scores of its players.
+     */
+    private static final class Shard
+    {
+
+        private final Path file;
+
+        private TextScoreRepository repository;
+        private Map<String, Score> best;
+
+        private Shard(final Path file)
+            throws IOException
+        {
+            this.file  = file;
+            repository = TextScoreRepository.open(file);
+        }
+
+        private synchronized void append(final Score score)
+            throws IOException
+        {
+            repository.append(score);
+
+            if (best != null)
+            {
+                keepBest(best, score);
+            }
+        }
+
+        private synchronized List<Score> history(final String playerId)
+            throws IOException
+        {
+            try (Stream<Score> scores = repository.stream())
+            {
+                return new ArrayList<>(scores.filter(score -> playerId.equals(score.getPlayerId())).toList());
+            }
+        }
+
+        private synchronized Score bestScore(final String playerId)
+            throws IOException
+        {
+            if (best == null)
+            {
+                final Map<String, Score> loaded;
+                loaded = new HashMap<>();
+
+                try (Stream<Score> scores = repository.stream())
+                {
+                    final Iterator<Score> iterator;
+                    iterator = scores.iterator();
+
+                    while (iterator.hasNext())
+                    {
+                        keepBest(loaded, iterator.next());
+                    }
+                }
+
+                best = loaded;
+            }
+
+            return best.get(playerId);
+        }
+
+        private synchronized int count()
+            throws IOException
+        {
+            return repository.count();
+        }
+
+        private synchronized int compact()
+            throws IOException
+        {
+            repository.close();
+
+            final Path tempFile;
+            tempFile = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+
+            Files.deleteIfExists(tempFile);
+            Files.deleteIfExists(ScoreTimeIndex.indexFile(tempFile));
+
+            final int kept;
+
+            try (TextScoreRepository compacted = TextScoreRepository.open(tempFile))
+            {
+                if (Files.exists(file))
+                {
+                    ScoreCodec.importText(file, compacted);
+                }
+                kept = compacted.count();
+            }
+
+            if (Files.exists(tempFile))
+            {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            else
+            {
+                Files.deleteIfExists(file);
+            }
+
+            // the new file's index was built while it was written
+            Files.move(ScoreTimeIndex.indexFile(tempFile),
+                       ScoreTimeIndex.indexFile(file),
+                       StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+
+            repository = TextScoreRepository.open(file);
+            best       = null;
+
+            return kept;
+        }
+
+        private synchronized void close()
+            throws IOException
+        {
+            repository.close();
+        }
+    }
+
+    private final Path directory;
+    private final Shard[] shards;
+
+    private ShardedScoreStore(final Path directory,
+                              final Shard[] shards)
+    {
+        this.directory = directory;
+        this.shards    = shards;
+    }
+
+    /**
+     * Opens a sharded store, creating the directory and its shard count
+     * file if they do not exist yet.
+     *
+     * @param directory  the directory holding the shard files
+     * @param shardCount how many shards the store has
+     *
+     * @return the opened store
+     *
+     * @throws IOException if the directory cannot be opened or was created
+     *                     with a different number of shards
+     */
+    public static ShardedScoreStore open(final Path directory,
+                                         final int shardCount)
+        throws IOException
+    {
+        if (shardCount < 1)
+        {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+
+        Files.createDirectories(directory);
+
+        final Path countFile;
+        countFile = directory.resolve(SHARD_COUNT_FILE);
+
+        if (Files.exists(countFile))
+        {
+            final int saved;
+            saved = Integer.parseInt(Files.readString(countFile, StandardCharsets.US_ASCII).trim());
+
+            if (saved != shardCount)
+            {
+                throw new IOException("Score store " + directory + " was created with " + saved + " shards");
+            }
+        }
+        else
+        {
+            Files.writeString(countFile, shardCount + System.lineSeparator(), StandardCharsets.US_ASCII);
+        }
+
+        final Shard[] shards;
+        shards = new Shard[shardCount];
+
+        try
+        {
+            for (int i = 0; i < shardCount; i++)
+            {
+                shards[i] = new Shard(shardFile(directory, i));
+            }
+        }
+        catch (final IOException | RuntimeException ex)
+        {
+            closeAll(shards);
+            throw ex;
+        }
+
+        return new ShardedScoreStore(directory, shards);
+    }
+
+    /**
+     * Returns the shard a player's scores are kept in.
+     *
+     * @param playerId the player id
+     *
+     * @return the shard number, from 0 to shardCount() - 1
+     */
+    public int shardOf(final String playerId)
+    {
+        return Math.floorMod(playerId.hashCode(), shards.length);
+    }
+
+    /**
+     * Returns how many shards the store has.
+     *
+     * @return the number of shards
+     */
+    public int shardCount()
+    {
+        return shards.length;
+    }
+
+    /**
+     * Appends a score to its player's shard.
+     *
+     * @param score the score to store; it must have a player id
+     *
+     * @throws IOException if the shard cannot be written
+     */
+    public void append(final Score score)
+        throws IOException
+    {
+        if (score.getPlayerId() == null)
+        {
+            throw new IllegalArgumentException("A sharded score needs a player id");
+        }
+
+        shards[shardOf(score.getPlayerId())].append(score);
+    }
+
+    /**
+     * Returns every score of one player, oldest first. Only the player's
+     * shard is read.
+     *
+     * @param playerId the player id
+     *
+     * @return the player's scores; empty if there are none
+     *
+     * @throws IOException if the shard cannot be read
+     */
+    public List<Score> history(final String playerId)
+        throws IOException
+    {
+        return shards[shardOf(playerId)].history(playerId);
+    }
+
+    /**
+     * Returns one player's highest score. The earliest of equal scores is
+     * returned.
+     *
+     * @param playerId the player id
+     *
+     * @return the best score, or null if the player has none
+     *
+     * @throws IOException if the shard cannot be read
+     */
+    public Score bestScore(final String playerId)
+        throws IOException
+    {
+        return shards[shardOf(playerId)].bestScore(playerId);
+    }
+
+    /**
+     * Returns how many scores the store holds across every shard.
+     *
+     * @return the number of scores
+     *
+     * @throws IOException if a shard cannot be read
+     */
+    public long count()
+        throws IOException
+    {
+        long total;
+        total = 0;
+
+        for (final Shard shard : shards)
+        {
+            total += shard.count();
+        }
+
+        return total;
+    }
+
+    /**
+     * Rewrites one shard so it holds only whole score entries. Appends to
+     * that shard wait until it is done; the other shards are not touched.
+     *
+     * @param shard the shard number
+     *
+     * @return how many scores the compacted shard holds
+     *
+     * @throws IOException if the shard cannot be rewritten
+     */
+    public int compact(final int shard)
+        throws IOException
+    {
+        return shards[shard].compact();
+    }
+
+    /**
+     * Returns the directory holding the shard files.
+     *
+     * @return the store's directory
+     */
+    public Path getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * Closes every shard, saving their time indexes.
+     *
+     * @throws IOException if a shard cannot be closed
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        closeAll(shards);
+    }
+
+    /**
+     * Returns the path of one shard file in a store directory.
+     *
+     * @param directory the store's directory
+     * @param shard     the shard number
+     *
+     * @return the path of the shard file
+     */
+    static Path shardFile(final Path directory,
+                          final int shard)
+    {
+        return directory.resolve(SHARD_PREFIX + shard + SHARD_SUFFIX);
+    }
+
+    /*
+     * Keeps a score if it beats the player's best so far.
+     */
+    private static void keepBest(final Map<String, Score> best,
+                                 final Score score)
+    {
+        if (score.getPlayerId() == null)
+        {
+            return;
+        }
+
+        best.merge(score.getPlayerId(),
+                   score,
+                   (current, candidate) -> candidate.getScore() > current.getScore() ? candidate : current);
+    }
+
+    private static void closeAll(final Shard[] shards)
+        throws IOException
+    {
+        IOException failure;
+        failure = null;
+
+        for (final Shard shard : shards)
+        {
+            if (shard == null)
+            {
+                continue;
+            }
+
+            try
+            {
+                shard.close();
+            }
+            catch (final IOException ex)
+            {
+                failure = ex;
+            }
+        }
+
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+}
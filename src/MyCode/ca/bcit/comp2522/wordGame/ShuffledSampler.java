@@ -0,0 +1,70 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks countries without repeats: every country is asked once before any
+ * country is asked again.
+ *
+ * The sampler runs the Fisher-Yates shuffle one step at a time. Each draw
+ * swaps a random not-yet-drawn id into the cursor position and returns it,
+ * so a draw is O(1) and no up-front shuffle of the whole corpus is needed.
+ * After the last id is drawn the cursor starts a new pass.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class ShuffledSampler
+    implements CountrySampler
+{
+
+    private final int[] ids;
+    private final RandomGenerator random;
+
+    private int cursor;
+
+    /**
+     * Creates a sampler over the ids 0 to countryCount - 1.
+     *
+     * @param countryCount the number of countries
+     * @param random       the source of randomness
+     */
+    public ShuffledSampler(final int countryCount,
+                           final RandomGenerator random)
+    {
+        if (countryCount <= 0)
+        {
+            throw new IllegalArgumentException("countryCount must be positive");
+        }
+
+        ids         = new int[countryCount];
+        this.random = random;
+        cursor      = 0;
+
+        for (int i = 0; i < countryCount; i++)
+        {
+            ids[i] = i;
+        }
+    }
+
+    @Override
+    public int nextCountryId()
+    {
+        if (cursor == ids.length)
+        {
+            cursor = 0;
+        }
+
+        final int pick;
+        pick = cursor + random.nextInt(ids.length - cursor);
+
+        final int id;
+        id          = ids[pick];
+        ids[pick]   = ids[cursor];
+        ids[cursor] = id;
+        cursor++;
+
+        return id;
+    }
+
+}
@@ -0,0 +1,184 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A ScoreRepository that keeps scores in the Score.toString() text format,
+ * so the file can be read by people and by Score.readScoresFromFile.
+ *
+ * Lines that are not part of a score entry are skipped when reading, so
+ * a file that still holds old totals blocks can be appended to safely.
+ * Entries are read through ScoreCodec, which also skips a malformed
+ * entry, such as one torn by a crash before the next append.
+ * A ScoreTimeIndex is kept up to date as entries are appended, so
+ * counting and time-range queries do not read the whole file; it is
+ * saved next to the file when the repository is closed.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class TextScoreRepository
+    implements ScoreRepository
+{
+
+    private final Path file;
+    private final ScoreTimeIndex index;
+
+    private TextScoreRepository(final Path file,
+                                final ScoreTimeIndex index)
+    {
+        this.file  = file;
+        this.index = index;
+    }
+
+    /**
+     * Opens a repository backed by a text file and brings its time index
+     * up to date. The file is created by the first append.
+     *
+     * @param file the score file
+     *
+     * @return the opened repository
+     *
+     * @throws IOException if the file or its index cannot be read
+     */
+    public static TextScoreRepository open(final Path file)
+        throws IOException
+    {
+        return new TextScoreRepository(file, ScoreTimeIndex.open(file, ScoreTimeIndex.DEFAULT_INTERVAL));
+    }
+
+    /**
+     * Appends a score entry to the file.
+     *
+     * @param score the score to store
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public synchronized void append(final Score score)
+        throws IOException
+    {
+        write(score.toString());
+        index.refresh();
+    }
+
+    /**
+     * Appends several score entries to the file with a single write, so
+     * they never interleave with another writer's entries. The entries are
+     * encoded by ScoreCodec without building a String for each one.
+     *
+     * @param scores the scores to store
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public synchronized void appendAll(final List<Score> scores)
+        throws IOException
+    {
+        final ByteBuffer text;
+        text = ByteBuffer.allocate(Math.multiplyExact(scores.size(), ScoreCodec.MAX_ENTRY_BYTES));
+
+        for (final Score score : scores)
+        {
+            ScoreCodec.encode(score, text);
+        }
+
+        text.flip();
+
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND))
+        {
+            while (text.hasRemaining())
+            {
+                out.write(text);
+            }
+        }
+
+        index.refresh();
+    }
+
+    /**
+     * Returns how many score entries the file holds, reading only the
+     * entries appended since the index was last refreshed.
+     *
+     * @return the number of entries
+     *
+     * @throws IOException if the file cannot be read
+     */
+    @Override
+    public synchronized int count()
+        throws IOException
+    {
+        index.refresh();
+        return Math.toIntExact(index.size());
+    }
+
+    /**
+     * Streams the score entries in the file, skipping malformed ones.
+     *
+     * @return a lazily read stream of the entries; empty if the file does not exist
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    @Override
+    public Stream<Score> stream()
+        throws IOException
+    {
+        if (!Files.exists(file))
+        {
+            return Stream.empty();
+        }
+        return ScoreCodec.stream(file, 0);
+    }
+
+    /**
+     * Streams the score entries played in a time range, starting near the
+     * range through the time index.
+     *
+     * @param from the earliest time to include
+     * @param to   the time to stop before
+     *
+     * @return a lazily read stream of the entries in the range
+     *
+     * @throws IOException if the file cannot be read
+     */
+    @Override
+    public Stream<Score> between(final LocalDateTime from,
+                                 final LocalDateTime to)
+        throws IOException
+    {
+        return index.between(from, to);
+    }
+
+    /**
+     * Saves the time index; the file itself is only open while it is
+     * written or read.
+     *
+     * @throws IOException if the index cannot be saved
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        index.checkpoint();
+    }
+
+    private void write(final String text)
+        throws IOException
+    {
+        Files.writeString(file,
+                          text,
+                          StandardCharsets.US_ASCII,
+                          StandardOpenOption.CREATE,
+                          StandardOpenOption.APPEND);
+    }
+
+}
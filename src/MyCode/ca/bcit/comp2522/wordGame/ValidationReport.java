@@ -0,0 +1,178 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.util.List;
+
+/**
+ * The outcome of checking a directory of country data files with
+ * CorpusValidator: every problem found, and the entries that were valid.
+ *
+ * Problems are listed by file and then by line. Entries with a problem
+ * are left out of the valid entries, so toWorld() builds a World from
+ * whatever could be read. A country named in more than one file is
+ * reported but kept in both, and the later file wins as usual.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class ValidationReport
+{
+
+    /**
+     * One problem in one data file.
+     */
+    public static final class Problem
+    {
+
+        private final String file;
+        private final int line;
+        private final String reason;
+
+        /**
+         * Creates a problem.
+         *
+         * @param file   the name of the data file, such as "a.txt"
+         * @param line   the 1-based line number the problem starts on
+         * @param reason what is wrong
+         */
+        Problem(final String file,
+                final int line,
+                final String reason)
+        {
+            this.file   = file;
+            this.line   = line;
+            this.reason = reason;
+        }
+
+        /**
+         * Returns the name of the data file.
+         *
+         * @return the file name
+         */
+        public String getFile()
+        {
+            return file;
+        }
+
+        /**
+         * Returns the line the problem starts on.
+         *
+         * @return the 1-based line number
+         */
+        public int getLine()
+        {
+            return line;
+        }
+
+        /**
+         * Returns what is wrong.
+         *
+         * @return the reason
+         */
+        public String getReason()
+        {
+            return reason;
+        }
+
+        /**
+         * Returns the problem as "file:line: reason".
+         *
+         * @return the formatted problem
+         */
+        @Override
+        public String toString()
+        {
+            return file + ":" + line + ": " + reason;
+        }
+    }
+
+    private final List<Problem> problems;
+    private final List<List<Country>> letters;
+    private final int validEntries;
+
+    /**
+     * Creates a report.
+     *
+     * @param problems the problems, in file and line order
+     * @param letters  the valid entries of each letter file, 'a' to 'z'
+     */
+    ValidationReport(final List<Problem> problems,
+                     final List<List<Country>> letters)
+    {
+        this.problems = List.copyOf(problems);
+        this.letters  = letters;
+
+        int count;
+        count = 0;
+
+        for (final List<Country> letter : letters)
+        {
+            count += letter.size();
+        }
+
+        validEntries = count;
+    }
+
+    /**
+     * Returns every problem found.
+     *
+     * @return the problems, in file and line order
+     */
+    public List<Problem> getProblems()
+    {
+        return problems;
+    }
+
+    /**
+     * Returns whether no problems were found.
+     *
+     * @return true if every entry was valid
+     */
+    public boolean isClean()
+    {
+        return problems.isEmpty();
+    }
+
+    /**
+     * Returns how many entries were valid.
+     *
+     * @return the number of valid entries
+     */
+    public int getValidEntries()
+    {
+        return validEntries;
+    }
+
+    /**
+     * Builds a World from the valid entries.
+     *
+     * @return a World holding every valid entry
+     */
+    public World toWorld()
+    {
+        return World.fromLetters(letters);
+    }
+
+    /**
+     * Returns a summary line followed by one line per problem.
+     *
+     * @return the formatted report
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder text;
+        text = new StringBuilder();
+
+        text.append(validEntries).append(" valid entries, ")
+            .append(problems.size()).append(" problems")
+            .append(System.lineSeparator());
+
+        for (final Problem problem : problems)
+        {
+            text.append(problem).append(System.lineSeparator());
+        }
+
+        return text.toString();
+    }
+
+}
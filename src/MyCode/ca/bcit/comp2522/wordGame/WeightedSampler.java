@@ -0,0 +1,143 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks countries in proportion to how often the player misses them, so
+ * the game spends more time on the countries the player finds hard.
+ *
+ * A country's weight is its smoothed miss rate, (misses + 1) / (asks + 2),
+ * stored in fixed point. New countries start at one half. The weights live
+ * in a Fenwick tree, so both drawing a country and updating a weight take
+ * O(log n) time, and nothing is rescanned as the corpus grows.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class WeightedSampler
+    implements CountrySampler
+{
+
+    private static final long SCALE = 1_000_000L;
+    private static final long MIN_WEIGHT = 1L;
+
+    private final long[] tree;
+    private final long[] weights;
+    private final int[] asks;
+    private final int[] misses;
+    private final int topBit;
+    private final RandomGenerator random;
+
+    private long total;
+
+    /**
+     * Creates a sampler over the ids 0 to countryCount - 1 with every
+     * country equally likely.
+     *
+     * @param countryCount the number of countries
+     * @param random       the source of randomness
+     */
+    public WeightedSampler(final int countryCount,
+                           final RandomGenerator random)
+    {
+        if (countryCount <= 0)
+        {
+            throw new IllegalArgumentException("countryCount must be positive");
+        }
+
+        tree        = new long[countryCount + 1];
+        weights     = new long[countryCount];
+        asks        = new int[countryCount];
+        misses      = new int[countryCount];
+        topBit      = Integer.highestOneBit(countryCount);
+        this.random = random;
+        total       = 0;
+
+        for (int id = 0; id < countryCount; id++)
+        {
+            weights[id] = weightFor(0, 0);
+            tree[id + 1] += weights[id];
+
+            // build the tree in O(n) by pushing each node into its parent
+            final int parent;
+            parent = (id + 1) + ((id + 1) & -(id + 1));
+
+            if (parent <= countryCount)
+            {
+                tree[parent] += tree[id + 1];
+            }
+            total += weights[id];
+        }
+    }
+
+    @Override
+    public int nextCountryId()
+    {
+        long target;
+        target = random.nextLong(total);
+
+        // walk down the tree to the first id whose running sum exceeds target
+        int position;
+        position = 0;
+
+        for (int step = topBit; step > 0; step >>= 1)
+        {
+            final int next;
+            next = position + step;
+
+            if (next < tree.length && tree[next] <= target)
+            {
+                position = next;
+                target  -= tree[next];
+            }
+        }
+
+        return position;
+    }
+
+    @Override
+    public void recordResult(final int countryId,
+                             final boolean missed)
+    {
+        asks[countryId]++;
+
+        if (missed)
+        {
+            misses[countryId]++;
+        }
+
+        final long updated;
+        updated = weightFor(asks[countryId], misses[countryId]);
+
+        final long delta;
+        delta = updated - weights[countryId];
+
+        weights[countryId] = updated;
+        total += delta;
+
+        for (int i = countryId + 1; i < tree.length; i += i & -i)
+        {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the current chance, in the range 0 to 1, that the next draw
+     * is the given country.
+     *
+     * @param countryId the country to look up
+     *
+     * @return the country's probability of being drawn next
+     */
+    public double probability(final int countryId)
+    {
+        return (double) weights[countryId] / total;
+    }
+
+    private static long weightFor(final int asked,
+                                  final int missed)
+    {
+        return Math.max(MIN_WEIGHT, SCALE * (missed + 1) / (asked + 2));
+    }
+
+}
@@ -1,15 +1,15 @@
 package ca.bcit.comp2522.wordGame;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
-import java.util.Map;
-import java.util.Random;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
-import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Runs the geography Word Game.
@@ -17,7 +17,17 @@ import java.util.Set;
  * and facts. Each game consists of questions.
  * The WordGame keeps track of per-game results and cumulative totals
  * across all games in a session. When the player stops, the totals
- * are appended to a score file.
+ * are recorded as a Score in the score repository.
+ *
+ * Scores are recorded under the player id set by the "wordgame.player"
+ * system property, or the name of the user running the game if it is not
+ * set. Characters a player id cannot hold are left out, and a name with
+ * none left is recorded without an id.
+ *
+ * Every finished game is first logged in a GameJournal next to the score
+ * file, so the games of a session that is killed before the player stops
+ * are not lost: the next session saves them as a session of their own
+ * before it starts.
  *
  * @author Arshia Adamian
  * @version 1.0
@@ -25,39 +35,35 @@ import java.util.Set;
 public final class WordGame
 {
 
-    private static final int QUESTIONS_PER_GAME = 10;
-    private static final int FACTS_PER_COUNTRY = 3;
-    private static final int MAX_ATTEMPTS = 2;
-    private static final int FIRST_TRY_POINTS = 2;
-    private static final int SECOND_TRY_POINTS = 1;
-    private static final int MISSED_ANSWER_POINTS = 0;
-    private static final int RANDOM_OFFSET = 1;
-
-    private static final int TYPE_CAPITAL_TO_COUNTRY = 1; // (a)
-    private static final int TYPE_COUNTRY_TO_CAPITAL = 2; // (b)
-    private static final int TYPE_FACT_TO_COUNTRY = 3; // (c)
+    private static final int SUGGESTIONS = 1;
+    private static final int COMPACT_EVERY = 20;
+    private static final String SCORE_DIRECTORY = "src/MyCode";
+    private static final String BACKEND_PROPERTY = "wordgame.scores";
+    private static final String TOLERANCE_PROPERTY = "wordgame.tolerance";
+    private static final int DEFAULT_TOLERANCE = 1;
+    private static final String PLAYER_PROPERTY = "wordgame.player";
+    private static final String USER_NAME_PROPERTY = "user.name";
 
-    private static final int FIRST_ATTEMPT = 1;
-    private static final int SECOND_ATTEMPT = 2;
-
-    private final World world;
-    private final Map<String, Country> countries;
-    private final Country[] countryArray;
     private final Scanner scanner;
-    private final Random random;
+    private final RandomGenerator random;
+    private final int tolerance;
+    private final ScoreRepository.Backend backend;
     private final Path scorePath;
+    private final String playerId;
 
-    private int totalGamesPlayed;
-    private int totalCorrectFirst;
-    private int totalCorrectSecond;
-    private int totalIncorrectBoth;
+    private World world;
+    private QuestionGenerator generator;
 
     /**
-     * Creates a new WordGame and loads all country data from the
-     * source files.
+     * Creates a new WordGame that plays with the shared World from
+     * WorldRegistry. The country data is only loaded by the first game.
      * Uses the provided Scanner for all user input so that the same
      * Scanner can be shared with the Main menu.
      *
+     * Answers one typing mistake away from the correct one are accepted
+     * unless the "wordgame.tolerance" system property sets another number
+     * of mistakes; 0 accepts exact answers only.
+     *
      * @param sharedScanner the Scanner used to read user input
      *
      * @throws IOException if any of the country data files cannot be read
@@ -65,71 +71,200 @@ public final class WordGame
     public WordGame(final Scanner sharedScanner)
         throws IOException
     {
-        Path dataDir;
-        dataDir = Paths.get("src/myResources/countries");
+        this(sharedScanner,
+             new SplittableRandom(),
+             Math.max(GameSession.EXACT, Integer.getInteger(TOLERANCE_PROPERTY, DEFAULT_TOLERANCE)));
+    }
+
+    /**
+     * Creates a new WordGame whose questions are drawn from the given
+     * random generator. Passing a generator built from a fixed seed
+     * replays the same questions, which is useful for reproducing a game.
+     *
+     * @param sharedScanner the Scanner used to read user input
+     * @param random        the source of randomness for this game only
+     *
+     * @throws IOException if any of the country data files cannot be read
+     */
+    public WordGame(final Scanner sharedScanner,
+                    final RandomGenerator random)
+        throws IOException
+    {
+        this(sharedScanner, random, GameSession.EXACT);
+    }
+
+    /**
+     * Creates a new WordGame in tolerant mode: answers up to tolerance
+     * typing mistakes away from the correct one still count, and a wrong
+     * first answer that is close to some other name is followed by a
+     * "Did you mean" hint.
+     *
+     * @param sharedScanner the Scanner used to read user input
+     * @param random        the source of randomness for this game only
+     * @param tolerance     how many typing mistakes an answer may contain
+     *
+     * @throws IOException if any of the country data files cannot be read
+     */
+    public WordGame(final Scanner sharedScanner,
+                    final RandomGenerator random,
+                    final int tolerance)
+        throws IOException
+    {
+        if (tolerance < 0)
+        {
+            throw new IllegalArgumentException("tolerance must not be negative");
+        }
 
-        world        = new World(dataDir);
-        countries    = world.getCountries();
-        countryArray = toArray(countries);
+        world = WorldRegistry.get();
 
-        scanner = sharedScanner;
-        random  = new Random();
+        scanner        = sharedScanner;
+        this.random    = random;
+        this.tolerance = tolerance;
+        generator      = new QuestionGenerator(world, random);
 
-        scorePath = Paths.get("src/myCode/score.txt");
+        backend   = backendOf(System.getProperty(BACKEND_PROPERTY));
+        scorePath = Paths.get(SCORE_DIRECTORY, scoreFileName(backend));
+        playerId  = playerIdOf(System.getProperty(PLAYER_PROPERTY, System.getProperty(USER_NAME_PROPERTY)));
+    }
 
-        totalGamesPlayed   = 0;
-        totalCorrectFirst  = 0;
-        totalCorrectSecond = 0;
-        totalIncorrectBoth = 0;
+    /*
+     * Reads the backend named by the "wordgame.scores" property. A name
+     * that is not a backend is reported and the text file is used, as if
+     * the property were not set.
+     */
+    private static ScoreRepository.Backend backendOf(final String name)
+    {
+        if (name == null)
+        {
+            return ScoreRepository.Backend.TEXT;
+        }
+
+        try
+        {
+            return ScoreRepository.Backend.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+        catch (final IllegalArgumentException ex)
+        {
+            System.out.println("Warning: unknown score backend \"" + name + "\" in "
+                               + BACKEND_PROPERTY + "; using " + ScoreRepository.Backend.TEXT + ".");
+            return ScoreRepository.Backend.TEXT;
+        }
+    }
+
+    /*
+     * Turns a name into a player id by leaving out the characters an id
+     * cannot hold and cutting it to the longest id allowed. Returns null
+     * if nothing is left.
+     */
+    private static String playerIdOf(final String name)
+    {
+        if (name == null)
+        {
+            return null;
+        }
+
+        final StringBuilder id;
+        id = new StringBuilder();
+
+        for (int i = 0; i < name.length() && id.length() < Score.MAX_PLAYER_ID_LENGTH; i++)
+        {
+            final char c;
+            c = name.charAt(i);
+
+            if (Score.isPlayerIdChar(c))
+            {
+                id.append(c);
+            }
+        }
+
+        if (id.isEmpty())
+        {
+            return null;
+        }
+        return id.toString();
+    }
+
+    /*
+     * The score file of each backend; only the text file is readable as is.
+     */
+    private static String scoreFileName(final ScoreRepository.Backend backend)
+    {
+        return switch (backend)
+        {
+            case TEXT -> "score.txt";
+            case BINARY -> "score.log";
+            case MAPPED -> "score.map";
+        };
     }
 
     /**
      * Runs the main Word Game loop.
-     * Each game consists of questions. After each game,
+     * Each game consists of questions. If the shared World was reloaded
+     * since the last game, the next game uses the new one. After each game,
      * a summary is printed and the user is asked if they want
      * to play again. If the user chooses not to play again,
-     * the cumulative totals for the session are written to the
-     * score file.
+     * the cumulative totals for the session are recorded as a Score.
+     * Every 20 games the totals so far are recorded too, so a long
+     * session keeps its journal short.
+     *
+     * Scores are stored through a ScoreRepository. The backend is TEXT
+     * unless the "wordgame.scores" system property names another one.
      *
      * @throws IOException if writing the score file fails
      */
     public void run() throws IOException
+    {
+        Files.createDirectories(scorePath.toAbsolutePath().getParent());
+
+        try (ScoreRepository repository = ScoreRepository.open(backend, scorePath);
+             GameJournal journal = GameJournal.open(GameJournal.journalFile(scorePath),
+                                                    games -> recordTotals(repository, games),
+                                                    COMPACT_EVERY,
+                                                    ScoreJournal.SyncPolicy.ON_COMMIT))
+        {
+            if (journal.recovered() > 0)
+            {
+                System.out.println("Recovered " + journal.recovered()
+                                   + " unsaved games from the last session.");
+                journal.compact();
+            }
+
+            play(journal);
+        }
+
+        System.out.println("Thanks for playing! Totals were saved to " + scorePath.getFileName());
+    }
+
+    /*
+     * Plays games until the player stops, logging each finished game.
+     */
+    private void play(final GameJournal journal)
+        throws IOException
     {
         boolean keepPlaying;
         keepPlaying = true;
 
         while (keepPlaying)
         {
-            int correctFirst;
-            int correctSecond;
-            int incorrectBoth;
+            useLatestWorld();
 
-            correctFirst  = 0;
-            correctSecond = 0;
-            incorrectBoth = 0;
+            final GameSession session;
+            session = new GameSession(generator, tolerance);
 
-            for (int i = 0; i < QUESTIONS_PER_GAME; i++)
+            while (!session.isFinished())
             {
-                final int result;
-                result = askOneQuestion();
-                if (result == FIRST_TRY_POINTS)
-                {
-                    // correct on first attempt
-                    correctFirst++;
-                }
-                else if (result == SECOND_TRY_POINTS)
-                {
-                    // correct on second attempt
-                    correctSecond++;
-                }
-                else
-                {
-                    // incorrect after two attempts
-                    incorrectBoth++;
-                }
+                askOneQuestion(session);
                 System.out.println();
             }
 
+            final int correctFirst;
+            final int correctSecond;
+            final int incorrectBoth;
+
+            correctFirst  = session.getCorrectFirst();
+            correctSecond = session.getCorrectSecond();
+            incorrectBoth = session.getIncorrectBoth();
+
             // Per-game summary (exact wording/format from the spec)
             System.out.println("-- Game Summary --");
             System.out.println("1 word game played");
@@ -138,78 +273,53 @@ public final class WordGame
             System.out.println(incorrectBoth + " incorrect answers on two attempts each");
             System.out.println();
 
-            // Update cumulative totals (once per game)
-            totalGamesPlayed++;
-            totalCorrectFirst += correctFirst;
-            totalCorrectSecond += correctSecond;
-            totalIncorrectBoth += incorrectBoth;
+            // Log the game before asking, so it survives the session being killed
+            journal.append(new Score(LocalDateTime.now(), playerId, 1, correctFirst, correctSecond, incorrectBoth));
 
             keepPlaying = askPlayAgain();
             System.out.println();
         }
-
-        appendTotalsToScoreFile(scorePath);
-        System.out.println("Thanks for playing! Totals were saved to score.txt");
     }
 
-    /**
-     * Asks one random question about a country.
-     * The question type is chosen at random from:
-     * 1) capital to country, 2) country to capital, or 3) fact to country.
-     *
-     * The player has up to two attempts to answer correctly.
-     *
-     * @return 2 if the answer was correct on the first attempt,
-     *         1 if the answer was correct on the second attempt,
-     *         0 if both attempts were incorrect
+    /*
+     * Switches to the shared World if it was reloaded. The question
+     * generator is only rebuilt when the World actually changed, so the
+     * countries already asked are remembered between games otherwise.
      */
-    private int askOneQuestion()
+    private void useLatestWorld()
+        throws IOException
     {
-        final Country c;
-        c = randomCountry();
-
-        // Pick type in {1,2,3}
-        final int qType;
-        qType = random.nextInt(FACTS_PER_COUNTRY) + RANDOM_OFFSET;
-
-        final String prompt;
-        final String answer;
+        final World latest;
+        latest = WorldRegistry.get();
 
-        if (qType == TYPE_CAPITAL_TO_COUNTRY)
+        if (latest != world)
         {
-            // (a) show capital, ask for country
-            prompt = "Which country has the capital \"" + c.getCapitalCityName() + "\"?";
-            answer = c.getName();
+            world     = latest;
+            generator = new QuestionGenerator(world, random);
         }
-        else if (qType == TYPE_COUNTRY_TO_CAPITAL)
-        {
-            // (b) show country, ask for capital
-            prompt = "What is the capital city of \"" + c.getName() + "\"?";
-            answer = c.getCapitalCityName();
-        }
-        else
-        {
-            // (c) show one fact, ask for country
-            final int factIndex;
-            factIndex = random.nextInt(FACTS_PER_COUNTRY); // 0..2
-
-            final String fact;
-            fact = c.getFacts()[factIndex];
+    }
 
-            prompt = "Which country matches this fact?\n" + fact;
-            answer = c.getName();
-        }
+    /**
+     * Asks the session's current question on the console.
+     * The player has up to two attempts to answer correctly.
+     *
+     * @param session the game session supplying the question
+     *
+     * @return the final outcome of the question
+     */
+    private AnswerResult askOneQuestion(final GameSession session)
+    {
+        final Question question;
+        question = session.currentQuestion();
 
-        System.out.println(prompt);
+        System.out.println(question.getPrompt());
 
         // Two attempts: read full line (trim) so multi-word answers work
-        String guess;
-        int attempt;
-        attempt = FIRST_ATTEMPT;
+        AnswerResult result;
 
-        while (attempt <= MAX_ATTEMPTS)
+        do
         {
-            if (attempt == FIRST_ATTEMPT)
+            if (session.currentAttempt() == GameSession.FIRST_ATTEMPT)
             {
                 System.out.print("Your answer: ");
             }
@@ -218,33 +328,61 @@ public final class WordGame
                 System.out.print("Your second answer: ");
             }
 
-            guess = readLineTrimmed();
-
-            if (guess.equalsIgnoreCase(answer))
-            {
-                System.out.println("CORRECT");
-
-                if (attempt == FIRST_ATTEMPT)
-                {
-                    return FIRST_TRY_POINTS;
-                }
-                else
-                {
-                    return SECOND_TRY_POINTS;
-                }
-            }
+            final String guess;
+            guess  = readLineTrimmed();
+            result = session.submit(guess);
 
-            if (attempt == FIRST_ATTEMPT)
+            if (result == AnswerResult.TRY_AGAIN)
             {
+                suggestCloseName(question, guess);
                 System.out.println("INCORRECT. Try once more.");
             }
+        }
+        while (!result.isFinal());
 
-            attempt++;
+        if (result == AnswerResult.INCORRECT)
+        {
+            System.out.println("INCORRECT.");
+            System.out.println("The correct answer was " + question.getAnswer());
+        }
+        else
+        {
+            System.out.println("CORRECT");
         }
 
-        System.out.println("INCORRECT.");
-        System.out.println("The correct answer was " + answer);
-        return MISSED_ANSWER_POINTS;
+        return result;
+    }
+
+    /*
+     * In tolerant mode, points out a real name the wrong guess was close
+     * to, so a player who misspelt a different answer knows what was read.
+     */
+    private void suggestCloseName(final Question question,
+                                  final String guess)
+    {
+        if (tolerance == GameSession.EXACT)
+        {
+            return;
+        }
+
+        final BkTree names;
+
+        if (question.isCapitalAnswer())
+        {
+            names = world.getCapitalSuggestions();
+        }
+        else
+        {
+            names = world.getCountrySuggestions();
+        }
+
+        final List<String> close;
+        close = names.suggest(guess, tolerance, SUGGESTIONS);
+
+        if (!close.isEmpty() && !AnswerIndex.normalize(close.get(0)).equals(AnswerIndex.normalize(guess)))
+        {
+            System.out.println("Did you mean " + close.get(0) + "?");
+        }
     }
 
     /**
@@ -278,47 +416,47 @@ public final class WordGame
     }
 
     /**
-     * Appends the cumulative totals for this session to the score file.
-     * Writes the number of games played and how many answers were correct
-     * on the first attempt, correct on the second attempt, and incorrect
-     * after two attempts.
+     * Records the cumulative totals of the given games as one Score in the
+     * score repository. The Score is dated when the last of the games
+     * ended and recorded under that game's player id.
      *
-     * If the file does not exist, it is created.
+     * @param repository the repository to record in
+     * @param games      the games whose totals are recorded
      *
-     * @param scorePath path to the score file to write to
-     *
-     * @throws IOException if there is an error writing to the file
+     * @throws IOException if the score cannot be written
      */
-    private void appendTotalsToScoreFile(Path scorePath)
+    private static void recordTotals(final ScoreRepository repository,
+                                     final List<Score> games)
         throws IOException
     {
-        try (BufferedWriter writer = Files.newBufferedWriter(
-            scorePath,
-            StandardOpenOption.CREATE,
-            StandardOpenOption.APPEND))
+        int totalGamesPlayed;
+        int totalCorrectFirst;
+        int totalCorrectSecond;
+        int totalIncorrectBoth;
+
+        totalGamesPlayed   = 0;
+        totalCorrectFirst  = 0;
+        totalCorrectSecond = 0;
+        totalIncorrectBoth = 0;
+
+        for (final Score game : games)
         {
-            // Write number of games, with correct singular/plural form
-            writer.write("- " + totalGamesPlayed + " ");
-            if (totalGamesPlayed == 1)
-            {
-                writer.write("word game played");
-            }
-            else
-            {
-                writer.write("word games played");
-            }
-            writer.newLine();
-
-            writer.write("- " + totalCorrectFirst + " correct answers on the first attempt");
-            writer.newLine();
-            writer.write("- " + totalCorrectSecond + " correct answers on the second attempt");
-            writer.newLine();
-            writer.write("- " + totalIncorrectBoth + " incorrect answers on two attempts each");
-            writer.newLine();
-            writer.newLine();
+            totalGamesPlayed   += game.getGamesPlayed();
+            totalCorrectFirst  += game.getCorrectFirst();
+            totalCorrectSecond += game.getCorrectSecond();
+            totalIncorrectBoth += game.getIncorrect();
         }
-    }
 
+        final Score last;
+        last = games.get(games.size() - 1);
+
+        repository.append(new Score(last.getDateTimePlayed(),
+                                    last.getPlayerId(),
+                                    totalGamesPlayed,
+                                    totalCorrectFirst,
+                                    totalCorrectSecond,
+                                    totalIncorrectBoth));
+    }
 
     /**
      * Reads a line of input from the shared Scanner and trims
@@ -343,51 +481,4 @@ public final class WordGame
         }
     }
 
-
-    /**
-     * Returns a random Country from the internal country array.
-     *
-     * @return a randomly selected Country
-     */
-    private Country randomCountry()
-    {
-        final int idx;
-        final int countryArrayLength;
-
-        countryArrayLength = countryArray.length;
-        idx                = random.nextInt(countryArrayLength); // 0..length-1
-        return countryArray[idx];
-    }
-
-    /**
-     * Converts the map of country names and Country objects into
-     * an array of Country references. The order of countries in the
-     * resulting array depends on the iteration order of the map's keys.
-     *
-     * @param map the map of country names to Country objects
-     *
-     * @return an array containing all Country objects from the map
-     */
-    private static Country[] toArray(final Map<String, Country> map)
-    {
-        final Country[] array;
-        array = new Country[map.size()];
-
-        final Set<String> keys;
-        keys = map.keySet();
-
-        int i;
-        i = 0;
-
-        for (final String key : keys)
-        {
-            final Country country;
-            country  = map.get(key);
-            array[i] = country;
-            i++;
-        }
-
-        return array;
-    }
-
 }
@@ -0,0 +1,592 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves Word Game sessions to many players over a local TCP socket.
+ *
+ * Every connection plays one game on its own virtual thread, so thousands
+ * of sessions can wait on their players at once. All sessions share one
+ * World and draw from one QuestionPool, so questions are rendered ahead
+ * of time by a background producer instead of on the session's thread.
+ * The protocol is one UTF-8 line per message:
+ *
+ *   server: QUESTION prompt        (newlines in the prompt become spaces)
+ *   client: guess
+ *   server: CORRECT | TRY_AGAIN | INCORRECT answer
+ *   ...
+ *   server: SUMMARY first second incorrect
+ *   server: PLAYER id
+ *   server: RANK place entries      (only with a Leaderboard)
+ *
+ * The server closes the connection after the summary. Every connection is
+ * given its own player id when it is accepted, made of the time the server
+ * started and a counter, so ids are not reused across restarts. Each
+ * finished game is recorded under that id. If the server was given a
+ * ScoreJournal, each finished game is recorded in it. If it was given a
+ * ShardedScoreStore, the game is also appended to the player's shard, so
+ * players on different shards never wait for each other. If it was given
+ * a Leaderboard, each finished game is added to it and the player is told
+ * the game's place among all recorded games.
+ *
+ * A server created with a seed skips the pool and gives every session its
+ * own QuestionGenerator, split from one SplittableRandom in the order the
+ * connections were accepted. The same seed and the same players then
+ * replay the same games, which makes load tests reproducible.
+ *
+ * switchWorld() points new sessions at a reloaded World. Sessions that
+ * are already running finish with the questions they were given.
+ *
+ * close() gives running sessions a short grace period to finish, then
+ * closes the connections of any that are still waiting on their players,
+ * so a client that never answers cannot hold up shutdown.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class WordGameServer
+    implements Closeable
+{
+
+    public static final String QUESTION = "QUESTION";
+    public static final String CORRECT = "CORRECT";
+    public static final String TRY_AGAIN = "TRY_AGAIN";
+    public static final String INCORRECT = "INCORRECT";
+    public static final String SUMMARY = "SUMMARY";
+    public static final String PLAYER = "PLAYER";
+    public static final String RANK = "RANK";
+
+    private static final int DEFAULT_PORT = 5522;
+    private static final int BACKLOG = 4096;
+    private static final int POOL_CAPACITY = 4096;
+    private static final byte NEWLINE = '\n';
+    private static final byte[] QUESTION_BYTES = (QUESTION + " ").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CORRECT_BYTES = CORRECT.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRY_AGAIN_BYTES = TRY_AGAIN.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INCORRECT_BYTES = (INCORRECT + " ").getBytes(StandardCharsets.US_ASCII);
+    private static final Path SCORE_FILE = Paths.get("src/MyCode/server_score.txt");
+    private static final Path PLAYER_DIRECTORY = Paths.get("src/MyCode/server_players");
+    private static final String PLAYER_ID_PREFIX = "p";
+    private static final char PLAYER_ID_SEPARATOR = '-';
+    private static final int PLAYER_ID_RADIX = Character.MAX_RADIX;
+    private static final int JOURNAL_BATCH_SIZE = 256;
+    private static final long JOURNAL_MAX_DELAY_MILLIS = 50L;
+    private static final int LEADERBOARD_KEEP = 100;
+    private static final long SHUTDOWN_GRACE_MILLIS = 2000L;
+
+    private final QuestionPool questions;
+    private final SplittableRandom sessionSeeds;
+    private final ScoreJournal journal;
+    private final Leaderboard leaderboard;
+    private final ShardedScoreStore players;
+    private final String playerIdStart;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions;
+    private final Set<Socket> liveSockets;
+
+    private volatile World world;
+    private long nextPlayer;
+
+    /**
+     * Creates a server bound to the loopback address that does not record
+     * scores.
+     *
+     * @param world the World shared by every session
+     * @param port  the port to listen on, or 0 to pick a free port
+     *
+     * @throws IOException if the port cannot be bound
+     */
+    public WordGameServer(final World world,
+                          final int port)
+        throws IOException
+    {
+        this(world, port, null);
+    }
+
+    /**
+     * Creates a server bound to the loopback address.
+     *
+     * @param world   the World shared by every session
+     * @param port    the port to listen on, or 0 to pick a free port
+     * @param journal the journal finished games are recorded in, or null
+     *
+     * @throws IOException if the port cannot be bound
+     */
+    public WordGameServer(final World world,
+                          final int port,
+                          final ScoreJournal journal)
+        throws IOException
+    {
+        this(world, port, journal, null);
+    }
+
+    /**
+     * Creates a server bound to the loopback address that ranks every
+     * finished game.
+     *
+     * @param world       the World shared by every session
+     * @param port        the port to listen on, or 0 to pick a free port
+     * @param journal     the journal finished games are recorded in, or null
+     * @param leaderboard the leaderboard finished games are added to, or null
+     *
+     * @throws IOException if the port cannot be bound
+     */
+    public WordGameServer(final World world,
+                          final int port,
+                          final ScoreJournal journal,
+                          final Leaderboard leaderboard)
+        throws IOException
+    {
+        this(world, port, journal, leaderboard, null);
+    }
+
+    /**
+     * Creates a server bound to the loopback address that ranks every
+     * finished game and keeps each player's games in a sharded store.
+     *
+     * @param world       the World shared by every session
+     * @param port        the port to listen on, or 0 to pick a free port
+     * @param journal     the journal finished games are recorded in, or null
+     * @param leaderboard the leaderboard finished games are added to, or null
+     * @param players     the store each player's games are appended to, or null
+     *
+     * @throws IOException if the port cannot be bound
+     */
+    public WordGameServer(final World world,
+                          final int port,
+                          final ScoreJournal journal,
+                          final Leaderboard leaderboard,
+                          final ShardedScoreStore players)
+        throws IOException
+    {
+        this(world, port, journal, leaderboard, players,
+             new QuestionPool(world, POOL_CAPACITY, new SplittableRandom()), null);
+    }
+
+    /**
+     * Creates a server bound to the loopback address whose sessions draw
+     * their questions from generators split from the given seed.
+     *
+     * @param world   the World shared by every session
+     * @param port    the port to listen on, or 0 to pick a free port
+     * @param journal the journal finished games are recorded in, or null
+     * @param seed    the seed every session's randomness is split from
+     *
+     * @throws IOException if the port cannot be bound
+     */
+    public WordGameServer(final World world,
+                          final int port,
+                          final ScoreJournal journal,
+                          final long seed)
+        throws IOException
+    {
+        this(world, port, journal, null, null, null, new SplittableRandom(seed));
+    }
+
+    private WordGameServer(final World world,
+                           final int port,
+                           final ScoreJournal journal,
+                           final Leaderboard leaderboard,
+                           final ShardedScoreStore players,
+                           final QuestionPool questions,
+                           final SplittableRandom sessionSeeds)
+        throws IOException
+    {
+        this.world        = world;
+        this.journal      = journal;
+        this.leaderboard  = leaderboard;
+        this.players      = players;
+        this.questions    = questions;
+        this.sessionSeeds = sessionSeeds;
+        playerIdStart     = PLAYER_ID_PREFIX
+                            + Long.toString(System.currentTimeMillis(), PLAYER_ID_RADIX)
+                            + PLAYER_ID_SEPARATOR;
+        serverSocket      = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        sessions          = Executors.newVirtualThreadPerTaskExecutor();
+        liveSockets       = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Starts accepting connections on a background virtual thread.
+     */
+    public void start()
+    {
+        Thread.ofVirtual().name("word-game-acceptor").start(this::acceptLoop);
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return the bound port
+     */
+    public int getPort()
+    {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Makes sessions started from now on ask about the given World.
+     *
+     * @param world the World to use for new sessions
+     */
+    public void switchWorld(final World world)
+    {
+        this.world = world;
+
+        if (questions != null)
+        {
+            questions.switchWorld(world);
+        }
+    }
+
+    /**
+     * Stops accepting connections and lets running sessions finish for a
+     * short grace period. Sessions still running after it have their
+     * connections closed, which ends them.
+     *
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        try
+        {
+            serverSocket.close();
+        }
+        finally
+        {
+            sessions.shutdown();
+
+            try
+            {
+                if (!sessions.awaitTermination(SHUTDOWN_GRACE_MILLIS, TimeUnit.MILLISECONDS))
+                {
+                    closeLiveSockets();
+
+                    if (!sessions.awaitTermination(SHUTDOWN_GRACE_MILLIS, TimeUnit.MILLISECONDS))
+                    {
+                        sessions.shutdownNow();
+                    }
+                }
+            }
+            catch (final InterruptedException ex)
+            {
+                closeLiveSockets();
+                sessions.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+
+            if (questions != null)
+            {
+                questions.close();
+            }
+        }
+    }
+
+    /*
+     * Closes every connection that still has a session, so sessions
+     * blocked reading from their players fail and end.
+     */
+    private void closeLiveSockets()
+    {
+        for (final Socket socket : liveSockets)
+        {
+            try
+            {
+                socket.close();
+            }
+            catch (final IOException ex)
+            {
+                // the session ends either way
+            }
+        }
+    }
+
+    private void acceptLoop()
+    {
+        while (!serverSocket.isClosed())
+        {
+            try
+            {
+                final Socket socket;
+                socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+
+                final QuestionSource source;
+                final String playerId;
+
+                source   = questionsForNextSession();
+                playerId = nextPlayerId();
+
+                liveSockets.add(socket);
+
+                try
+                {
+                    sessions.submit(() -> serve(socket, source, playerId));
+                }
+                catch (final RejectedExecutionException ex)
+                {
+                    // accepted just as the server was closed
+                    liveSockets.remove(socket);
+                    socket.close();
+                }
+            }
+            catch (final IOException ex)
+            {
+                // accept() fails once the server socket is closed; the loop then ends
+            }
+        }
+    }
+
+    /*
+     * Picks where the next session's questions come from. Called only on
+     * the acceptor thread, so seeded sessions are split in accept order.
+     */
+    private QuestionSource questionsForNextSession()
+    {
+        if (sessionSeeds == null)
+        {
+            return questions;
+        }
+        return new QuestionGenerator(world, sessionSeeds.split());
+    }
+
+    /*
+     * Gives the next connection its player id. Called only on the acceptor
+     * thread, so the counter needs no lock.
+     */
+    private String nextPlayerId()
+    {
+        final String playerId;
+        playerId = playerIdStart + Long.toString(nextPlayer, PLAYER_ID_RADIX);
+
+        nextPlayer++;
+        return playerId;
+    }
+
+    /*
+     * Plays one game with the connected player. A player who disconnects
+     * early simply ends the session.
+     */
+    private void serve(final Socket socket,
+                       final QuestionSource source,
+                       final String playerId)
+    {
+        try (socket;
+             BufferedReader in = new BufferedReader(
+                 new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedOutputStream out = new BufferedOutputStream(socket.getOutputStream()))
+        {
+            final GameSession session;
+            session = new GameSession(source);
+
+            while (!session.isFinished())
+            {
+                final Question question;
+                question = session.currentQuestion();
+
+                if (session.currentAttempt() == GameSession.FIRST_ATTEMPT)
+                {
+                    out.write(QUESTION_BYTES);
+                    writeLine(out, question.getPromptLineBytes());
+                }
+
+                final String guess;
+                guess = in.readLine();
+
+                if (guess == null)
+                {
+                    return;
+                }
+
+                final AnswerResult result;
+                result = session.submit(guess.trim());
+
+                if (result == AnswerResult.INCORRECT)
+                {
+                    out.write(INCORRECT_BYTES);
+                    writeLine(out, question.getAnswerBytes());
+                }
+                else if (result == AnswerResult.TRY_AGAIN)
+                {
+                    writeLine(out, TRY_AGAIN_BYTES);
+                }
+                else
+                {
+                    writeLine(out, CORRECT_BYTES);
+                }
+            }
+
+            writeLine(out, (SUMMARY + " "
+                            + session.getCorrectFirst() + " "
+                            + session.getCorrectSecond() + " "
+                            + session.getIncorrectBoth()).getBytes(StandardCharsets.US_ASCII));
+            writeLine(out, (PLAYER + " " + playerId).getBytes(StandardCharsets.US_ASCII));
+
+            final Score score;
+            score = new Score(LocalDateTime.now(),
+                              playerId,
+                              1,
+                              session.getCorrectFirst(),
+                              session.getCorrectSecond(),
+                              session.getIncorrectBoth());
+
+            if (journal != null)
+            {
+                journal.record(score);
+            }
+
+            if (players != null)
+            {
+                recordForPlayer(score);
+            }
+
+            if (leaderboard != null)
+            {
+                leaderboard.add(score);
+                writeLine(out, (RANK + " "
+                                + leaderboard.rankOf(score.getScore()) + " "
+                                + leaderboard.size()).getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+        catch (final IOException ex)
+        {
+            // the player disconnected; nothing to clean up beyond the socket
+        }
+        finally
+        {
+            liveSockets.remove(socket);
+        }
+    }
+
+    /*
+     * Appends a finished game to its player's shard. A shard that cannot
+     * be written is reported rather than ending the session, since the
+     * game is still in the journal and the player still gets a rank.
+     */
+    private void recordForPlayer(final Score score)
+    {
+        try
+        {
+            players.append(score);
+        }
+        catch (final IOException ex)
+        {
+            System.out.println("Warning: could not record a game for " + score.getPlayerId()
+                               + " (" + ex.getMessage() + ").");
+        }
+    }
+
+    /*
+     * Runs every shutdown step in order. A step that fails is reported and
+     * the rest still run, so scores are saved even if stopping the server
+     * or the watcher fails.
+     */
+    private static void shutDown(final Closeable... steps)
+    {
+        for (final Closeable step : steps)
+        {
+            try
+            {
+                step.close();
+            }
+            catch (final IOException | RuntimeException ex)
+            {
+                System.out.println("Error: could not shut down cleanly (" + ex.getMessage() + ").");
+            }
+        }
+    }
+
+    private static void writeLine(final BufferedOutputStream out,
+                                  final byte[] line)
+        throws IOException
+    {
+        out.write(line);
+        out.write(NEWLINE);
+        out.flush();
+    }
+
+    /**
+     * Starts a server on the given port (5522 by default) and keeps
+     * serving until the process is stopped. Finished games are recorded
+     * in src/MyCode/server_score.txt, ranked on a leaderboard and added
+     * to running totals that are both saved next to it, and kept per
+     * player in the shards under src/MyCode/server_players. Edits to the
+     * country files are picked up without a restart.
+     *
+     * @param args optional port number
+     *
+     * @throws IOException if the World cannot be loaded or the port cannot be bound
+     */
+    public static void main(final String[] args)
+        throws IOException
+    {
+        final int port;
+
+        if (args.length > 0)
+        {
+            port = Integer.parseInt(args[0]);
+        }
+        else
+        {
+            port = DEFAULT_PORT;
+        }
+
+        Files.createDirectories(SCORE_FILE.toAbsolutePath().getParent());
+
+        // opened before the journal starts appending, so no entry is read twice
+        final Leaderboard leaderboard;
+        final ScoreAggregates aggregates;
+
+        leaderboard = Leaderboard.open(SCORE_FILE, LEADERBOARD_KEEP);
+        aggregates  = ScoreAggregates.open(SCORE_FILE);
+
+        final ScoreJournal journal;
+        journal = new ScoreJournal(SCORE_FILE,
+                                   JOURNAL_BATCH_SIZE,
+                                   JOURNAL_MAX_DELAY_MILLIS,
+                                   TimeUnit.MILLISECONDS,
+                                   ScoreJournal.SyncPolicy.NONE,
+                                   aggregates);
+
+        final ShardedScoreStore players;
+        players = ShardedScoreStore.open(PLAYER_DIRECTORY, ShardedScoreStore.DEFAULT_SHARDS);
+
+        final WordGameServer server;
+        server = new WordGameServer(WorldRegistry.get(), port, journal, leaderboard, players);
+
+        final WorldWatcher watcher;
+        watcher = WorldRegistry.watch(server::switchWorld);
+
+        // the journal also checkpoints the aggregates when it closes
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> shutDown(watcher,
+                                                                       server,
+                                                                       journal,
+                                                                       players,
+                                                                       () -> leaderboard.checkpoint(SCORE_FILE))));
+
+        System.out.println("Word game server listening on port " + server.getPort());
+        server.acceptLoop();
+    }
+
+}
@@ -2,11 +2,17 @@ package ca.bcit.comp2522.wordGame;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Loads and stores all Country objects used by the Word Game.
@@ -21,6 +27,15 @@ import java.util.Map;
  * This class is responsible only for building and providing access
  * to Country data. It does not perform gameplay logic.
  *
+ * A World is immutable once built, so one instance can be shared by
+ * every game session (see WorldRegistry). When a letter file changes,
+ * withLetterFile() builds a new World that re-reads only that file.
+ *
+ * Building a World only reads the countries into the map and the
+ * CountryTable. The answer, prefix and fact indexes and the suggestion
+ * trees are each built the first time they are asked for, so loading
+ * from a snapshot costs little more than reading it.
+ *
  * Author: Arshia Adamian
  * Version: 1.0
  */
@@ -29,7 +44,21 @@ public class World
 
     public final static int NUMBER_OF_WORDS_IN_FIRST_LINE = 2;
 
+    static final char FIRST_LETTER = 'a';
+    static final char LAST_LETTER = 'z';
+    static final String BAD_HEADER = "Expected a \"CountryName:CapitalCity\" header";
+
+    private final List<List<Country>> letterCountries;
     private final Map<String, Country> countries;
+    private final List<Country> countryList;
+    private final CountryTable countryTable;
+
+    private volatile AnswerIndex answerIndex;
+    private volatile FactIndex factIndex;
+    private volatile PrefixIndex countryPrefixes;
+    private volatile PrefixIndex capitalPrefixes;
+    private volatile BkTree countrySuggestions;
+    private volatile BkTree capitalSuggestions;
 
     /**
      * Creates a World and loads all country data from the directory.
@@ -49,44 +78,301 @@ public class World
     public World(final Path directory)
         throws IOException
     {
-        countries = new HashMap<>();
+        this(readLetterFiles(directory));
+    }
+
+    /**
+     * Creates a World from the countries of each letter file.
+     * The lists are merged in letter order, so a country named in more
+     * than one file takes its entry from the later file.
+     *
+     * @param letters one list per letter from 'a' to 'z', in file order
+     */
+    private World(final List<List<Country>> letters)
+    {
+        final List<List<Country>> frozen;
+        final Map<String, Country> merged;
+
+        frozen = new ArrayList<>(letters.size());
+        merged = new HashMap<>();
+
+        for (final List<Country> letter : letters)
+        {
+            // unchanged letters are already immutable, so copyOf reuses them
+            frozen.add(List.copyOf(letter));
+
+            for (final Country country : letter)
+            {
+                merged.put(country.getName(), country);
+            }
+        }
+
+        letterCountries = List.copyOf(frozen);
+        countries       = Collections.unmodifiableMap(merged);
+        countryList     = List.copyOf(merged.values());
+        countryTable    = new CountryTable(countryList);
+    }
+
+    /**
+     * Creates a World from countries that were already read, one list per
+     * letter file from 'a' to 'z'.
+     *
+     * @param letters the countries of each letter file, in file order
+     *
+     * @return a World holding the countries
+     */
+    static World fromLetters(final List<List<Country>> letters)
+    {
+        return new World(letters);
+    }
+
+    /*
+     * Reads the files 'a.txt' to 'z.txt' into one list per letter.
+     */
+    private static List<List<Country>> readLetterFiles(final Path directory)
+        throws IOException
+    {
+        final List<List<Country>> letters;
+        letters = new ArrayList<>();
 
         // loop from 'a' to 'z'
-        for (char letter = 'a'; letter <= 'z'; letter++)
+        for (char letter = FIRST_LETTER; letter <= LAST_LETTER; letter++)
         {
             final Path filePath;
-            filePath = Paths.get(directory.toString(), letter + ".txt");
+            final List<Country> loaded;
+
+            filePath = letterFile(directory, letter);
+            loaded   = new ArrayList<>();
 
             // if the file exists, read and parse it
             if (Files.exists(filePath))
             {
-                readFile(filePath);
+                readFile(filePath, loaded);
+            }
+
+            letters.add(loaded);
+        }
+
+        return letters;
+    }
+
+    /**
+     * Loads all country data from the directory using the parallel loader.
+     *
+     * Every letter file is memory-mapped and parsed by a CountryFileScanner
+     * on the given fork-join pool. The per-file results are then merged in
+     * letter order, so the resulting map is identical to the one built by
+     * the World(Path) constructor, including which entry wins when a
+     * country name appears more than once.
+     *
+     * @param directory the directory containing the country data files
+     * @param pool      the fork-join pool that parses the files
+     *
+     * @return a World holding every country found in the directory
+     *
+     * @throws IOException if any file cannot be read
+     */
+    public static World loadParallel(final Path directory,
+                                     final ForkJoinPool pool)
+        throws IOException
+    {
+        final List<LetterFileTask> tasks;
+        tasks = new ArrayList<>();
+
+        for (char letter = FIRST_LETTER; letter <= LAST_LETTER; letter++)
+        {
+            tasks.add(new LetterFileTask(letterFile(directory, letter)));
+        }
+
+        for (final LetterFileTask task : tasks)
+        {
+            pool.execute(task);
+        }
+
+        final List<List<Country>> letters;
+        letters = new ArrayList<>();
+
+        try
+        {
+            for (final LetterFileTask task : tasks)
+            {
+                letters.add(task.join());
             }
         }
+        catch (final UncheckedIOException ex)
+        {
+            throw ex.getCause();
+        }
+
+        return new World(letters);
+    }
+
+    /**
+     * Loads all country data from the directory on the common fork-join pool.
+     *
+     * @param directory the directory containing the country data files
+     *
+     * @return a World holding every country found in the directory
+     *
+     * @throws IOException if any file cannot be read
+     *
+     * @see #loadParallel(Path, ForkJoinPool)
+     */
+    public static World loadParallel(final Path directory)
+        throws IOException
+    {
+        return loadParallel(directory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads all country data, using a binary snapshot when it is current.
+     *
+     * If the snapshot file exists and was written from the same text files
+     * (same sizes and modification times), the countries are read from it
+     * with a single mapped read. Otherwise the text files are parsed with
+     * the parallel loader and a fresh snapshot is written for next time.
+     *
+     * @param directory    the directory containing the country data files
+     * @param snapshotFile the binary snapshot to read from or write to
+     *
+     * @return a World holding every country found in the directory
+     *
+     * @throws IOException if the text files cannot be read
+     */
+    public static World load(final Path directory,
+                             final Path snapshotFile)
+        throws IOException
+    {
+        final long fingerprint;
+        fingerprint = WorldSnapshot.fingerprint(directory);
+
+        final List<List<Country>> cached;
+        cached = WorldSnapshot.read(snapshotFile, fingerprint);
+
+        if (cached != null)
+        {
+            return new World(cached);
+        }
+
+        final World world;
+        world = loadParallel(directory);
+
+        try
+        {
+            WorldSnapshot.write(world, snapshotFile, fingerprint);
+        }
+        catch (final IOException ex)
+        {
+            // The snapshot is only a cache; the World is still usable without it.
+        }
+
+        return world;
+    }
+
+    /**
+     * Returns a copy of this World in which one letter file has been read
+     * again. Only that file is parsed; every other letter keeps the
+     * countries this World already holds, and no index is built until the
+     * new World is asked for one. What remains is linking the shared
+     * Country objects into the new country map and table. This World is not
+     * changed, so sessions that hold it keep playing with the old data.
+     *
+     * @param directory the directory containing the country data files
+     * @param letter    the lowercase letter naming the changed file
+     *
+     * @return a new World with the letter's countries replaced
+     *
+     * @throws IOException if the file exists but cannot be read
+     */
+    public World withLetterFile(final Path directory,
+                                final char letter)
+        throws IOException
+    {
+        if (letter < FIRST_LETTER || letter > LAST_LETTER)
+        {
+            throw new IllegalArgumentException("Not a letter file: " + letter);
+        }
+
+        final Path filePath;
+        filePath = letterFile(directory, letter);
+
+        final List<Country> reread;
+
+        if (Files.exists(filePath))
+        {
+            reread = CountryFileScanner.scan(filePath);
+        }
+        else
+        {
+            reread = List.of();
+        }
+
+        final List<List<Country>> letters;
+        letters = new ArrayList<>(letterCountries);
+        letters.set(letter - FIRST_LETTER, reread);
+
+        return new World(letters);
+    }
+
+    /**
+     * Returns the countries read from one letter file, in file order.
+     * A country that a later file also names is still listed here.
+     *
+     * @param letter the lowercase letter naming the file
+     *
+     * @return an unmodifiable list of the file's countries
+     */
+    List<Country> getLetterCountries(final char letter)
+    {
+        return letterCountries.get(letter - FIRST_LETTER);
+    }
+
+    /**
+     * Returns the path of the data file for one letter of the alphabet.
+     *
+     * @param directory the directory containing the country data files
+     * @param letter    the lowercase letter naming the file
+     *
+     * @return the path to the letter's data file
+     */
+    static Path letterFile(final Path directory,
+                           final char letter)
+    {
+        return Paths.get(directory.toString(), letter + ".txt");
     }
 
     /**
      * Reads a single data file and creates a Country object from it.
-     * Adds the Country to the internal map using the country's name
-     * as the key.
+     * Adds each Country to the list in the order it appears in the file.
      *
      * The first line must contain a country name and capital city,
      * separated by a colon. The next three lines are the country facts.
+     * An entry whose header does not have exactly one colon, or that has
+     * fewer than three facts before a blank line or the end of the file,
+     * is skipped with a warning and reading picks up again at the next
+     * blank line, the same way CorpusValidator does. One bad entry never
+     * loses the ones after it.
      *
      * @param filePath the path to the country data file
+     * @param loaded   the list that receives the parsed countries, in file order
      *
      * @throws IOException if the file cannot be read
      */
-    private void readFile(final Path filePath)
+    private static void readFile(final Path filePath,
+                                 final List<Country> loaded)
         throws IOException
     {
         try (BufferedReader reader = Files.newBufferedReader(filePath))
         {
 
             String line;
+            int lineNumber;
+
+            lineNumber = 0;
 
             while ((line = reader.readLine()) != null)
             {
+                lineNumber++;
                 line = line.trim();
 
                 if (line.isEmpty())
@@ -94,12 +380,17 @@ public class World
                     continue;
                 }
 
+                final int headerLine;
+                headerLine = lineNumber;
+
                 // Split first line: country:Capital
                 final String[] parts;
                 parts = line.split(":");
 
                 if (parts.length != NUMBER_OF_WORDS_IN_FIRST_LINE)
                 {
+                    warnSkipped(filePath, headerLine, BAD_HEADER);
+                    lineNumber += skipEntry(reader);
                     continue;
                 }
 
@@ -109,31 +400,103 @@ public class World
                 countryName  = parts[0].trim();
                 provinceName = parts[1].trim();
 
-                // Read 3 facts below it
-                final String fact1;
-                final String fact2;
-                final String fact3;
+                // Read 3 facts below it, stopping early at a blank line
+                final String[] facts;
+                facts = new String[CountryTable.FACTS_PER_COUNTRY];
+
+                int read;
+                read = 0;
+
+                while (read < facts.length)
+                {
+                    final String fact;
+                    fact = reader.readLine();
+
+                    if (fact == null)
+                    {
+                        break;
+                    }
 
-                fact1 = reader.readLine();
-                fact2 = reader.readLine();
-                fact3 = reader.readLine();
+                    lineNumber++;
 
-                if (fact1 == null || fact2 == null || fact3 == null)
+                    if (fact.trim().isEmpty())
+                    {
+                        break;
+                    }
+
+                    facts[read++] = fact;
+                }
+
+                if (read < facts.length)
                 {
-                    break;
+                    warnSkipped(filePath, headerLine, shortEntry(read));
+                    continue;
                 }
 
                 final Country country;
-                country = new Country(countryName, provinceName, fact1, fact2, fact3);
+                country = new Country(countryName, provinceName, facts[0], facts[1], facts[2]);
+
+                loaded.add(country);
+            }
+        }
+    }
+
+    /*
+     * Skips the rest of a broken entry, up to and including the next blank
+     * line, and returns how many lines were skipped.
+     */
+    private static int skipEntry(final BufferedReader reader)
+        throws IOException
+    {
+        int skipped;
+        String line;
 
-                countries.put(countryName, country);
+        skipped = 0;
+
+        while ((line = reader.readLine()) != null)
+        {
+            skipped++;
+
+            if (line.trim().isEmpty())
+            {
+                break;
             }
         }
+
+        return skipped;
+    }
+
+    /**
+     * Returns why an entry with too few facts was skipped.
+     *
+     * @param read how many facts the entry has
+     *
+     * @return the reason, worded as CorpusValidator reports it
+     */
+    static String shortEntry(final int read)
+    {
+        return "Entry has " + read + " of " + CountryTable.FACTS_PER_COUNTRY + " facts";
+    }
+
+    /**
+     * Prints a warning that a loader skipped a bad entry.
+     *
+     * @param filePath the data file holding the entry
+     * @param line     the line of the entry's header
+     * @param reason   what is wrong with the entry
+     */
+    static void warnSkipped(final Path filePath,
+                            final int line,
+                            final String reason)
+    {
+        System.out.println("Warning: skipping bad entry at "
+                           + new ValidationReport.Problem(filePath.getFileName().toString(), line, reason) + ".");
     }
 
     /**
      * Returns the complete map of all loaded countries.
      * The keys are country names, and the values are Country objects.
+     * The map cannot be modified.
      *
      * @return a map containing all countries in the World
      */
@@ -142,6 +505,203 @@ public class World
         return countries;
     }
 
+    /**
+     * Returns every loaded country as a list with fast random access.
+     * The list is built once per World and cannot be modified, so game
+     * sessions can index into it without copying.
+     *
+     * @return an unmodifiable list of all countries in the World
+     */
+    public List<Country> getCountryList()
+    {
+        return countryList;
+    }
+
+    /**
+     * Returns the columnar view of the countries. A country's id in the
+     * table is its index in getCountryList().
+     *
+     * @return the CountryTable for this World
+     */
+    public CountryTable getCountryTable()
+    {
+        return countryTable;
+    }
+
+    /**
+     * Returns the index of normalised country and capital names. It is
+     * built the first time it is asked for, when the first game starts,
+     * so loading a World only reads the countries.
+     *
+     * @return the AnswerIndex for this World
+     */
+    public AnswerIndex getAnswerIndex()
+    {
+        AnswerIndex index;
+        index = answerIndex;
+
+        if (index == null)
+        {
+            synchronized (this)
+            {
+                index = answerIndex;
+
+                if (index == null)
+                {
+                    index       = new AnswerIndex(countryTable);
+                    answerIndex = index;
+                }
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the index that completes partly typed country names.
+     * It is built the first time it is asked for. The ids it returns are
+     * CountryTable ids.
+     *
+     * @return the PrefixIndex over country names
+     */
+    public PrefixIndex getCountryPrefixes()
+    {
+        PrefixIndex index;
+        index = countryPrefixes;
+
+        if (index == null)
+        {
+            synchronized (this)
+            {
+                index = countryPrefixes;
+
+                if (index == null)
+                {
+                    index           = new PrefixIndex(countryTable.size(), countryTable::name);
+                    countryPrefixes = index;
+                }
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the index that completes partly typed capital names.
+     * It is built the first time it is asked for. The ids it returns are
+     * the CountryTable ids of the capitals' countries.
+     *
+     * @return the PrefixIndex over capital names
+     */
+    public PrefixIndex getCapitalPrefixes()
+    {
+        PrefixIndex index;
+        index = capitalPrefixes;
+
+        if (index == null)
+        {
+            synchronized (this)
+            {
+                index = capitalPrefixes;
+
+                if (index == null)
+                {
+                    index           = new PrefixIndex(countryTable.size(), countryTable::capital);
+                    capitalPrefixes = index;
+                }
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the index from the words in facts to the countries that use
+     * them. It is built the first time it is asked for, since only keyword
+     * questions need it.
+     *
+     * @return the FactIndex for this World
+     */
+    public FactIndex getFactIndex()
+    {
+        FactIndex index;
+        index = factIndex;
+
+        if (index == null)
+        {
+            synchronized (this)
+            {
+                index = factIndex;
+
+                if (index == null)
+                {
+                    index     = new FactIndex(countryTable);
+                    factIndex = index;
+                }
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the tree that suggests country names close to a misspelt
+     * guess. It is built the first time it is asked for, since most games
+     * never need it. The ids it returns are CountryTable ids.
+     *
+     * @return the BkTree over country names
+     */
+    public BkTree getCountrySuggestions()
+    {
+        BkTree tree;
+        tree = countrySuggestions;
+
+        if (tree == null)
+        {
+            synchronized (this)
+            {
+                tree = countrySuggestions;
+
+                if (tree == null)
+                {
+                    tree               = new BkTree(countryTable.size(), countryTable::name);
+                    countrySuggestions = tree;
+                }
+            }
+        }
+
+        return tree;
+    }
+
+    /**
+     * Returns the tree that suggests capital names close to a misspelt
+     * guess. It is built the first time it is asked for. The ids it
+     * returns are the CountryTable ids of the capitals' countries.
+     *
+     * @return the BkTree over capital names
+     */
+    public BkTree getCapitalSuggestions()
+    {
+        BkTree tree;
+        tree = capitalSuggestions;
+
+        if (tree == null)
+        {
+            synchronized (this)
+            {
+                tree = capitalSuggestions;
+
+                if (tree == null)
+                {
+                    tree               = new BkTree(countryTable.size(), countryTable::capital);
+                    capitalSuggestions = tree;
+                }
+            }
+        }
+
+        return tree;
+    }
+
     /**
      * Retrieves a Country object by its name.
      * Returns null if the country is not found.
@@ -155,5 +715,41 @@ public class World
         return countries.get(countryName);
     }
 
-}
+    /**
+     * Parses one letter file on a fork-join worker.
+     * A missing file produces an empty list, matching World(Path).
+     */
+    private static final class LetterFileTask
+        extends RecursiveTask<List<Country>>
+    {
+
+        private static final long serialVersionUID = 1L;
+
+        // tasks are never serialized; Path is not Serializable
+        private final transient Path filePath;
+
+        private LetterFileTask(final Path filePath)
+        {
+            this.filePath = filePath;
+        }
+
+        @Override
+        protected List<Country> compute()
+        {
+            if (!Files.exists(filePath))
+            {
+                return List.of();
+            }
 
+            try
+            {
+                return CountryFileScanner.scan(filePath);
+            }
+            catch (final IOException ex)
+            {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Consumer;
+
+/**
+ * Holds the single World shared by every Word Game session in the process.
+ *
+ * The World is loaded lazily the first time it is requested and then
+ * reused, so the country tables are only built and stored once no matter
+ * how many games are started. Because a World is immutable, sessions can
+ * read it from any thread. Calling reload() replaces the shared World;
+ * sessions that already hold the old one keep using it.
+ *
+ * reloadLetter() replaces it with a copy in which only one letter file
+ * was read again, and watch() does that automatically whenever a letter
+ * file is saved. The snapshot file is not rewritten by these; its
+ * fingerprint no longer matches, so the next start reads the text files.
+ *
+ * If a data file holds a bad entry, such as a malformed header or an
+ * entry cut short by a half-saved file, a warning is printed and only that
+ * entry is left out, both when the World is loaded and when a letter file
+ * is read again. CorpusValidator gives the full report.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class WorldRegistry
+{
+
+    private static final Path DATA_DIRECTORY = Paths.get("src/myResources/countries");
+    private static final Path SNAPSHOT_FILE = Paths.get("src/myResources/countries.snapshot");
+
+    private static volatile World current;
+
+    private WorldRegistry()
+    {
+    }
+
+    /**
+     * Returns the shared World, loading it on the first call.
+     *
+     * @return the World shared by all sessions
+     *
+     * @throws IOException if the country data cannot be loaded
+     */
+    public static World get()
+        throws IOException
+    {
+        World world;
+        world = current;
+
+        if (world == null)
+        {
+            synchronized (WorldRegistry.class)
+            {
+                world = current;
+
+                if (world == null)
+                {
+                    world   = World.load(DATA_DIRECTORY, SNAPSHOT_FILE);
+                    current = world;
+                }
+            }
+        }
+
+        return world;
+    }
+
+    /**
+     * Loads the country data again and makes it the shared World.
+     * New calls to get() return the reloaded World.
+     *
+     * @return the newly loaded World
+     *
+     * @throws IOException if the country data cannot be loaded; the
+     *                     previous World stays in place
+     */
+    public static World reload()
+        throws IOException
+    {
+        synchronized (WorldRegistry.class)
+        {
+            final World world;
+            world = World.load(DATA_DIRECTORY, SNAPSHOT_FILE);
+
+            current = world;
+            return world;
+        }
+    }
+
+    /**
+     * Reads one letter file again and makes the result the shared World.
+     * Every other letter keeps the countries already loaded, so only the
+     * changed file is parsed.
+     *
+     * @param letter the lowercase letter naming the changed file
+     *
+     * @return the updated World
+     *
+     * @throws IOException if the file cannot be read; the previous World
+     *                     stays in place
+     */
+    public static World reloadLetter(final char letter)
+        throws IOException
+    {
+        synchronized (WorldRegistry.class)
+        {
+            final World world;
+            world = get().withLetterFile(DATA_DIRECTORY, letter);
+
+            current = world;
+            return world;
+        }
+    }
+
+    /**
+     * Starts watching the country data directory. Every time a letter file
+     * changes it is read again with reloadLetter() and the new World is
+     * passed to the listener.
+     *
+     * @param listener called on the watcher thread with each updated World
+     *
+     * @return the running watcher; close it to stop watching
+     *
+     * @throws IOException if the directory cannot be watched
+     */
+    public static WorldWatcher watch(final Consumer<World> listener)
+        throws IOException
+    {
+        return new WorldWatcher(DATA_DIRECTORY, letter -> listener.accept(reloadLetter(letter)));
+    }
+
+}
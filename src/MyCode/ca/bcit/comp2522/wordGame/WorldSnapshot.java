@@ -0,0 +1,355 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes a compact binary snapshot of a World.
+ *
+ * The snapshot lets later starts skip parsing the text files. It is laid
+ * out as:
+ *   header       magic, version, source fingerprint, content checksum, count
+ *   letters      how many countries came from each letter file, 'a' to 'z'
+ *   index        one fixed-width row per country, in letter-file order,
+ *                holding the offset and length of its name, capital and
+ *                three facts
+ *   string table the UTF-8 bytes of every string, back to back
+ *
+ * The source fingerprint is built from the size and modification time of
+ * every letter file. If any file changes, the snapshot is treated as
+ * stale and the caller falls back to the text files.
+ *
+ * Only the countries are stored. The World's indexes are built the first
+ * time they are asked for, so a start from a snapshot does no more than
+ * read it and fill the country map.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+final class WorldSnapshot
+{
+
+    private static final int MAGIC = 0x57475331; // "WGS1"
+    private static final int VERSION = 2;
+    private static final int LETTER_COUNT = World.LAST_LETTER - World.FIRST_LETTER + 1;
+    private static final int LETTERS_BYTES = LETTER_COUNT * Integer.BYTES;
+    private static final int STRINGS_PER_COUNTRY = 5;
+    private static final int INTS_PER_STRING = 2;
+    private static final int ROW_BYTES = STRINGS_PER_COUNTRY * INTS_PER_STRING * Integer.BYTES;
+    private static final int HEADER_BYTES = Integer.BYTES     // magic
+                                            + Integer.BYTES   // version
+                                            + Long.BYTES      // source fingerprint
+                                            + Long.BYTES      // content checksum
+                                            + Integer.BYTES;  // country count
+    private static final long MISSING_FILE = -1L;
+
+    private WorldSnapshot()
+    {
+    }
+
+    /**
+     * Computes a fingerprint of the letter files in the directory from
+     * their sizes and modification times. Missing files are included
+     * too, so adding or removing a letter file changes the fingerprint.
+     *
+     * @param directory the directory containing the country data files
+     *
+     * @return the fingerprint of the current text files
+     *
+     * @throws IOException if a file's attributes cannot be read
+     */
+    static long fingerprint(final Path directory)
+        throws IOException
+    {
+        final CRC32 crc;
+        final ByteBuffer entry;
+
+        crc   = new CRC32();
+        entry = ByteBuffer.allocate(Long.BYTES * 2);
+
+        for (char letter = World.FIRST_LETTER; letter <= World.LAST_LETTER; letter++)
+        {
+            final Path filePath;
+            filePath = World.letterFile(directory, letter);
+
+            entry.clear();
+
+            if (Files.exists(filePath))
+            {
+                entry.putLong(Files.size(filePath));
+                entry.putLong(Files.getLastModifiedTime(filePath).toMillis());
+            }
+            else
+            {
+                entry.putLong(MISSING_FILE);
+                entry.putLong(MISSING_FILE);
+            }
+
+            entry.flip();
+            crc.update(entry);
+        }
+
+        return crc.getValue();
+    }
+
+    /**
+     * Writes a snapshot of every letter file's countries in the World.
+     * The file is written next to its final location and then moved into
+     * place, so a reader never sees a half-written snapshot.
+     *
+     * @param world        the World to save
+     * @param snapshotFile the file to write
+     * @param fingerprint  the fingerprint of the text files the World came from
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    static void write(final World world,
+                      final Path snapshotFile,
+                      final long fingerprint)
+        throws IOException
+    {
+        final int[] letterCounts;
+        letterCounts = new int[LETTER_COUNT];
+
+        int count;
+        count = 0;
+
+        for (int i = 0; i < LETTER_COUNT; i++)
+        {
+            letterCounts[i] = world.getLetterCountries((char) (World.FIRST_LETTER + i)).size();
+            count += letterCounts[i];
+        }
+
+        final byte[][] strings;
+        strings = new byte[count * STRINGS_PER_COUNTRY][];
+
+        int tableBytes;
+        int slot;
+
+        tableBytes = 0;
+        slot       = 0;
+
+        for (char letter = World.FIRST_LETTER; letter <= World.LAST_LETTER; letter++)
+        {
+            for (final Country country : world.getLetterCountries(letter))
+            {
+                final String[] facts;
+                facts = country.getFacts();
+
+                strings[slot++] = country.getName().getBytes(StandardCharsets.UTF_8);
+                strings[slot++] = country.getCapitalCityName().getBytes(StandardCharsets.UTF_8);
+                strings[slot++] = facts[0].getBytes(StandardCharsets.UTF_8);
+                strings[slot++] = facts[1].getBytes(StandardCharsets.UTF_8);
+                strings[slot++] = facts[2].getBytes(StandardCharsets.UTF_8);
+            }
+        }
+
+        for (final byte[] bytes : strings)
+        {
+            tableBytes += bytes.length;
+        }
+
+        final ByteBuffer body;
+        body = ByteBuffer.allocate(LETTERS_BYTES + count * ROW_BYTES + tableBytes);
+
+        for (final int letterCount : letterCounts)
+        {
+            body.putInt(letterCount);
+        }
+
+        int offset;
+        offset = 0;
+
+        for (final byte[] bytes : strings)
+        {
+            body.putInt(offset);
+            body.putInt(bytes.length);
+            offset += bytes.length;
+        }
+
+        for (final byte[] bytes : strings)
+        {
+            body.put(bytes);
+        }
+
+        body.flip();
+
+        final ByteBuffer header;
+        header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putLong(fingerprint);
+        header.putLong(checksum(body));
+        header.putInt(count);
+        header.flip();
+
+        final Path tempFile;
+        tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(tempFile,
+                                                    StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.WRITE))
+        {
+            while (header.hasRemaining() || body.hasRemaining())
+            {
+                channel.write(new ByteBuffer[]{header, body});
+            }
+        }
+
+        Files.move(tempFile, snapshotFile,
+                   StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Opens a snapshot with a single memory-mapped read and rebuilds the
+     * countries of each letter file it holds.
+     * Returns null if the file is missing, was written for different text
+     * files, or fails its checksum.
+     *
+     * @param snapshotFile        the snapshot to open
+     * @param expectedFingerprint the fingerprint of the current text files
+     *
+     * @return one list of countries per letter from 'a' to 'z', or null if
+     *         the snapshot cannot be used
+     *
+     * @throws IOException if the snapshot exists but cannot be read
+     */
+    static List<List<Country>> read(final Path snapshotFile,
+                                    final long expectedFingerprint)
+        throws IOException
+    {
+        if (!Files.exists(snapshotFile))
+        {
+            return null;
+        }
+
+        final MappedByteBuffer mapped;
+
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ))
+        {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (mapped.limit() < HEADER_BYTES
+            || mapped.getInt() != MAGIC
+            || mapped.getInt() != VERSION
+            || mapped.getLong() != expectedFingerprint)
+        {
+            return null;
+        }
+
+        final long storedChecksum;
+        final int count;
+
+        storedChecksum = mapped.getLong();
+        count          = mapped.getInt();
+
+        final ByteBuffer body;
+        body = mapped.slice();
+
+        if (count < 0
+            || LETTERS_BYTES + (long) count * ROW_BYTES > body.limit()
+            || checksum(body.duplicate()) != storedChecksum)
+        {
+            return null;
+        }
+
+        final int tableStart;
+        tableStart = LETTERS_BYTES + count * ROW_BYTES;
+
+        final List<List<Country>> letters;
+        letters = new ArrayList<>(LETTER_COUNT);
+
+        int row;
+        row = LETTERS_BYTES;
+
+        for (int i = 0; i < LETTER_COUNT; i++)
+        {
+            final int letterCount;
+            letterCount = body.getInt(i * Integer.BYTES);
+
+            if (letterCount < 0 || row + (long) letterCount * ROW_BYTES > tableStart)
+            {
+                return null;
+            }
+
+            final List<Country> countries;
+            countries = new ArrayList<>(letterCount);
+
+            for (int j = 0; j < letterCount; j++)
+            {
+                countries.add(readCountry(body, row, tableStart));
+                row += ROW_BYTES;
+            }
+
+            letters.add(countries);
+        }
+
+        if (row != tableStart)
+        {
+            // the letter counts do not add up to the country count
+            return null;
+        }
+
+        return letters;
+    }
+
+    private static Country readCountry(final ByteBuffer body,
+                                       final int row,
+                                       final int tableStart)
+    {
+
+        final String name;
+        final String capital;
+        final String fact1;
+        final String fact2;
+        final String fact3;
+
+        name    = readString(body, row, tableStart);
+        capital = readString(body, row + INTS_PER_STRING * Integer.BYTES, tableStart);
+        fact1   = readString(body, row + 2 * INTS_PER_STRING * Integer.BYTES, tableStart);
+        fact2   = readString(body, row + 3 * INTS_PER_STRING * Integer.BYTES, tableStart);
+        fact3   = readString(body, row + 4 * INTS_PER_STRING * Integer.BYTES, tableStart);
+
+        return new Country(name, capital, fact1, fact2, fact3);
+    }
+
+    private static String readString(final ByteBuffer body,
+                                     final int indexPosition,
+                                     final int tableStart)
+    {
+        final int offset;
+        final int length;
+
+        offset = body.getInt(indexPosition);
+        length = body.getInt(indexPosition + Integer.BYTES);
+
+        final byte[] bytes;
+        bytes = new byte[length];
+        body.get(tableStart + offset, bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long checksum(final ByteBuffer buffer)
+    {
+        final CRC32 crc;
+        crc = new CRC32();
+        crc.update(buffer.duplicate());
+
+        return crc.getValue();
+    }
+
+}
@@ -0,0 +1,205 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the country data directory and reports which letter files
+ * changed.
+ *
+ * A background thread waits on a WatchService for files 'a.txt' to
+ * 'z.txt' being created, modified or deleted. Editors often save a file
+ * in several steps, so after the first event the watcher waits until the
+ * directory has been quiet for a moment, then calls the listener once for
+ * every letter that changed. If the operating system drops events, every
+ * letter is reported.
+ *
+ * A listener that fails leaves things as they were; the failure is
+ * printed, the watcher keeps running, and the next change to the file
+ * tries again.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class WorldWatcher
+    implements Closeable
+{
+
+    /**
+     * Receives the letters whose data files changed.
+     */
+    @FunctionalInterface
+    public interface LetterListener
+    {
+        /**
+         * Called on the watcher thread after a letter file changed.
+         *
+         * @param letter the lowercase letter naming the changed file
+         *
+         * @throws IOException if the file cannot be read again
+         */
+        void letterChanged(char letter)
+            throws IOException;
+    }
+
+    private static final long QUIET_MILLIS = 100L;
+    private static final String EXTENSION = ".txt";
+    private static final int LETTER_COUNT = World.LAST_LETTER - World.FIRST_LETTER + 1;
+    private static final int NOT_A_LETTER_FILE = -1;
+
+    private final WatchService service;
+    private final LetterListener listener;
+    private final Thread thread;
+
+    /**
+     * Starts watching the directory.
+     *
+     * @param directory the directory containing the country data files
+     * @param listener  called once for every letter file that changes
+     *
+     * @throws IOException if the directory cannot be watched
+     */
+    public WorldWatcher(final Path directory,
+                        final LetterListener listener)
+        throws IOException
+    {
+        this.listener = listener;
+
+        service = directory.getFileSystem().newWatchService();
+        directory.register(service,
+                           StandardWatchEventKinds.ENTRY_CREATE,
+                           StandardWatchEventKinds.ENTRY_MODIFY,
+                           StandardWatchEventKinds.ENTRY_DELETE);
+
+        thread = new Thread(this::watchLoop, "world-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching. A change that is being applied is finished first.
+     *
+     * @throws IOException if the WatchService cannot be closed
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        service.close();
+
+        try
+        {
+            thread.join();
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watchLoop()
+    {
+        final boolean[] changed;
+        changed = new boolean[LETTER_COUNT];
+
+        try
+        {
+            while (true)
+            {
+                WatchKey key;
+                key = service.take();
+
+                Arrays.fill(changed, false);
+
+                // keep collecting until the directory has been quiet for a moment
+                while (key != null)
+                {
+                    collect(key, changed);
+                    key = service.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS);
+                }
+
+                for (int i = 0; i < LETTER_COUNT; i++)
+                {
+                    if (changed[i])
+                    {
+                        notifyListener((char) (World.FIRST_LETTER + i));
+                    }
+                }
+            }
+        }
+        catch (final ClosedWatchServiceException | InterruptedException ex)
+        {
+            // close() was called; the thread ends
+        }
+    }
+
+    private void notifyListener(final char letter)
+    {
+        try
+        {
+            listener.letterChanged(letter);
+        }
+        catch (final IOException | RuntimeException ex)
+        {
+            // the file may still be half written; its next change tries again
+            System.out.println("Warning: could not reload " + letter + EXTENSION + " (" + ex.getMessage() + ").");
+        }
+    }
+
+    private static void collect(final WatchKey key,
+                                final boolean[] changed)
+    {
+        for (final WatchEvent<?> event : key.pollEvents())
+        {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+            {
+                Arrays.fill(changed, true);
+                continue;
+            }
+
+            final int letter;
+            letter = letterIndex((Path) event.context());
+
+            if (letter != NOT_A_LETTER_FILE)
+            {
+                changed[letter] = true;
+            }
+        }
+
+        key.reset();
+    }
+
+    /*
+     * Returns 0 for "a.txt" up to 25 for "z.txt", or NOT_A_LETTER_FILE for
+     * any other file name.
+     */
+    static int letterIndex(final Path fileName)
+    {
+        final String name;
+        name = fileName.toString();
+
+        if (name.length() != 1 + EXTENSION.length() || !name.endsWith(EXTENSION))
+        {
+            return NOT_A_LETTER_FILE;
+        }
+
+        final char letter;
+        letter = name.charAt(0);
+
+        if (letter < World.FIRST_LETTER || letter > World.LAST_LETTER)
+        {
+            return NOT_A_LETTER_FILE;
+        }
+
+        return letter - World.FIRST_LETTER;
+    }
+
+}
@@ -0,0 +1,130 @@
+package ca.bcit.comp2522.wordGame;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Generates synthetic input files for the benchmarks.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+final class BenchmarkData
+{
+
+    private static final long SEED = 2522L;
+    private static final int QUESTIONS_PER_GAME = 10;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int LETTERS = 26;
+
+    private BenchmarkData()
+    {
+    }
+
+    /**
+     * Writes a synthetic country corpus of the given size into a
+     * directory, spread evenly over the files 'a.txt' to 'z.txt' in the
+     * same format as src/myResources/countries. Every country name is
+     * unique so the loaded World holds exactly the requested number.
+     *
+     * @param directory the directory to write the letter files into
+     * @param countries how many countries to write
+     *
+     * @throws IOException if a file cannot be written
+     */
+    static void writeCorpus(final Path directory,
+                            final int countries)
+        throws IOException
+    {
+        Files.createDirectories(directory);
+
+        for (int letter = 0; letter < LETTERS; letter++)
+        {
+            final char initial;
+            initial = (char) ('a' + letter);
+
+            try (BufferedWriter writer = Files.newBufferedWriter(World.letterFile(directory, initial)))
+            {
+                for (int i = letter; i < countries; i += LETTERS)
+                {
+                    writer.write(Character.toUpperCase(initial) + "country" + i + ":Capital City " + i);
+                    writer.newLine();
+                    writer.write("Country " + i + " is home to " + (i % 97) + " national parks.");
+                    writer.newLine();
+                    writer.write("Its population grew by " + (i % 13) + " percent last decade.");
+                    writer.newLine();
+                    writer.write("The flag of country " + i + " has " + (i % 5 + 1) + " colours.");
+                    writer.newLine();
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes a corpus directory written by writeCorpus.
+     *
+     * @param directory the corpus directory
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    static void deleteCorpus(final Path directory)
+        throws IOException
+    {
+        for (char letter = 'a'; letter <= 'z'; letter++)
+        {
+            Files.deleteIfExists(World.letterFile(directory, letter));
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Writes a score file with the given number of entries in the
+     * Score.toString() format, one minute apart.
+     *
+     * @param filePath the file to write
+     * @param entries  how many scores to write
+     *
+     * @throws IOException if the file cannot be written
+     */
+    static void writeScoreFile(final Path filePath,
+                               final int entries)
+        throws IOException
+    {
+        final Random random;
+        random = new Random(SEED);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(filePath))
+        {
+            for (int i = 0; i < entries; i++)
+            {
+                writer.write(randomScore(random, START.plusMinutes(i)).toString());
+            }
+        }
+    }
+
+    /**
+     * Builds a score for one game with random results.
+     *
+     * @param random   the source of randomness
+     * @param playedAt when the game was played
+     *
+     * @return a new Score
+     */
+    static Score randomScore(final Random random,
+                             final LocalDateTime playedAt)
+    {
+        final int first;
+        final int second;
+
+        first  = random.nextInt(QUESTIONS_PER_GAME + 1);
+        second = random.nextInt(QUESTIONS_PER_GAME - first + 1);
+
+        return new Score(playedAt, 1, first, second, QUESTIONS_PER_GAME - first - second);
+    }
+
+}
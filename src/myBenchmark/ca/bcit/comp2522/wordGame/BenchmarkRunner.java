@@ -0,0 +1,64 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every Word Game benchmark with the GC profiler attached, so each
+ * result also reports allocation rate and bytes allocated per operation.
+ *
+ * Any standard JMH command-line options may be passed, for example
+ *   BenchmarkRunner QuestionBenchmark -p countries=1000
+ * to run one benchmark at one corpus size.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+public final class BenchmarkRunner
+{
+
+    private static final String ALL_BENCHMARKS = "ca\\.bcit\\.comp2522\\.wordGame\\..*Benchmark";
+
+    private BenchmarkRunner()
+    {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args JMH command-line options
+     *
+     * @throws RunnerException            if a benchmark fails
+     * @throws CommandLineOptionException if the options cannot be parsed
+     */
+    public static void main(final String[] args)
+        throws RunnerException, CommandLineOptionException
+    {
+        final CommandLineOptions commandLine;
+        commandLine = new CommandLineOptions(args);
+
+        final Options options;
+
+        if (args.length == 0)
+        {
+            options = new OptionsBuilder().parent(commandLine)
+                                          .include(ALL_BENCHMARKS)
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        }
+        else
+        {
+            options = new OptionsBuilder().parent(commandLine)
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        }
+
+        new Runner(options).run();
+    }
+
+}
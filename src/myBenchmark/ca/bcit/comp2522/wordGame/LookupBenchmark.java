@@ -0,0 +1,111 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures name lookups made while the player types: completing a prefix
+ * of a country name, accepting a misspelt answer within one edit, and
+ * finding "did you mean" suggestions in the BkTree.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class LookupBenchmark
+{
+
+    private static final long SEED = 2522L;
+    private static final int COMPLETIONS = 10;
+    private static final int PREFIX_LENGTH = 4;
+    private static final int TOLERANCE = 1;
+
+    @Param({"1000", "100000", "1000000"})
+    public int countries;
+
+    private CountryTable table;
+    private PrefixIndex prefixes;
+    private BkTree suggestions;
+    private AnswerIndex answers;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp()
+        throws IOException
+    {
+        final Path dataDir;
+        final World world;
+
+        dataDir = Files.createTempDirectory("corpus");
+
+        try
+        {
+            BenchmarkData.writeCorpus(dataDir, countries);
+            world = World.loadParallel(dataDir);
+        }
+        finally
+        {
+            BenchmarkData.deleteCorpus(dataDir);
+        }
+
+        table       = world.getCountryTable();
+        prefixes    = world.getCountryPrefixes();
+        suggestions = world.getCountrySuggestions();
+        answers     = world.getAnswerIndex();
+        random      = new SplittableRandom(SEED);
+    }
+
+    @Benchmark
+    public List<String> completePrefix()
+    {
+        final String name;
+        name = table.name(random.nextInt(table.size()));
+
+        return prefixes.complete(name.substring(0, PREFIX_LENGTH), COMPLETIONS);
+    }
+
+    @Benchmark
+    public boolean toleratedTypo()
+    {
+        final int id;
+        id = random.nextInt(table.size());
+
+        return answers.isCountryWithin(misspell(table.name(id)), id, TOLERANCE);
+    }
+
+    @Benchmark
+    public List<String> suggestName()
+    {
+        return suggestions.suggest(misspell(table.name(random.nextInt(table.size()))), TOLERANCE, COMPLETIONS);
+    }
+
+    /*
+     * Drops the second letter, the most common kind of slip.
+     */
+    private static String misspell(final String name)
+    {
+        return name.charAt(0) + name.substring(2);
+    }
+
+}
@@ -0,0 +1,126 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-question hot path: picking a country with each
+ * sampler, building a question, reading facts through Country.getFacts versus CountryTable,
+ * and checking a guess.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class QuestionBenchmark
+{
+
+    private static final long SEED = 2522L;
+
+    @Param({"1000", "100000", "1000000"})
+    public int countries;
+
+    private List<Country> countryList;
+    private CountryTable table;
+    private QuestionGenerator generator;
+    private Random random;
+    private Question question;
+    private ShuffledSampler shuffled;
+    private WeightedSampler weighted;
+
+    @Setup
+    public void setUp()
+        throws IOException
+    {
+        final Path dataDir;
+        final World world;
+
+        dataDir = Files.createTempDirectory("corpus");
+
+        try
+        {
+            BenchmarkData.writeCorpus(dataDir, countries);
+            world = World.loadParallel(dataDir);
+        }
+        finally
+        {
+            BenchmarkData.deleteCorpus(dataDir);
+        }
+
+        countryList = world.getCountryList();
+        table       = world.getCountryTable();
+        random      = new Random(SEED);
+        generator   = new QuestionGenerator(world, new Random(SEED));
+        question    = generator.next();
+        shuffled    = new ShuffledSampler(table.size(), new Random(SEED));
+        weighted    = new WeightedSampler(table.size(), new Random(SEED));
+    }
+
+    @Benchmark
+    public int randomCountry()
+    {
+        return generator.randomCountryId();
+    }
+
+    @Benchmark
+    public int shuffledDraw()
+    {
+        return shuffled.nextCountryId();
+    }
+
+    @Benchmark
+    public int weightedDrawAndUpdate()
+    {
+        final int id;
+        id = weighted.nextCountryId();
+        weighted.recordResult(id, random.nextBoolean());
+
+        return id;
+    }
+
+    @Benchmark
+    public Question buildQuestion()
+    {
+        return generator.next();
+    }
+
+    @Benchmark
+    public String countryGetFacts()
+    {
+        return countryList.get(random.nextInt(countryList.size())).getFacts()[random.nextInt(CountryTable.FACTS_PER_COUNTRY)];
+    }
+
+    @Benchmark
+    public String countryTableFact()
+    {
+        return table.fact(random.nextInt(table.size()), random.nextInt(CountryTable.FACTS_PER_COUNTRY));
+    }
+
+    @Benchmark
+    public boolean checkAnswer()
+    {
+        return question.isCorrect(question.getAnswer());
+    }
+
+}
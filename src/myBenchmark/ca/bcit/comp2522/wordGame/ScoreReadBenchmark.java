@@ -0,0 +1,83 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares finding the high score by materialising every entry with
+ * Score.readScoresFromFile against streaming the file with
+ * ScoreStatistics. Run with "-prof gc" to see the allocation difference.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx512m"})
+public class ScoreReadBenchmark
+{
+
+    @Param({"1000", "100000", "1000000"})
+    public int entries;
+
+    private Path scoreFile;
+
+    @Setup
+    public void setUp()
+        throws IOException
+    {
+        scoreFile = Files.createTempFile("scores", ".txt");
+        BenchmarkData.writeScoreFile(scoreFile, entries);
+    }
+
+    @TearDown
+    public void tearDown()
+        throws IOException
+    {
+        Files.deleteIfExists(scoreFile);
+    }
+
+    @Benchmark
+    public int maxFromList()
+        throws IOException
+    {
+        final List<Score> scores;
+        scores = Score.readScoresFromFile(scoreFile.toString());
+
+        return scores.stream().mapToInt(Score::getScore).max().orElse(0);
+    }
+
+    @Benchmark
+    public int maxFromStream()
+        throws IOException
+    {
+        return ScoreStatistics.maxScore(scoreFile.toString());
+    }
+
+    @Benchmark
+    public List<Score> top10FromStream()
+        throws IOException
+    {
+        return ScoreStatistics.topK(scoreFile.toString(), 10);
+    }
+
+}
@@ -0,0 +1,74 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures appending one score with Score.appendScoreToFile, which opens
+ * and closes the file on every call. The file is emptied before each
+ * iteration so its size does not grow without bound.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreWriteBenchmark
+{
+
+    private static final long SEED = 2522L;
+
+    private Path scoreFile;
+    private Score score;
+
+    @Setup
+    public void setUp()
+        throws IOException
+    {
+        scoreFile = Files.createTempFile("scores", ".txt");
+        score     = BenchmarkData.randomScore(new Random(SEED), LocalDateTime.now());
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyFile()
+        throws IOException
+    {
+        Files.write(scoreFile, new byte[0]);
+    }
+
+    @TearDown
+    public void tearDown()
+        throws IOException
+    {
+        Files.deleteIfExists(scoreFile);
+    }
+
+    @Benchmark
+    public void appendScoreToFile()
+        throws IOException
+    {
+        Score.appendScoreToFile(score, scoreFile.toString());
+    }
+
+}
@@ -0,0 +1,86 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures World construction on synthetic corpora: the sequential
+ * BufferedReader loader used by World(Path), the memory-mapped fork-join
+ * loader in World.loadParallel, and World.load reading a current
+ * binary snapshot.
+ *
+ * @author Arshia Adamian
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class WorldLoadBenchmark
+{
+
+    @Param({"1000", "100000", "1000000"})
+    public int countries;
+
+    private Path dataDir;
+    private Path snapshotFile;
+
+    @Setup
+    public void setUp()
+        throws IOException
+    {
+        dataDir      = Files.createTempDirectory("corpus");
+        snapshotFile = Files.createTempFile("corpus", ".snapshot");
+
+        BenchmarkData.writeCorpus(dataDir, countries);
+        Files.delete(snapshotFile);
+        World.load(dataDir, snapshotFile);
+    }
+
+    @TearDown
+    public void tearDown()
+        throws IOException
+    {
+        BenchmarkData.deleteCorpus(dataDir);
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    @Benchmark
+    public World sequentialReadFile()
+        throws IOException
+    {
+        return new World(dataDir);
+    }
+
+    @Benchmark
+    public World parallelMapped()
+        throws IOException
+    {
+        return World.loadParallel(dataDir);
+    }
+
+    @Benchmark
+    public World snapshot()
+        throws IOException
+    {
+        return World.load(dataDir, snapshotFile);
+    }
+
+}
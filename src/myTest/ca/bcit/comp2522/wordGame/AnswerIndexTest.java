@@ -0,0 +1,53 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnswerIndexTest
+{
+
+    @Test
+    void testNormalizeFoldsAccentsApostrophesAndPunctuation()
+    {
+        assertEquals(AnswerIndex.normalize("Cote d'Ivoire"), AnswerIndex.normalize("Côte d’Ivoire"));
+        assertEquals("washington dc", AnswerIndex.normalize("  Washington, D.C. "));
+        assertEquals("guinea bissau", AnswerIndex.normalize("Guinea-Bissau"));
+        assertEquals("chisinau", AnswerIndex.normalize("Chișinău"));
+    }
+
+    @Test
+    void testLookupMatchesOnlyTheExpectedCountry()
+    {
+        final CountryTable table = new CountryTable(List.of(
+            new Country("Côte d’Ivoire", "Yamoussoukro", "Fact one.", "Fact two.", "Fact three."),
+            new Country("Cameroon", "Yaoundé", "Fact one.", "Fact two.", "Fact three.")));
+        final AnswerIndex index = new AnswerIndex(table);
+
+        assertTrue(index.isCountry("cote d'ivoire", 0), "The country name should match without accents.");
+        assertTrue(index.isCapital("YAOUNDE", 1), "The capital should match without accents.");
+        assertFalse(index.isCountry("Cameroon", 0), "Another country's name must not match.");
+        assertFalse(index.isCapital("Cameroon", 1), "A country name is not a capital.");
+    }
+
+    @Test
+    void testWithinAcceptsTyposButNotOtherNames()
+    {
+        final CountryTable table = new CountryTable(List.of(
+            new Country("Afghanistan", "Kabul", "Fact one.", "Fact two.", "Fact three."),
+            new Country("Iraq", "Baghdad", "Fact one.", "Fact two.", "Fact three."),
+            new Country("Iran", "Tehran", "Fact one.", "Fact two.", "Fact three.")));
+        final AnswerIndex index = new AnswerIndex(table);
+
+        assertTrue(index.isCountryWithin("Afganistan", 0, 1), "One missing letter should be accepted.");
+        assertTrue(index.isCountryWithin("Afhganistan", 0, 1), "One swapped pair should be accepted.");
+        assertFalse(index.isCountryWithin("Afgnistn", 0, 1), "Two mistakes are over a tolerance of 1.");
+        assertFalse(index.isCountryWithin("Iran", 1, 1), "Another real country is never a typo.");
+        assertTrue(index.isCapitalWithin("Bagdad", 1, 1), "Capitals should be matched the same way.");
+        assertFalse(index.isCountryWithin("Afganistan", 0, 0), "A tolerance of 0 means an exact match.");
+    }
+}
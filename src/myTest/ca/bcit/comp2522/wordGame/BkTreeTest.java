@@ -0,0 +1,55 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BkTreeTest
+{
+
+    @Test
+    void testSuggestsClosestCountry() throws IOException
+    {
+        final World world = new World(Paths.get("src/myResources/countries"));
+
+        assertEquals(List.of("Afghanistan"), world.getCountrySuggestions().suggest("Afganistan", 2, 1));
+        assertEquals(List.of("Reykjavik"), world.getCapitalSuggestions().suggest("reykjavk", 1, 3));
+    }
+
+    @Test
+    void testSearchFindsSameNamesAsLinearScan() throws IOException
+    {
+        final World world = new World(Paths.get("src/myResources/countries"));
+        final CountryTable table = world.getCountryTable();
+        final String[] guesses = {"Chana", "Mali", "Kenay", "Nigr", "Austira", "Sudan", "Gunea", "Oman"};
+
+        for (final String guess : guesses)
+        {
+            for (int max = 0; max <= 3; max++)
+            {
+                final int[] found = world.getCountrySuggestions().search(guess, max);
+                final int[] expected = new int[table.size()];
+                int count = 0;
+
+                for (int id = 0; id < table.size(); id++)
+                {
+                    final String key = AnswerIndex.normalize(table.name(id));
+                    if (EditDistance.damerauLevenshtein(AnswerIndex.normalize(guess), key, max) <= max)
+                    {
+                        expected[count++] = id;
+                    }
+                }
+
+                final int[] sortedFound = found.clone();
+                Arrays.sort(sortedFound);
+                assertArrayEquals(Arrays.copyOf(expected, count), sortedFound, guess + " within " + max);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CorpusValidatorTest
+{
+
+    private static final Path DATA_DIR = Paths.get("test_validator_countries");
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        tearDown();
+        Files.createDirectories(DATA_DIR);
+    }
+
+    @Test
+    void testCleanCorpusHasNoProblems() throws IOException
+    {
+        Files.writeString(DATA_DIR.resolve("c.txt"), "Canada:Ottawa\nf1\nf2\nf3\n\nChile:Santiago:\nf1\nf2\nf3\n");
+
+        final ValidationReport report = CorpusValidator.validate(DATA_DIR);
+
+        assertTrue(report.isClean(), "A well-formed file should have no problems: " + report);
+        assertEquals(2, report.getValidEntries(), "Both entries should be valid.");
+    }
+
+    @Test
+    void testEveryBadEntryIsReportedWithItsLine() throws IOException
+    {
+        Files.writeString(DATA_DIR.resolve("c.txt"),
+                          "Canada Ottawa\nf1\nf2\nf3\n"   // lines 1-4: no colon
+                          + "\n"
+                          + "Chile:Santiago\nf1\n"         // lines 6-7: truncated by the blank line
+                          + "\n"
+                          + ":Havana\nf1\nf2\nf3\n"        // lines 9-12: empty name
+                          + "\n"
+                          + "Cyprus:Nicosia\nf1\nf2\nf3\n");
+
+        final List<ValidationReport.Problem> problems = CorpusValidator.validate(DATA_DIR).getProblems();
+
+        assertEquals(3, problems.size(), "Each bad entry should be reported once: " + problems);
+        assertEquals("c.txt:1: Expected a \"CountryName:CapitalCity\" header", problems.get(0).toString());
+        assertEquals("c.txt:6: Entry has 1 of 3 facts", problems.get(1).toString());
+        assertEquals(9, problems.get(2).getLine(), "The empty name should point at its header.");
+    }
+
+    @Test
+    void testDuplicateAcrossFilesPointsAtFirstDefinition() throws IOException
+    {
+        Files.writeString(DATA_DIR.resolve("f.txt"), "Fiji:Suva\nf1\nf2\nf3\n\nFrance:Paris\nf1\nf2\nf3\n");
+        Files.writeString(DATA_DIR.resolve("x.txt"), "France:Lyon\nf1\nf2\nf3\n");
+
+        final List<ValidationReport.Problem> problems = CorpusValidator.validate(DATA_DIR).getProblems();
+
+        assertEquals(1, problems.size(), "Only the second France should be reported: " + problems);
+        assertEquals("x.txt:1: Duplicate country \"France\", first defined at f.txt:6", problems.get(0).toString());
+    }
+
+    @Test
+    void testValidEntriesAfterBadOnesStillLoad() throws IOException
+    {
+        Files.writeString(DATA_DIR.resolve("c.txt"), "Canada:Ottawa\nf1\n\nf3\n\nCuba:Havana\nf1\nf2\nf3\n");
+        Files.writeString(DATA_DIR.resolve("f.txt"), "France:Paris\nf1\nf2\nf3\n");
+
+        final ValidationReport report = CorpusValidator.validate(DATA_DIR);
+        final World world = report.toWorld();
+
+        // the blank fact cuts Canada short and leaves "f3" where a header should be
+        assertEquals(2, report.getProblems().size(), "Both halves of the broken entry should be reported: " + report);
+        assertNull(world.getCountry("Canada"), "The broken entry should be left out.");
+        assertNotNull(world.getCountry("Cuba"), "The entry after the broken one should load.");
+        assertNotNull(world.getCountry("France"), "Other files should load.");
+    }
+
+    @Test
+    void testLoadersSkipEntriesTheValidatorReports() throws IOException
+    {
+        Files.writeString(DATA_DIR.resolve("c.txt"), "Canada:Ottawa\nf1\nf2\nf3\n");
+        final World world = World.loadParallel(DATA_DIR);
+
+        // a bad header and a cut-short entry are each skipped up to the next blank line
+        Files.writeString(DATA_DIR.resolve("c.txt"),
+                          "Canada Ottawa\nf1\nf2\nf3\n\nChile:Santiago\nf1\n\nCuba:Havana\nf1\nf2\nf3\n\nCyprus:Nicosia\nf1\n");
+
+        final ValidationReport report = CorpusValidator.validate(DATA_DIR);
+        assertEquals(3, report.getProblems().size(), "Every bad entry should be reported: " + report);
+
+        final List<World> loaded = List.of(World.loadParallel(DATA_DIR),
+                                           new World(DATA_DIR),
+                                           world.withLetterFile(DATA_DIR, 'c'));
+
+        for (final World reloaded : loaded)
+        {
+            assertEquals(List.of("Cuba"),
+                         reloaded.getLetterCountries('c').stream().map(Country::getName).toList(),
+                         "Only the valid entry should load.");
+            assertEquals("Havana", reloaded.getCountry("Cuba").getCapitalCityName());
+        }
+
+        assertNotNull(report.toWorld().getCountry("Cuba"), "The validator should keep the same entry.");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        if (Files.exists(DATA_DIR))
+        {
+            try (Stream<Path> files = Files.list(DATA_DIR))
+            {
+                for (final Path file : files.toList())
+                {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(DATA_DIR);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountrySamplerTest
+{
+
+    @Test
+    void testShuffledSamplerNeverRepeatsWithinAPass()
+    {
+        final ShuffledSampler sampler = new ShuffledSampler(50, new Random(1));
+
+        for (int pass = 0; pass < 3; pass++)
+        {
+            final boolean[] seen = new boolean[50];
+            for (int i = 0; i < 50; i++)
+            {
+                final int id = sampler.nextCountryId();
+                assertFalse(seen[id], "Country " + id + " was drawn twice in one pass.");
+                seen[id] = true;
+            }
+        }
+    }
+
+    @Test
+    void testWeightedSamplerFavoursMissedCountries()
+    {
+        final WeightedSampler sampler = new WeightedSampler(10, new Random(2));
+        assertEquals(0.1, sampler.probability(3), 1e-9, "All countries should start equally likely.");
+
+        for (int i = 0; i < 20; i++)
+        {
+            sampler.recordResult(3, true);
+            sampler.recordResult(4, false);
+        }
+
+        int hits = 0;
+        for (int i = 0; i < 10_000; i++)
+        {
+            if (sampler.nextCountryId() == 3)
+            {
+                hits++;
+            }
+        }
+
+        assertTrue(sampler.probability(3) > sampler.probability(0), "A missed country should gain weight.");
+        assertTrue(sampler.probability(4) < sampler.probability(0), "A known country should lose weight.");
+        assertEquals(sampler.probability(3), hits / 10_000.0, 0.02, "Draws should follow the weights.");
+    }
+}
@@ -0,0 +1,73 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EditDistanceTest
+{
+
+    @Test
+    void testKnownDistances()
+    {
+        assertEquals(1, EditDistance.damerauLevenshtein("afghanistan", "afganistan", 3));
+        assertEquals(1, EditDistance.damerauLevenshtein("kabul", "kbaul", 3), "A swap should cost 1.");
+        assertEquals(2, EditDistance.levenshtein("kabul", "kbaul", 3), "Without swaps it costs 2.");
+        assertEquals(3, EditDistance.damerauLevenshtein("ca", "abc", 3), "Each letter swaps at most once.");
+        assertEquals(4, EditDistance.damerauLevenshtein("peru", "mongolia", 3), "Over the bound gives max + 1.");
+    }
+
+    @Test
+    void testBandedMatchesFullTable()
+    {
+        final SplittableRandom random = new SplittableRandom(16);
+
+        for (int trial = 0; trial < 5000; trial++)
+        {
+            final String first = randomWord(random);
+            final String second = randomWord(random);
+            final int max = random.nextInt(5);
+            final int full = fullDistance(first, second);
+
+            assertEquals(Math.min(full, max + 1), EditDistance.damerauLevenshtein(first, second, max),
+                         first + " / " + second + " within " + max);
+        }
+    }
+
+    private static String randomWord(final SplittableRandom random)
+    {
+        final StringBuilder word = new StringBuilder();
+        final int length = random.nextInt(9);
+        for (int i = 0; i < length; i++)
+        {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+
+    // the textbook optimal string alignment table, with no band or early exit
+    private static int fullDistance(final String a, final String b)
+    {
+        final int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++)
+        {
+            for (int j = 0; j <= b.length(); j++)
+            {
+                if (i == 0 || j == 0)
+                {
+                    d[i][j] = i + j;
+                    continue;
+                }
+                final int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1))
+                {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
@@ -0,0 +1,66 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FactIndexTest
+{
+
+    private static FactIndex index(final List<Country> countries)
+    {
+        return new FactIndex(new CountryTable(countries));
+    }
+
+    @Test
+    void testSearchIntersectsWordsAndSkipsStopWords()
+    {
+        final FactIndex facts = index(List.of(
+            new Country("Afghanistan", "Kabul", "Home to the ancient Silk Road.", "Mountains.", "Saffron."),
+            new Country("Uzbekistan", "Tashkent", "The Silk Road ran through Samarkand.", "Cotton.", "Plov."),
+            new Country("Spain", "Madrid", "The Alhambra is in Granada.", "Road trips.", "Saffron fields.")));
+
+        assertArrayEquals(new int[]{0, 1}, facts.search("silk road"));
+        assertArrayEquals(new int[]{0, 2}, facts.search("SAFFRON"), "Case should not matter.");
+        assertArrayEquals(new int[]{1}, facts.search("the silk road of samarkand"), "Stop words should be ignored.");
+        assertEquals(0, facts.search("the of").length, "A query of stop words matches nothing.");
+        assertEquals(0, facts.search("silk tea").length, "An unknown word matches nothing.");
+    }
+
+    @Test
+    void testPostingsSurviveLargeGaps()
+    {
+        final List<Country> countries = new ArrayList<>();
+        for (int id = 0; id < 40000; id++)
+        {
+            final String fact = (id % 20000 == 0 || id == 39999) ? "Rare glacier." : "Plain fact " + id + ".";
+            countries.add(new Country("Country" + id, "Capital" + id, fact, "Second.", "Third."));
+        }
+
+        assertArrayEquals(new int[]{0, 20000, 39999}, index(countries).search("glacier"),
+                          "Gaps over one and two bytes should decode exactly.");
+    }
+
+    @Test
+    void testAmbiguityAndIdentifyingKeywords()
+    {
+        final FactIndex facts = index(List.of(
+            new Country("Sudan", "Khartoum", "One of the largest countries in Africa.", "Nile.", "Pyramids."),
+            new Country("Algeria", "Algiers", "The largest country in Africa.", "Sahara.", "Algeria rocks."),
+            new Country("Egypt", "Cairo", "Pyramids of Giza.", "Nile.", "Sahara.")));
+
+        assertTrue(facts.isAmbiguous(0, 0), "Two countries are the largest in Africa.");
+        assertFalse(facts.isAmbiguous(2, 0), "Only Egypt mentions Giza.");
+        assertArrayEquals(new String[]{"giza"}, facts.identifyingKeywords(2, 3), "The rarest word should be enough.");
+        assertArrayEquals(new String[]{"africa", "largest", "nile"}, facts.identifyingKeywords(0, 3),
+                          "Words are added until only one country is left.");
+        assertArrayEquals(new String[]{"rocks"}, facts.identifyingKeywords(1, 3),
+                          "The country's own name is never a keyword.");
+    }
+}
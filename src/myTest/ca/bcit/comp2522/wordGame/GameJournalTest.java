@@ -0,0 +1,111 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GameJournalTest
+{
+
+    private static final Path JOURNAL_FILE = Paths.get("test_games.wal");
+
+    private List<Score> stored;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        Files.deleteIfExists(JOURNAL_FILE);
+        stored = new ArrayList<>();
+    }
+
+    @Test
+    void testUnfinishedSessionIsRecovered() throws IOException
+    {
+        final GameJournal crashed = GameJournal.open(JOURNAL_FILE, stored::addAll, 100, ScoreJournal.SyncPolicy.NONE);
+        crashed.append(new Score(LocalDateTime.of(2024, 1, 1, 10, 0), 1, 6, 2, 2));
+        crashed.append(new Score(LocalDateTime.of(2024, 1, 1, 10, 5), "alice", 1, 9, 1, 0));
+        // the process dies here: nothing is compacted or closed
+
+        try (GameJournal journal = GameJournal.open(JOURNAL_FILE, stored::addAll, 100, ScoreJournal.SyncPolicy.NONE))
+        {
+            assertEquals(2, journal.recovered(), "Both logged games should be recovered.");
+            journal.compact();
+        }
+
+        assertEquals(2, stored.size(), "Recovered games should reach the store.");
+        assertEquals(19, stored.get(1).getScore());
+        assertEquals("alice", stored.get(1).getPlayerId(), "The recovered game should keep its player.");
+        assertNull(stored.get(0).getPlayerId(), "A game without a player should stay without one.");
+        assertEquals(0, Files.size(JOURNAL_FILE), "Compaction should empty the journal.");
+    }
+
+    @Test
+    void testTornAndCorruptRecordsAreDiscarded() throws IOException
+    {
+        final GameJournal crashed = GameJournal.open(JOURNAL_FILE, stored::addAll, 100, ScoreJournal.SyncPolicy.NONE);
+        crashed.append(new Score(LocalDateTime.of(2024, 1, 1, 10, 0), 1, 6, 2, 2));
+        crashed.append(new Score(LocalDateTime.of(2024, 1, 1, 10, 5), 1, 9, 1, 0));
+        crashed.append(new Score(LocalDateTime.of(2024, 1, 1, 10, 9), 1, 3, 3, 4));
+
+        try (RandomAccessFile file = new RandomAccessFile(JOURNAL_FILE.toFile(), "rw"))
+        {
+            // flip a byte in the second record and tear the third
+            file.seek(GameJournal.ENTRY_BYTES + 10);
+            file.write(0x7F);
+            file.setLength(3L * GameJournal.ENTRY_BYTES - 5);
+        }
+
+        try (GameJournal journal = GameJournal.open(JOURNAL_FILE, stored::addAll, 100, ScoreJournal.SyncPolicy.NONE))
+        {
+            assertEquals(1, journal.recovered(), "Only the records before the damage should survive.");
+            assertEquals(GameJournal.ENTRY_BYTES, Files.size(JOURNAL_FILE), "The damaged tail should be cut off.");
+        }
+
+        assertEquals(14, stored.get(0).getScore());
+    }
+
+    @Test
+    void testCompactsEveryNGamesAndKeepsGamesTheStoreRejects() throws IOException
+    {
+        try (GameJournal journal = GameJournal.open(JOURNAL_FILE, stored::addAll, 2, ScoreJournal.SyncPolicy.NONE))
+        {
+            for (int i = 0; i < 5; i++)
+            {
+                journal.append(new Score(LocalDateTime.of(2024, 1, 1, 10, i), 1, i, 0, 0));
+            }
+            assertEquals(4, stored.size(), "Two compactions of two games should have run.");
+        }
+        assertEquals(5, stored.size(), "Closing should compact the last game.");
+
+        final GameJournal failing = GameJournal.open(JOURNAL_FILE, games ->
+        {
+            throw new IOException("disk full");
+        }, 100, ScoreJournal.SyncPolicy.NONE);
+        failing.append(new Score(LocalDateTime.of(2024, 1, 2, 10, 0), 1, 1, 0, 0));
+        assertThrows(IOException.class, failing::close);
+
+        try (GameJournal journal = GameJournal.open(JOURNAL_FILE, stored::addAll, 100, ScoreJournal.SyncPolicy.NONE))
+        {
+            assertEquals(1, journal.recovered(), "A game the store rejected should stay in the journal.");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        Files.deleteIfExists(JOURNAL_FILE);
+    }
+}
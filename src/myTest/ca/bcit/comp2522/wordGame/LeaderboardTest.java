@@ -0,0 +1,158 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LeaderboardTest
+{
+
+    private static final Path SCORE_FILE = Paths.get("test_leaderboard_score.txt");
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        tearDown();
+    }
+
+    @Test
+    void testRankPercentileAndScoreAtRank()
+    {
+        final Leaderboard board = new Leaderboard(3);
+
+        for (final int first : new int[]{5, 9, 2, 9, 7})
+        {
+            board.add(new Score(LocalDateTime.of(2024, 1, 1, 10, first), 1, first, 0, 0));
+        }
+
+        // scores are 10, 18, 4, 18, 14
+        assertEquals(1, board.rankOf(18), "The best score should be first.");
+        assertEquals(3, board.rankOf(14), "Two entries beat 14.");
+        assertEquals(6, board.rankOf(0), "A score below every entry should come last.");
+        assertEquals(60.0, board.percentile(14), 1e-9, "Three of five entries are at or below 14.");
+        assertEquals(18, board.scoreAtRank(2), "The tied best scores share the first two places.");
+        assertEquals(4, board.scoreAtRank(5), "The last place should hold the lowest score.");
+
+        final List<Score> top = board.topK(5);
+        assertEquals(3, top.size(), "Only the kept entries should be returned.");
+        assertEquals(9, top.get(0).getDateTimePlayed().getMinute(), "Ties should keep the order they were added in.");
+        assertEquals(14, top.get(2).getScore(), "The kept entries should be ordered best first.");
+    }
+
+    @Test
+    void testHighScoresGrowTheBoard()
+    {
+        final Leaderboard board = new Leaderboard(1);
+        board.add(new Score(LocalDateTime.of(2024, 1, 1, 10, 0), 1, 3, 0, 0));
+        board.add(new Score(LocalDateTime.of(2024, 1, 1, 11, 0), 1, 500, 0, 0));
+
+        assertEquals(1000, board.scoreAtRank(1), "Scores past the first range should still be counted.");
+        assertEquals(2, board.rankOf(6), "Lower scores should rank behind the new high score.");
+        assertEquals(1000, board.topK(1).get(0).getScore(), "The high score should replace the kept entry.");
+    }
+
+    @Test
+    void testHugeScoresShareTheTopPlace() throws IOException
+    {
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 1, 1, 10, 0), 1, 3, 0, 0), SCORE_FILE.toString());
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 1, 1, 11, 0), 1, 500_000_000, 0, 0),
+                                SCORE_FILE.toString());
+
+        final Leaderboard board = Leaderboard.open(SCORE_FILE, 1);
+        board.checkpoint(SCORE_FILE);
+
+        assertEquals(Leaderboard.MAX_TRACKED_SCORE, board.scoreAtRank(1), "A huge score should take the top place.");
+        assertEquals(2, board.rankOf(6), "Lower scores should still rank behind it.");
+        assertEquals(1_000_000_000, board.topK(1).get(0).getScore(), "The kept entry should keep its exact score.");
+        assertEquals(2, Leaderboard.open(SCORE_FILE, 1).size(), "The saved board should reopen.");
+    }
+
+    @Test
+    void testOpenReadsOnlyEntriesAfterCheckpoint() throws IOException
+    {
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 1, 1, 10, 0), 1, 6, 2, 1), SCORE_FILE.toString());
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 1, 1, 11, 0), "bob", 1, 9, 1, 0),
+                                SCORE_FILE.toString());
+
+        Leaderboard.open(SCORE_FILE, 10).checkpoint(SCORE_FILE);
+
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 1, 2, 9, 0), 1, 7, 2, 1), SCORE_FILE.toString());
+
+        final Leaderboard reopened = Leaderboard.open(SCORE_FILE, 10);
+        assertEquals(3, reopened.size(), "Saved and appended entries should each be counted once.");
+        assertEquals(2, reopened.rankOf(16), "The appended entry should be ranked.");
+        assertEquals(19, reopened.topK(1).get(0).getScore(), "The saved best entries should be restored.");
+        assertEquals("bob", reopened.topK(1).get(0).getPlayerId(), "Saved entries should keep their player.");
+
+        // changing an entry the saved board covers shows the board, not the file, was read
+        final String text = Files.readString(SCORE_FILE);
+        Files.writeString(SCORE_FILE, text.replaceFirst("Correct First Attempts: 6", "Correct First Attempts: 1"));
+        assertEquals(4, Leaderboard.open(SCORE_FILE, 10).rankOf(5), "The saved board should be used.");
+
+        Files.write(Leaderboard.boardFile(SCORE_FILE), new byte[]{1, 2, 3});
+        final Leaderboard rebuilt = Leaderboard.open(SCORE_FILE, 10);
+        assertEquals(3, rebuilt.size(), "A damaged board should be rebuilt from the file.");
+        assertEquals(3, rebuilt.rankOf(5), "The rebuilt board should see the changed entry.");
+    }
+
+    @Test
+    void testOpenSkipsTornEntry() throws IOException
+    {
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 1, 1, 10, 0), 1, 6, 2, 1), SCORE_FILE.toString());
+        Files.writeString(SCORE_FILE, "Date and Time: 2024-01-01 10:30:00\nGames Pla", StandardOpenOption.APPEND);
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 1, 1, 11, 0), 1, 9, 1, 0), SCORE_FILE.toString());
+
+        final Leaderboard board = Leaderboard.open(SCORE_FILE, 10);
+        assertEquals(2, board.size(), "The entries on both sides of the torn one should be read.");
+        assertEquals(19, board.scoreAtRank(1));
+    }
+
+    @Test
+    void testConcurrentAdds() throws Exception
+    {
+        final Leaderboard board = new Leaderboard(10);
+        final ExecutorService sessions = Executors.newFixedThreadPool(8);
+        final List<Future<?>> done = new ArrayList<>();
+
+        for (int t = 0; t < 8; t++)
+        {
+            done.add(sessions.submit(() ->
+            {
+                for (int i = 0; i < 1000; i++)
+                {
+                    board.add(new Score(LocalDateTime.of(2024, 1, 1, 10, 0), 1, i % 50, 0, 0));
+                }
+            }));
+        }
+
+        for (final Future<?> future : done)
+        {
+            future.get();
+        }
+        sessions.shutdown();
+
+        assertEquals(8000, board.size(), "No add should be lost.");
+        assertEquals(161, board.rankOf(96), "Only the 160 entries scoring 98 should rank above 96.");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        Files.deleteIfExists(SCORE_FILE);
+        Files.deleteIfExists(Leaderboard.boardFile(SCORE_FILE));
+    }
+}
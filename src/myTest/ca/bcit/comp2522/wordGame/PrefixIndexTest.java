@@ -0,0 +1,53 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTest
+{
+
+    private World world;
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        world = new World(Paths.get("src/myResources/countries"));
+    }
+
+    @Test
+    void testCompletionsAreInOrderAndLimited()
+    {
+        assertEquals(List.of("Saint Kitts and Nevis", "Saint Lucia", "Saint Vincent and the Grenadines"),
+                     world.getCountryPrefixes().complete("saint", 5),
+                     "All three Saint countries should complete in order.");
+        assertEquals(List.of("Samoa", "San Marino"),
+                     world.getCountryPrefixes().complete("Sa", 6).subList(3, 5),
+                     "Completions should follow alphabetical order.");
+        assertEquals(2, world.getCountryPrefixes().complete("s", 2).size(), "The limit should be respected.");
+    }
+
+    @Test
+    void testPrefixIsNormalised()
+    {
+        assertEquals(List.of("São Tomé"), world.getCapitalPrefixes().complete("SAO T", 5),
+                     "Accents and case should not matter.");
+        assertEquals(List.of("San José"), world.getCapitalPrefixes().complete("san jose", 5),
+                     "A full name should complete to itself.");
+    }
+
+    @Test
+    void testNoMatchesAndEmptyPrefix()
+    {
+        assertTrue(world.getCountryPrefixes().complete("qq", 5).isEmpty(), "No country starts with qq.");
+        assertEquals(world.getCountryTable().size(),
+                     world.getCountryPrefixes().completeIds("", Integer.MAX_VALUE).length,
+                     "An empty prefix should match every country.");
+    }
+}
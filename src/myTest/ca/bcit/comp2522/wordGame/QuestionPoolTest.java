@@ -0,0 +1,80 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuestionPoolTest
+{
+
+    @Test
+    void testEveryClaimGetsItsOwnQuestion() throws Exception
+    {
+        final World world = new World(Paths.get("src/myResources/countries"));
+        final Set<Question> claimed = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        try (QuestionPool pool = new QuestionPool(world, 64, new SplittableRandom(1)))
+        {
+            final List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++)
+            {
+                threads.add(Thread.ofVirtual().start(() ->
+                {
+                    for (int i = 0; i < 500; i++)
+                    {
+                        claimed.add(pool.next());
+                    }
+                }));
+            }
+            for (final Thread thread : threads)
+            {
+                thread.join();
+            }
+        }
+
+        // A slot claimed twice would hand the same Question to two sessions
+        assertEquals(4000, claimed.size(), "Each of the 4000 claims should get a distinct question.");
+    }
+
+    @Test
+    void testPooledQuestionsAreAnswerable() throws IOException
+    {
+        final World world = new World(Paths.get("src/myResources/countries"));
+
+        try (QuestionPool pool = new QuestionPool(world, 8, new SplittableRandom(2)))
+        {
+            for (int i = 0; i < 20; i++)
+            {
+                final Question question = pool.next();
+                assertTrue(question.isCorrect(question.getAnswer()), "The stored answer should be accepted.");
+            }
+        }
+    }
+
+    @Test
+    void testSameSeedReplaysSameGame() throws IOException
+    {
+        final World world = new World(Paths.get("src/myResources/countries"));
+        final QuestionGenerator first = new QuestionGenerator(world, new SplittableRandom(2522).split());
+        final QuestionGenerator second = new QuestionGenerator(world, new SplittableRandom(2522).split());
+
+        for (int i = 0; i < GameSession.QUESTIONS_PER_GAME; i++)
+        {
+            final Question expected = first.next();
+            final Question actual = second.next();
+            assertEquals(expected.getPrompt(), actual.getPrompt(), "The same seed should ask the same question.");
+            assertEquals(expected.getAnswer(), actual.getAnswer(), "The same seed should expect the same answer.");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreAggregatesTest
+{
+
+    private static final Path SCORE_FILE = Paths.get("test_aggregates_score.txt");
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        tearDown();
+    }
+
+    @Test
+    void testOverallDailyAndHourlyTotals()
+    {
+        final ScoreAggregates aggregates = new ScoreAggregates();
+        aggregates.add(new Score(LocalDateTime.of(2024, 1, 1, 10, 0), 1, 6, 2, 2)); // 14 points
+        aggregates.add(new Score(LocalDateTime.of(2024, 1, 1, 21, 0), 2, 9, 1, 0)); // 19 points
+        aggregates.add(new Score(LocalDateTime.of(2024, 1, 2, 10, 30), 3, 5, 0, 5)); // 10 points
+
+        final ScoreAggregates.Totals overall = aggregates.overall();
+        assertEquals(3, overall.getEntries());
+        assertEquals(43, overall.getPoints());
+        assertEquals(19, overall.getHighScore());
+        assertEquals(20.0 / 30.0, overall.firstTryAccuracy(), 1e-9);
+        assertEquals(3.0, aggregates.gamesPerDay(), 1e-9, "Six games over two days.");
+
+        assertEquals(16.5, aggregates.forDay(LocalDate.of(2024, 1, 1)).averageScore(), 1e-9);
+        assertEquals(0, aggregates.forDay(LocalDate.of(2024, 1, 3)).getEntries(), "A day without play should be empty.");
+        assertEquals(4, aggregates.forHour(10).getGamesPlayed(), "Both morning entries fall in hour 10.");
+    }
+
+    @Test
+    void testOpenSkipsTornEntry() throws IOException
+    {
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 1, 1, 10, 0), 1, 6, 2, 2), SCORE_FILE.toString());
+        Files.writeString(SCORE_FILE, "Date and Time: 2024-01-01 10:30:00\nGames Pla", StandardOpenOption.APPEND);
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 1, 1, 21, 0), 2, 9, 1, 0), SCORE_FILE.toString());
+
+        final ScoreAggregates.Totals overall = ScoreAggregates.open(SCORE_FILE).overall();
+        assertEquals(2, overall.getEntries(), "The entries on both sides of the torn one should be read.");
+        assertEquals(33, overall.getPoints());
+    }
+
+    @Test
+    void testJournalKeepsSavedTotalsInStepWithFile() throws IOException
+    {
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 1, 1, 10, 0), 1, 6, 2, 2), SCORE_FILE.toString());
+
+        final ScoreAggregates aggregates = ScoreAggregates.open(SCORE_FILE);
+
+        try (ScoreJournal journal = new ScoreJournal(SCORE_FILE, 4, 5, TimeUnit.MILLISECONDS,
+                                                     ScoreJournal.SyncPolicy.NONE, aggregates))
+        {
+            journal.record(new Score(LocalDateTime.of(2024, 1, 2, 9, 0), 1, 9, 1, 0));
+            journal.record(new Score(LocalDateTime.of(2024, 1, 2, 9, 5), 1, 1, 0, 9));
+        }
+
+        assertEquals(3, aggregates.overall().getEntries(), "Written scores should be added.");
+
+        // appended by another writer after the journal saved the totals
+        Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 1, 3, 9, 0), 1, 4, 0, 0), SCORE_FILE.toString());
+
+        final ScoreAggregates reopened = ScoreAggregates.open(SCORE_FILE);
+        assertEquals(4, reopened.overall().getEntries(), "Saved and appended entries should each be counted once.");
+        assertEquals(2, reopened.forDay(LocalDate.of(2024, 1, 2)).getEntries(), "Daily totals should be restored.");
+        assertEquals(aggregates.overall().getPoints() + 8, reopened.overall().getPoints());
+    }
+
+    @Test
+    void testJournalSavesTotalsWithoutClosing() throws Exception
+    {
+        final ScoreAggregates aggregates = new ScoreAggregates();
+
+        try (ScoreJournal journal = new ScoreJournal(SCORE_FILE, 1, 1, TimeUnit.MILLISECONDS,
+                                                     ScoreJournal.SyncPolicy.NONE, aggregates))
+        {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+            // one score per commit until the journal has saved the totals once
+            while (!Files.exists(ScoreAggregates.statsFile(SCORE_FILE)) && System.nanoTime() < deadline)
+            {
+                journal.record(new Score(LocalDateTime.of(2024, 1, 1, 10, 0), 1, 1, 0, 0));
+                Thread.sleep(1);
+            }
+
+            assertTrue(Files.exists(ScoreAggregates.statsFile(SCORE_FILE)),
+                       "The totals should be saved while the journal is still open.");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        Files.deleteIfExists(SCORE_FILE);
+        Files.deleteIfExists(ScoreAggregates.statsFile(SCORE_FILE));
+    }
+}
@@ -0,0 +1,145 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreJournalTest
+{
+
+    private static final Path SCORE_FILE = Paths.get("test_journal_score.txt");
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        Files.deleteIfExists(SCORE_FILE);
+    }
+
+    @Test
+    void testConcurrentRecordsAreAllWritten() throws Exception
+    {
+        final ScoreJournal journal = new ScoreJournal(SCORE_FILE, 16, 5, TimeUnit.MILLISECONDS,
+                                                      ScoreJournal.SyncPolicy.NONE);
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++)
+        {
+            threads.add(Thread.ofVirtual().start(() ->
+            {
+                for (int i = 0; i < 100; i++)
+                {
+                    journal.record(new Score(LocalDateTime.now(), 1, i % 10, 0, 10 - (i % 10)));
+                }
+            }));
+        }
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+        journal.close();
+
+        // Every entry must be whole, so the text reader sees all of them
+        assertEquals(800, Score.readScoresFromFile(SCORE_FILE.toString()).size(),
+                     "All 800 scores should be written without interleaving.");
+    }
+
+    @Test
+    void testCloseDrainsQueueAndRejectsNewRecords() throws IOException
+    {
+        final ScoreJournal journal = new ScoreJournal(SCORE_FILE, 1000, 10, TimeUnit.SECONDS,
+                                                      ScoreJournal.SyncPolicy.ON_COMMIT);
+        journal.record(new Score(LocalDateTime.now(), 1, 6, 2, 1));
+        journal.record(new Score(LocalDateTime.now(), 1, 9, 1, 0));
+        journal.close();
+
+        assertEquals(2, Score.readScoresFromFile(SCORE_FILE.toString()).size(),
+                     "Queued scores should be written on close.");
+        assertThrows(IllegalStateException.class,
+                     () -> journal.record(new Score(LocalDateTime.now(), 1, 1, 1, 1)));
+    }
+
+    @Test
+    void testRecordsRacingCloseAreWrittenOrRejected() throws Exception
+    {
+        final ScoreJournal journal = new ScoreJournal(SCORE_FILE, 16, 5, TimeUnit.MILLISECONDS,
+                                                      ScoreJournal.SyncPolicy.NONE);
+        final AtomicInteger accepted = new AtomicInteger();
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++)
+        {
+            threads.add(Thread.ofVirtual().start(() ->
+            {
+                try
+                {
+                    for (int i = 0; i < 10_000; i++)
+                    {
+                        journal.record(new Score(LocalDateTime.now(), 1, 1, 0, 0));
+                        accepted.incrementAndGet();
+                    }
+                }
+                catch (final IllegalStateException ex)
+                {
+                    // closed while recording
+                }
+            }));
+        }
+
+        Thread.sleep(5);
+        journal.close();
+
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        assertEquals(accepted.get(), Score.readScoresFromFile(SCORE_FILE.toString()).size(),
+                     "Every score record() accepted should be written.");
+    }
+
+    @Test
+    void testInterruptedCloseStillWaitsForTheWriter() throws IOException
+    {
+        final ScoreJournal journal = new ScoreJournal(SCORE_FILE, 1000, 10, TimeUnit.SECONDS,
+                                                      ScoreJournal.SyncPolicy.ON_COMMIT);
+        for (int i = 0; i < 500; i++)
+        {
+            journal.record(new Score(LocalDateTime.now(), 1, 1, 0, 0));
+        }
+
+        Thread.currentThread().interrupt();
+
+        try
+        {
+            journal.close();
+            assertTrue(Thread.currentThread().isInterrupted(), "The interrupt should be kept for the caller.");
+        }
+        finally
+        {
+            Thread.interrupted();
+        }
+
+        assertEquals(500, Score.readScoresFromFile(SCORE_FILE.toString()).size(),
+                     "Every queued score should be written once.");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        Files.deleteIfExists(SCORE_FILE);
+    }
+}
@@ -0,0 +1,98 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreLogTest
+{
+
+    private static final Path LOG_FILE = Paths.get("test_score.log");
+    private static final Path TEXT_FILE = Paths.get("test_score_export.txt");
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        tearDown();
+    }
+
+    @Test
+    void testCountAndHighScoreSurviveReopen() throws IOException
+    {
+        try (ScoreLog log = ScoreLog.open(LOG_FILE))
+        {
+            log.append(new Score(LocalDateTime.of(2024, 1, 1, 10, 0), 1, 6, 2, 1)); // 14 points
+            log.append(new Score(LocalDateTime.of(2024, 1, 1, 11, 0), 1, 9, 1, 0)); // 19 points
+            log.append(new Score(LocalDateTime.of(2024, 1, 2, 9, 0), 1, 7, 2, 1));  // 16 points
+        }
+
+        try (ScoreLog log = ScoreLog.open(LOG_FILE))
+        {
+            assertEquals(3, log.count(), "The header should record three scores.");
+            assertEquals(19, log.highScore(), "The header should record the high score.");
+            assertEquals(16, log.get(2).getScore(), "The last record should be readable by index.");
+        }
+    }
+
+    @Test
+    void testLatestAndForDay() throws IOException
+    {
+        try (ScoreLog log = ScoreLog.open(LOG_FILE))
+        {
+            for (int day = 1; day <= 5; day++)
+            {
+                for (int i = 0; i < 3; i++)
+                {
+                    log.append(new Score(LocalDateTime.of(2024, 3, day, 8 + i, 0), 1, day, i, 0));
+                }
+            }
+
+            final List<Score> latest = log.latest(4);
+            assertEquals(4, latest.size(), "Four scores should be returned.");
+            assertEquals(LocalDateTime.of(2024, 3, 5, 10, 0), latest.get(3).getDateTimePlayed());
+
+            final List<Score> dayThree = log.forDay(LocalDate.of(2024, 3, 3));
+            assertEquals(3, dayThree.size(), "Three scores were played on March 3.");
+            for (final Score score : dayThree)
+            {
+                assertEquals(3, score.getCorrectFirst());
+            }
+
+            assertTrue(log.forDay(LocalDate.of(2024, 4, 1)).isEmpty(), "No scores were played in April.");
+        }
+    }
+
+    @Test
+    void testExportMatchesTextFormat() throws IOException
+    {
+        final Score score = new Score(LocalDateTime.of(2024, 5, 6, 7, 8, 9), 2, 12, 4, 4);
+
+        try (ScoreLog log = ScoreLog.open(LOG_FILE))
+        {
+            log.append(score);
+            log.exportText(TEXT_FILE);
+        }
+
+        assertEquals(score.toString(), Files.readString(TEXT_FILE));
+        assertEquals(1, Score.readScoresFromFile(TEXT_FILE.toString()).size());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        Files.deleteIfExists(LOG_FILE);
+        Files.deleteIfExists(ScoreLog.dayIndexFile(LOG_FILE));
+        Files.deleteIfExists(TEXT_FILE);
+    }
+}
@@ -0,0 +1,117 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScoreRepositoryTest
+{
+
+    private static final Path SCORE_FILE = Paths.get("test_repository_scores");
+    private static final Path LEGACY_FILE = Paths.get("test_legacy_score.txt");
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        tearDown();
+    }
+
+    @Test
+    void testEveryBackendStoresAndStreamsInOrder() throws IOException
+    {
+        for (final ScoreRepository.Backend backend : ScoreRepository.Backend.values())
+        {
+            tearDown();
+
+            final List<Score> written = new ArrayList<>();
+            for (int i = 0; i < 1500; i++)
+            {
+                final String playerId = i % 3 == 0 ? null : "player" + i % 5;
+                written.add(new Score(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i), playerId,
+                                      1, i % 10, i % 3, i % 2));
+            }
+
+            try (ScoreRepository repository = ScoreRepository.open(backend, SCORE_FILE))
+            {
+                repository.append(written.get(0));
+                repository.appendAll(written.subList(1, written.size()));
+            }
+
+            try (ScoreRepository repository = ScoreRepository.open(backend, SCORE_FILE);
+                 Stream<Score> scores = repository.stream())
+            {
+                assertEquals(1500, repository.count(), backend + " should keep every score after reopening.");
+                assertEquals(written.toString(), scores.toList().toString(), backend + " should stream scores, and their players, in order.");
+            }
+        }
+    }
+
+    @Test
+    void testLegacyTotalsAreConverted() throws IOException
+    {
+        Files.writeString(LEGACY_FILE, "- 1 word game played\n"
+                                       + "- 0 correct answers on the first attempt\n"
+                                       + "- 0 correct answers on the second attempt\n"
+                                       + "- 10 incorrect answers on two attempts each\n"
+                                       + "\n"
+                                       + "- 3 word games played\n"
+                                       + "- 12 correct answers on the first attempt\n"
+                                       + "- 9 correct answers on the second attempt\n"
+                                       + "- 9 incorrect answers on two attempts each\n"
+                                       + "\n"
+                                       + "- 2 word games played\n"
+                                       + "- 5 correct answers on the first attempt\n");
+
+        try (ScoreRepository repository = ScoreRepository.open(ScoreRepository.Backend.TEXT, SCORE_FILE))
+        {
+            assertEquals(2, LegacyScoreConverter.convert(LEGACY_FILE, repository), "The cut-off block should be dropped.");
+        }
+
+        final List<Score> scores = Score.readScoresFromFile(SCORE_FILE.toString());
+        assertEquals(2, scores.size(), "Converted totals should be readable by Score.");
+        assertEquals(3, scores.get(1).getGamesPlayed());
+        assertEquals(33, scores.get(1).getScore());
+    }
+
+    @Test
+    void testBrokenLegacyBlockKeepsTheNextOne() throws IOException
+    {
+        // the first block stops after two lines, straight into the next block's header
+        Files.writeString(LEGACY_FILE, "- 2 word games played\n"
+                                       + "- 5 correct answers on the first attempt\n"
+                                       + "- 3 word games played\n"
+                                       + "- 12 correct answers on the first attempt\n"
+                                       + "- 9 correct answers on the second attempt\n"
+                                       + "- 9 incorrect answers on two attempts each\n");
+
+        try (ScoreRepository repository = ScoreRepository.open(ScoreRepository.Backend.TEXT, SCORE_FILE))
+        {
+            assertEquals(1, LegacyScoreConverter.convert(LEGACY_FILE, repository),
+                         "Only the broken block should be dropped.");
+        }
+
+        final List<Score> scores = Score.readScoresFromFile(SCORE_FILE.toString());
+        assertEquals(3, scores.get(0).getGamesPlayed());
+        assertEquals(33, scores.get(0).getScore());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        Files.deleteIfExists(SCORE_FILE);
+        Files.deleteIfExists(ScoreLog.dayIndexFile(SCORE_FILE));
+        Files.deleteIfExists(ScoreTimeIndex.indexFile(SCORE_FILE));
+        Files.deleteIfExists(LEGACY_FILE);
+    }
+}
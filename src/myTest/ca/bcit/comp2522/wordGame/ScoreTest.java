@@ -7,17 +7,26 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ScoreTest
 {
 
     private static final String SCORE_FILE = "test_score.txt";
+    private static final Path EXPORT_FILE = Paths.get("test_score_export.txt");
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     @BeforeEach
@@ -151,10 +160,140 @@ class ScoreTest
         assertTrue(scores.isEmpty(), "Reading from an empty file should return an empty list.");
     }
 
+    @Test
+    void testStreamMatchesList() throws IOException
+    {
+        for (int i = 0; i < 25; i++)
+        {
+            Score score = new Score(LocalDateTime.now(), 1, i % 10, (i % 3) + 1, (i % 2) + 1);
+            Score.appendScoreToFile(score, SCORE_FILE);
+        }
+
+        List<Score> listed = Score.readScoresFromFile(SCORE_FILE);
+        List<Score> streamed;
+        try (Stream<Score> scores = Score.streamScoresFromFile(SCORE_FILE))
+        {
+            streamed = scores.collect(Collectors.toList());
+        }
+
+        assertEquals(listed.size(), streamed.size(), "The stream should return every entry.");
+        for (int i = 0; i < listed.size(); i++)
+        {
+            assertEquals(listed.get(i).toString(), streamed.get(i).toString(), "Entry " + i + " should match.");
+        }
+    }
+
+    @Test
+    void testStreamingAggregates() throws IOException
+    {
+        Score.appendScoreToFile(new Score(LocalDateTime.now(), 1, 6, 2, 1), SCORE_FILE); // 14 points
+        Score.appendScoreToFile(new Score(LocalDateTime.now(), 1, 9, 1, 0), SCORE_FILE); // 19 points
+        Score.appendScoreToFile(new Score(LocalDateTime.now(), 1, 7, 2, 1), SCORE_FILE); // 16 points
+
+        assertEquals(19, ScoreStatistics.maxScore(SCORE_FILE), "The highest score should be 19 points.");
+        assertEquals(49, ScoreStatistics.totalScore(SCORE_FILE), "The scores should add up to 49 points.");
+        assertEquals(3, ScoreStatistics.count(SCORE_FILE), "There should be 3 entries.");
+
+        List<Score> top = ScoreStatistics.topK(SCORE_FILE, 2);
+        assertEquals(2, top.size(), "Two entries should be returned.");
+        assertEquals(19, top.get(0).getScore(), "The best score should come first.");
+        assertEquals(16, top.get(1).getScore(), "The second best score should come second.");
+    }
+
+    @Test
+    void testCodecMatchesToString()
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(ScoreCodec.MAX_ENTRY_BYTES);
+        Score[] scores = {
+            new Score(LocalDateTime.of(2024, 1, 2, 3, 4, 5), 1, 6, 2, 1),
+            new Score(LocalDateTime.of(999, 12, 31, 23, 59, 59), 0, 0, 0, 0),
+            new Score(LocalDateTime.of(2024, 6, 1, 12, 0), Integer.MAX_VALUE, 1_000_000_000, 7, Integer.MAX_VALUE)
+        };
+
+        for (Score score : scores)
+        {
+            buffer.clear();
+            ScoreCodec.encode(score, buffer);
+            buffer.flip();
+
+            assertEquals(score.toString(), StandardCharsets.US_ASCII.decode(buffer.duplicate()).toString(),
+                         "Encoded bytes should match toString().");
+            assertEquals(score.toString(), ScoreCodec.decode(buffer).toString(), "Decoding should round-trip.");
+            assertEquals(0, buffer.remaining(), "The whole entry should be consumed.");
+        }
+    }
+
+    @Test
+    void testCodecWaitsForWholeEntry()
+    {
+        int leftover = "Leftover line\n".length();
+        byte[] text = ("Leftover line\n" + new Score(LocalDateTime.of(2024, 1, 2, 3, 4, 5), 1, 6, 2, 1))
+            .getBytes(StandardCharsets.US_ASCII);
+
+        for (int cut = 0; cut < text.length; cut++)
+        {
+            ByteBuffer partial = ByteBuffer.wrap(text, 0, cut);
+            assertNull(ScoreCodec.decode(partial), "A partial entry should not be decoded.");
+            assertEquals(cut < leftover ? 0 : leftover, partial.position(),
+                         "The position should stay at the start of the unread line.");
+        }
+
+        assertEquals(14, ScoreCodec.decode(ByteBuffer.wrap(text)).getScore(), "The whole entry should decode.");
+    }
+
+    @Test
+    void testCodecImportAndExport() throws IOException
+    {
+        for (int i = 0; i < 2000; i++)
+        {
+            Score.appendScoreToFile(new Score(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i), 1, i % 10, i % 3,
+                                              i % 2), SCORE_FILE);
+        }
+
+        Path imported = Paths.get(SCORE_FILE + ".copy");
+        try (ScoreRepository repository = ScoreRepository.open(ScoreRepository.Backend.BINARY, imported))
+        {
+            assertEquals(2000, ScoreCodec.importText(Paths.get(SCORE_FILE), repository), "Every entry should be imported.");
+            assertEquals(2000, ScoreCodec.export(repository, EXPORT_FILE), "Every entry should be exported.");
+        }
+        finally
+        {
+            Files.deleteIfExists(imported);
+            Files.deleteIfExists(ScoreLog.dayIndexFile(imported));
+        }
+
+        assertEquals(Files.readString(Paths.get(SCORE_FILE)), Files.readString(EXPORT_FILE),
+                     "The exported file should match the original.");
+    }
+
+    @Test
+    void testPlayerIdRoundTrips() throws IOException
+    {
+        Score anonymous = new Score(LocalDateTime.of(2024, 1, 2, 3, 4, 5), 1, 6, 2, 1);
+        Score named = new Score(LocalDateTime.of(2024, 1, 2, 3, 4, 6), "player_1", 1, 6, 2, 1);
+
+        assertTrue(named.toString().startsWith("Player: player_1\nDate and Time: "),
+                   "A player id should be written before the entry.");
+        assertTrue(named.toString().endsWith(anonymous.toString().substring("Date and Time: 2024-01-02 03:04:05".length())),
+                   "The rest of the entry should not change.");
+
+        Score.appendScoreToFile(named, SCORE_FILE);
+        Score.appendScoreToFile(anonymous, SCORE_FILE);
+
+        List<Score> scores = Score.readScoresFromFile(SCORE_FILE);
+        assertEquals("player_1", scores.get(0).getPlayerId(), "The player id should be read back.");
+        assertNull(scores.get(1).getPlayerId(), "An entry without a player line should have no player.");
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(Paths.get(SCORE_FILE)));
+        assertEquals(named.toString(), ScoreCodec.decode(buffer).toString(), "The codec should read the player id.");
+        assertNull(ScoreCodec.decode(buffer).getPlayerId(), "The codec should not carry a player id over.");
+    }
+
     @AfterEach
-    void tearDown()
+    void tearDown() throws IOException
     {
         // Clean up by deleting the test score file after each test
         new File(SCORE_FILE).delete();
+        Files.deleteIfExists(EXPORT_FILE);
     }
 }
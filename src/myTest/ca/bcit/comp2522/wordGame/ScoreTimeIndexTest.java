@@ -0,0 +1,146 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScoreTimeIndexTest
+{
+
+    private static final Path SCORE_FILE = Paths.get("test_time_index_score");
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        tearDown();
+    }
+
+    @Test
+    void testEveryBackendAnswersRanges() throws IOException
+    {
+        final List<Score> written = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            written.add(new Score(START.plusHours(i), 1, i % 10, i % 3, i % 2));
+        }
+
+        for (final ScoreRepository.Backend backend : ScoreRepository.Backend.values())
+        {
+            tearDown();
+
+            try (ScoreRepository repository = ScoreRepository.open(backend, SCORE_FILE))
+            {
+                repository.appendAll(written);
+
+                assertRange(written, repository, START.plusHours(130), START.plusHours(300), backend);
+                assertRange(written, repository, START.plusMinutes(30), START.plusDays(2), backend);
+                assertRange(written, repository, START.minusDays(5), START.minusDays(1), backend);
+                assertRange(written, repository, START.plusHours(990), START.plusYears(1), backend);
+                assertRange(written, repository, START.minusDays(1), START.plusYears(1), backend);
+            }
+        }
+    }
+
+    @Test
+    void testSavedIndexCatchesUpWithAppendedEntries() throws IOException
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            Score.appendScoreToFile(new Score(START.plusMinutes(i), 1, 1, 0, 0), SCORE_FILE.toString());
+        }
+
+        final ScoreTimeIndex first = ScoreTimeIndex.open(SCORE_FILE, 8);
+        assertEquals(100, first.size());
+        first.checkpoint();
+
+        for (int i = 100; i < 150; i++)
+        {
+            Score.appendScoreToFile(new Score(START.plusMinutes(i), 1, 2, 0, 0), SCORE_FILE.toString());
+        }
+
+        final ScoreTimeIndex reopened = ScoreTimeIndex.open(SCORE_FILE, 8);
+        assertEquals(150, reopened.size(), "Entries written after the checkpoint should be added.");
+
+        try (Stream<Score> range = reopened.between(START.plusMinutes(95), START.plusMinutes(105)))
+        {
+            final List<Score> scores = range.toList();
+            assertEquals(10, scores.size());
+            assertEquals(START.plusMinutes(95), scores.get(0).getDateTimePlayed());
+            assertEquals(4, scores.get(9).getScore(), "The last entry should be one of the appended ones.");
+        }
+    }
+
+    @Test
+    void testMalformedEntriesAreSkipped() throws IOException
+    {
+        for (int i = 0; i < 10; i++)
+        {
+            Score.appendScoreToFile(new Score(START.plusMinutes(i), 1, 1, 0, 0), SCORE_FILE.toString());
+        }
+
+        // an impossible date, then an entry torn by a crash that the next append runs into
+        Files.writeString(SCORE_FILE,
+                          "Date and Time: 2024-13-01 00:10:00\nGames Played: 1\nCorrect First Attempts: 1\n"
+                          + "Correct Second Attempts: 0\nIncorrect Attempts: 0\nScore: 2 points\n"
+                          + "Date and Time: 2024-01-01 00:10:00\nGames Pla",
+                          StandardOpenOption.APPEND);
+
+        try (ScoreRepository repository = ScoreRepository.open(ScoreRepository.Backend.TEXT, SCORE_FILE))
+        {
+            assertEquals(10, repository.count(), "The bad entries should not be counted.");
+
+            for (int i = 10; i < 15; i++)
+            {
+                repository.append(new Score(START.plusMinutes(i), 1, 2, 0, 0));
+            }
+
+            assertEquals(15, repository.count(), "Entries after the bad ones should be counted.");
+
+            try (Stream<Score> range = repository.between(START.plusMinutes(5), START.plusMinutes(12)))
+            {
+                final List<Score> scores = range.toList();
+                assertEquals(7, scores.size(), "The range should read past the bad entries.");
+                assertEquals(START.plusMinutes(10), scores.get(5).getDateTimePlayed());
+            }
+        }
+    }
+
+    private static void assertRange(final List<Score> written,
+                                    final ScoreRepository repository,
+                                    final LocalDateTime from,
+                                    final LocalDateTime to,
+                                    final ScoreRepository.Backend backend) throws IOException
+    {
+        final List<Score> expected = written.stream()
+                                            .filter(s -> !s.getDateTimePlayed().isBefore(from)
+                                                         && s.getDateTimePlayed().isBefore(to))
+                                            .toList();
+
+        try (Stream<Score> range = repository.between(from, to))
+        {
+            assertEquals(expected.toString(), range.toList().toString(),
+                         backend + " should return the scores from " + from + " to " + to + ".");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        Files.deleteIfExists(SCORE_FILE);
+        Files.deleteIfExists(ScoreLog.dayIndexFile(SCORE_FILE));
+        Files.deleteIfExists(ScoreTimeIndex.indexFile(SCORE_FILE));
+    }
+}
@@ -0,0 +1,127 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardedScoreStoreTest
+{
+
+    private static final Path STORE_DIR = Paths.get("test_sharded_scores");
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        tearDown();
+    }
+
+    @Test
+    void testHistoryAndBestScorePerPlayer() throws IOException
+    {
+        try (ShardedScoreStore store = ShardedScoreStore.open(STORE_DIR, 4))
+        {
+            for (int i = 0; i < 200; i++)
+            {
+                store.append(new Score(START.plusMinutes(i), "player" + (i % 10), 1, i % 7, i % 3, 0));
+            }
+
+            assertEquals(200, store.count());
+            assertEquals(20, store.history("player3").size(), "Every score of the player should be returned.");
+            assertEquals(START.plusMinutes(3), store.history("player3").get(0).getDateTimePlayed());
+            assertEquals(14, store.bestScore("player3").getScore(), "6 first attempts and 2 second.");
+
+            store.append(new Score(START.plusDays(1), "player3", 1, 10, 0, 0));
+            assertEquals(20, store.bestScore("player3").getScore(), "A new best should be seen at once.");
+            assertNull(store.bestScore("nobody"), "An unknown player has no best score.");
+        }
+
+        try (ShardedScoreStore reopened = ShardedScoreStore.open(STORE_DIR, 4))
+        {
+            assertEquals(201, reopened.count(), "Scores should survive reopening.");
+        }
+
+        assertThrows(IOException.class, () -> ShardedScoreStore.open(STORE_DIR, 8));
+    }
+
+    @Test
+    void testCompactDropsTornEntryInOneShard() throws IOException
+    {
+        try (ShardedScoreStore store = ShardedScoreStore.open(STORE_DIR, 2))
+        {
+            store.append(new Score(START, "alice", 1, 5, 0, 0));
+            store.append(new Score(START, "bob", 1, 3, 0, 0));
+
+            final int shard = store.shardOf("alice");
+            Files.writeString(ShardedScoreStore.shardFile(STORE_DIR, shard),
+                              "Player: alice\nDate and Time: 2024-01-01 00:01:00\nGames Played: 1\nCorrect Fir",
+                              StandardOpenOption.APPEND);
+
+            assertEquals(1, store.compact(shard), "Only the whole entry should be kept.");
+            assertEquals(1, store.history("alice").size());
+
+            store.append(new Score(START.plusMinutes(2), "alice", 1, 6, 0, 0));
+            assertEquals(12, store.bestScore("alice").getScore());
+            assertEquals(3, store.count());
+        }
+    }
+
+    @Test
+    void testTornEntryInTheMiddleOfAShardIsSkipped() throws IOException
+    {
+        final int shard;
+
+        try (ShardedScoreStore store = ShardedScoreStore.open(STORE_DIR, 2))
+        {
+            store.append(new Score(START, "alice", 1, 5, 0, 0));
+
+            shard = store.shardOf("alice");
+            Files.writeString(ShardedScoreStore.shardFile(STORE_DIR, shard),
+                              "Player: alice\nDate and Time: 2024-01-01 00:01:00\nGames Pla",
+                              StandardOpenOption.APPEND);
+
+            // the next entry starts on the torn line: "Games PlaPlayer: alice"
+            store.append(new Score(START.plusMinutes(2), "alice", 1, 6, 0, 0));
+
+            assertEquals(2, store.history("alice").size(), "The entries around the torn one should be read.");
+            assertEquals(12, store.bestScore("alice").getScore());
+            assertEquals(2, store.compact(shard), "Both whole entries should be kept.");
+        }
+
+        try (ShardedScoreStore reopened = ShardedScoreStore.open(STORE_DIR, 2))
+        {
+            assertEquals(2, reopened.history("alice").size(), "The compacted shard should reopen.");
+            assertEquals(2, reopened.compact(shard), "Compacting again should keep both entries.");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        if (Files.exists(STORE_DIR))
+        {
+            try (Stream<Path> files = Files.walk(STORE_DIR))
+            {
+                final List<Path> paths = files.sorted(Comparator.reverseOrder()).toList();
+                for (final Path path : paths)
+                {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+}
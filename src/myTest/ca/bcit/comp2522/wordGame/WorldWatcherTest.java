@@ -0,0 +1,137 @@
+package ca.bcit.comp2522.wordGame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class WorldWatcherTest
+{
+
+    private static final Path DATA_DIR = Paths.get("test_countries");
+    private static final Path SNAPSHOT_FILE = Paths.get("test_countries.snapshot");
+
+    @BeforeEach
+    void setUp() throws IOException
+    {
+        tearDown();
+        Files.createDirectories(DATA_DIR);
+        Files.writeString(DATA_DIR.resolve("c.txt"), "Canada:Ottawa\nf1\nf2\nf3\n\nChile:Santiago\nf1\nf2\nf3\n");
+        Files.writeString(DATA_DIR.resolve("f.txt"), "France:Paris\nf1\nf2\nf3\n");
+    }
+
+    @Test
+    void testWithLetterFileRereadsOnlyThatLetter() throws IOException
+    {
+        final World before = new World(DATA_DIR);
+
+        Files.writeString(DATA_DIR.resolve("c.txt"), "Cuba:Havana\nf1\nf2\nf3\n");
+        final World after = before.withLetterFile(DATA_DIR, 'c');
+
+        assertNull(after.getCountry("Canada"), "Countries removed from c.txt should be gone.");
+        assertNotNull(after.getCountry("Cuba"), "Countries added to c.txt should appear.");
+        assertSame(before.getCountry("France"), after.getCountry("France"), "Other letters should be reused, not re-read.");
+        assertNotNull(before.getCountry("Canada"), "The old World should be unchanged.");
+    }
+
+    @Test
+    void testShadowedCountryReturnsWhenLaterFileDropsIt() throws IOException
+    {
+        Files.writeString(DATA_DIR.resolve("x.txt"), "France:Lyon\nf1\nf2\nf3\n");
+        final World shadowed = World.load(DATA_DIR, SNAPSHOT_FILE);
+        assertEquals("Lyon", shadowed.getCountry("France").getCapitalCityName(), "The later file should win.");
+
+        // the snapshot must keep both entries so a reload of x.txt can fall back to f.txt
+        final World cached = World.load(DATA_DIR, SNAPSHOT_FILE);
+        Files.delete(DATA_DIR.resolve("x.txt"));
+
+        assertEquals("Paris", cached.withLetterFile(DATA_DIR, 'x').getCountry("France").getCapitalCityName(),
+                     "Removing the later entry should reveal the earlier one.");
+    }
+
+    @Test
+    void testWatcherReportsChangedLetter() throws Exception
+    {
+        final BlockingQueue<Character> changed = new ArrayBlockingQueue<>(26);
+
+        final WorldWatcher watcher = new WorldWatcher(DATA_DIR, changed::add);
+
+        try
+        {
+            Files.writeString(DATA_DIR.resolve("notes.md"), "ignored");
+            Files.writeString(DATA_DIR.resolve("f.txt"), "Fiji:Suva\nf1\nf2\nf3\n");
+
+            assertEquals(Character.valueOf('f'), changed.poll(10, TimeUnit.SECONDS), "Saving f.txt should report 'f'.");
+            assertNull(changed.poll(500, TimeUnit.MILLISECONDS), "Other files should not be reported.");
+        }
+        finally
+        {
+            watcher.close();
+        }
+    }
+
+    @Test
+    void testWatcherKeepsRunningAfterListenerFails() throws Exception
+    {
+        final BlockingQueue<Character> changed = new ArrayBlockingQueue<>(26);
+        final AtomicBoolean failed = new AtomicBoolean();
+
+        final WorldWatcher watcher = new WorldWatcher(DATA_DIR, letter ->
+        {
+            if (failed.compareAndSet(false, true))
+            {
+                throw new IllegalStateException("listener failed");
+            }
+            changed.add(letter);
+        });
+
+        try
+        {
+            Files.writeString(DATA_DIR.resolve("f.txt"), "Fiji:Suva\nf1\nf2\nf3\n");
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!failed.get() && System.nanoTime() < deadline)
+            {
+                Thread.sleep(10);
+            }
+
+            Files.writeString(DATA_DIR.resolve("c.txt"), "Cuba:Havana\nf1\nf2\nf3\n");
+            assertNotNull(changed.poll(10, TimeUnit.SECONDS), "Changes after a failure should still be reported.");
+        }
+        finally
+        {
+            watcher.close();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException
+    {
+        if (Files.exists(DATA_DIR))
+        {
+            try (Stream<Path> files = Files.list(DATA_DIR))
+            {
+                for (final Path file : files.toList())
+                {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(DATA_DIR);
+        }
+        Files.deleteIfExists(SNAPSHOT_FILE);
+    }
+}